@@ -6,6 +6,7 @@ window.ClientSideEyeBridge = (() => {
   const TOKEN_STORAGE_KEY = "clientsideeye_bridge_token";
 
   let bridgeBase = null;
+  let bridgeFeatures = { batch: false };
 
   async function getBridgeToken() {
     const tokenInput = document.getElementById("bridgeToken");
@@ -35,6 +36,7 @@ window.ClientSideEyeBridge = (() => {
         );
         if (response.ok) {
           bridgeBase = base;
+          bridgeFeatures = await readFeatures(response);
           return bridgeBase;
         }
         lastError = `${base} -> ${response.status} ${response.statusText}`;
@@ -51,6 +53,21 @@ window.ClientSideEyeBridge = (() => {
     return null;
   }
 
+  // Burp versions that accept POST /api/findings say so in /api/health;
+  // older ones only take one finding per request.
+  async function readFeatures(response) {
+    try {
+      const health = await response.json();
+      return { batch: health?.batch === true };
+    } catch (error) {
+      return { batch: false };
+    }
+  }
+
+  function features() {
+    return bridgeFeatures;
+  }
+
   function withTimeout(promise, ms, message) {
     return Promise.race([
       promise,
@@ -70,11 +87,102 @@ window.ClientSideEyeBridge = (() => {
     }
   }
 
+  // 429 (rate limited), 503 (Burp's ingest queue is full), other 5xx and
+  // network errors are retried a few times with jittered exponential backoff;
+  // a Retry-After header sets the minimum wait. Every bridge write is
+  // deduplicated on the Burp side, so a retried upload is harmless.
+  const MAX_RETRIES = 3;
+  const BASE_BACKOFF_MS = 250;
+  const MAX_RETRY_AFTER_MS = 10000;
+
+  function isRetryable(status) {
+    return status === 429 || status >= 500;
+  }
+
+  function backoffMs(attempt, response) {
+    const ceiling = Math.min(BASE_BACKOFF_MS * 2 ** attempt, MAX_RETRY_AFTER_MS);
+    const jittered = ceiling / 2 + Math.random() * (ceiling / 2);
+    const seconds = Number.parseFloat(response?.headers.get("Retry-After") || "");
+    const retryAfter = Number.isFinite(seconds) && seconds > 0 ? seconds * 1000 : 0;
+    return Math.max(Math.min(retryAfter, MAX_RETRY_AFTER_MS), jittered);
+  }
+
+  // onWait(waitMs, status) is told about each retry; status is 0 when the
+  // request itself failed.
+  async function fetchWithRetry(url, options, timeoutMs, onWait) {
+    for (let attempt = 0; ; attempt += 1) {
+      let response = null;
+      let failure = null;
+      try {
+        response = await fetchWithTimeout(url, options, timeoutMs);
+      } catch (error) {
+        failure = error;
+      }
+      if ((response && !isRetryable(response.status)) || attempt >= MAX_RETRIES) {
+        if (failure) {
+          throw failure;
+        }
+        return response;
+      }
+      const waitMs = backoffMs(attempt, response);
+      onWait?.(waitMs, response ? response.status : 0);
+      await new Promise((resolve) => setTimeout(resolve, waitMs));
+    }
+  }
+
+  // Runs send(chunk) for each pushed chunk with at most `limit` requests in
+  // flight, so one slow upload does not hold up the others. onDone(chunk,
+  // result, ms) sees each outcome; a rejected send arrives as { error }.
+  const SEND_CONCURRENCY = 3;
+
+  function createSendQueue(send, onDone, limit = SEND_CONCURRENCY) {
+    const pending = [];
+    const idleWaiters = [];
+    let inFlight = 0;
+    const pump = () => {
+      while (inFlight < limit && pending.length > 0) {
+        const chunk = pending.shift();
+        const startedAt = performance.now();
+        inFlight += 1;
+        Promise.resolve()
+          .then(() => send(chunk))
+          .catch((error) => ({ error }))
+          .then((result) => {
+            try {
+              onDone?.(chunk, result, performance.now() - startedAt);
+            } catch (error) {}
+            inFlight -= 1;
+            pump();
+          });
+      }
+      if (inFlight === 0 && pending.length === 0) {
+        for (const resolve of idleWaiters.splice(0)) {
+          resolve();
+        }
+      }
+    };
+    return {
+      push(chunk) {
+        pending.push(chunk);
+        pump();
+      },
+      drain() {
+        return new Promise((resolve) => {
+          idleWaiters.push(resolve);
+          pump();
+        });
+      },
+    };
+  }
+
   return {
     TOKEN_STORAGE_KEY,
     getBridgeToken,
     resolveBridgeBase,
     withTimeout,
+    features,
     fetchWithTimeout,
+    fetchWithRetry,
+    createSendQueue,
   };
 })();
@@ -1,24 +1,258 @@
 window.ClientSideEyeFindings = (() => {
-  const WATCH_DURATION_MS = 15000;
+  // Deep scans run at least WATCH_MIN_MS, stop once the page has been quiet
+  // for WATCH_QUIET_MS, and never run past WATCH_MAX_MS. "Quiet" means DOM
+  // mutations, hooked network calls and storage writes together stay at or
+  // below QUIET_EVENTS_PER_SECOND.
+  const WATCH_MIN_MS = 3000;
+  const WATCH_QUIET_MS = 3000;
+  const WATCH_MAX_MS = 45000;
+  const WATCH_SAMPLE_MS = 500;
   const WATCH_INTERVAL_MS = 2000;
+  const QUIET_EVENTS_PER_SECOND = 2;
+  // Used when the page's activity counters cannot be read.
+  const WATCH_FIXED_MS = 15000;
+  const DOM_DELTA_MAX_CHARS = 2 * 1024 * 1024;
+  // The in-page sweep yields to the page between slices, so it is allowed far
+  // longer than a one-shot script injection.
+  const SWEEP_TIMEOUT_MS = 30000;
+  const STREAM_DRAIN_MS = 1000;
+  const FINDINGS_MESSAGE = "clientsideeye-findings";
 
-  async function collectSnapshotFindings(tabId) {
+  // With onBatch, the page streams findings back in batches while it sweeps
+  // and onBatch sees each one as it arrives; either way the full list is
+  // returned once the sweep ends.
+  async function collectSnapshotFindings(tabId, onBatch) {
+    const scanId = onBatch
+      ? `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}`
+      : null;
+    const all = [];
+    const deliver = (findings) => {
+      if (!Array.isArray(findings) || findings.length === 0) return;
+      all.push(...findings);
+      onBatch?.(findings);
+    };
+    let received = 0;
+    const listener = (message, sender) => {
+      if (
+        message?.type !== FINDINGS_MESSAGE ||
+        message.scanId !== scanId ||
+        sender?.tab?.id !== tabId
+      ) {
+        return;
+      }
+      received += message.findings?.length || 0;
+      deliver(message.findings);
+    };
+    if (scanId) {
+      chrome.runtime.onMessage.addListener(listener);
+    }
+    try {
+      const [{ result }] = await window.ClientSideEyeBridge.withTimeout(
+        chrome.scripting.executeScript({
+          target: { tabId },
+          func: collectFindings,
+          args: [scanId],
+        }),
+        SWEEP_TIMEOUT_MS,
+        "Timed out executing scanner in tab",
+      );
+      // Streamed batches and the script result travel on different channels;
+      // give the last batches a moment to land.
+      const streamed = Number(result?.streamed) || 0;
+      const drainUntil = Date.now() + STREAM_DRAIN_MS;
+      while (received < streamed && Date.now() < drainUntil) {
+        await new Promise((resolve) => setTimeout(resolve, 20));
+      }
+      deliver(result?.findings);
+      // How often the page removed the node the sweep paused on; the sweep
+      // then resumed from the nearest surviving ancestor.
+      all.sweepResumed = Number(result?.resumed) || 0;
+      return all;
+    } finally {
+      if (scanId) {
+        chrome.runtime.onMessage.removeListener(listener);
+      }
+    }
+  }
+
+  // Serialized rendered DOM for Burp-side HTML analysis, including controls
+  // that only exist after client-side rendering.
+  async function collectDomSnapshot(tabId) {
     const [{ result }] = await window.ClientSideEyeBridge.withTimeout(
       chrome.scripting.executeScript({
         target: { tabId },
-        func: collectFindings,
+        func: () => {
+          const doctype = document.doctype
+            ? new XMLSerializer().serializeToString(document.doctype)
+            : "";
+          return {
+            url: location.href,
+            html: doctype + document.documentElement.outerHTML,
+          };
+        },
       }),
       window.ClientSideEyeRuntime.EXEC_TIMEOUT_MS,
-      "Timed out executing scanner in tab",
+      "Timed out capturing DOM snapshot",
+    );
+    return result || null;
+  }
+
+  function executeInTab(tabId, func, args, message) {
+    return window.ClientSideEyeBridge.withTimeout(
+      chrome.scripting.executeScript({ target: { tabId }, func, args }),
+      window.ClientSideEyeRuntime.EXEC_TIMEOUT_MS,
+      message,
+    );
+  }
+
+  // Deep scans observe the page and send only the subtrees that changed,
+  // instead of re-sending the whole DOM after every update.
+  async function startDomDeltaObserver(tabId) {
+    await executeInTab(tabId, installDomDeltaObserver, [], "Timed out installing DOM observer");
+  }
+
+  async function takeDomDeltas(tabId) {
+    const [{ result }] = await executeInTab(
+      tabId,
+      drainDomDeltas,
+      [DOM_DELTA_MAX_CHARS],
+      "Timed out reading DOM changes",
     );
     return Array.isArray(result) ? result : [];
   }
 
-  async function collectWatchedFindings(tabId, statusEl) {
+  async function stopDomDeltaObserver(tabId) {
+    await executeInTab(
+      tabId,
+      () => {
+        window.__clientSideEyeDomDeltas?.observer.disconnect();
+        delete window.__clientSideEyeDomDeltas;
+      },
+      [],
+      "Timed out removing DOM observer",
+    );
+  }
+
+  // Runs in the page. Element ids live in a WeakMap so the DOM is not touched
+  // and detached nodes can be collected.
+  function installDomDeltaObserver() {
+    if (window.__clientSideEyeDomDeltas) {
+      return;
+    }
+    const ids = new WeakMap();
+    let nextId = 1;
+    const idOf = (el) => {
+      let id = ids.get(el);
+      if (!id) {
+        id = `n${nextId++}`;
+        ids.set(el, id);
+      }
+      return id;
+    };
+    const pending = new Set();
+    const state = { pending, idOf, mutations: 0 };
+    const observer = new MutationObserver((records) => {
+      state.mutations += records.length;
+      for (const record of records) {
+        if (record.type === "childList") {
+          for (const node of record.addedNodes) {
+            if (node.nodeType === Node.ELEMENT_NODE) {
+              pending.add(node);
+            }
+          }
+        } else if (record.target.nodeType === Node.ELEMENT_NODE) {
+          pending.add(record.target);
+        }
+      }
+    });
+    observer.observe(document.documentElement, {
+      subtree: true,
+      childList: true,
+      attributes: true,
+      attributeFilter: [
+        "disabled",
+        "hidden",
+        "readonly",
+        "aria-disabled",
+        "aria-hidden",
+        "style",
+        "class",
+        "type",
+      ],
+    });
+    state.observer = observer;
+    window.__clientSideEyeDomDeltas = state;
+  }
+
+  // Runs in the page. Returns the outermost changed subtrees still attached,
+  // each once, up to maxChars of markup; the rest waits for the next call.
+  function drainDomDeltas(maxChars) {
+    const state = window.__clientSideEyeDomDeltas;
+    if (!state) {
+      return [];
+    }
+    const roots = [...state.pending].filter((el) => el.isConnected);
+    state.pending.clear();
+    const rootSet = new Set(roots);
+    const out = [];
+    let chars = 0;
+    for (const el of roots) {
+      let parent = el.parentElement;
+      while (parent && !rootSet.has(parent)) {
+        parent = parent.parentElement;
+      }
+      if (parent) {
+        continue;
+      }
+      const html = el.outerHTML;
+      if (html.length > maxChars) {
+        continue;
+      }
+      if (chars + html.length > maxChars) {
+        state.pending.add(el);
+        continue;
+      }
+      chars += html.length;
+      out.push({ pageUrl: location.href, nodeId: state.idOf(el), html });
+    }
+    return out;
+  }
+
+  // Runs in the page: running totals of the activity signals the deep scan
+  // watches. Network and storage counters come from the runtime hooks.
+  function readActivityCounters() {
+    const [network, storage] = String(
+      document.documentElement?.dataset?.clientsideeyeRuntimeActivity || "0,0",
+    )
+      .split(",")
+      .map((value) => Number(value) || 0);
+    return {
+      mutations: window.__clientSideEyeDomDeltas?.mutations || 0,
+      network,
+      storage,
+    };
+  }
+
+  async function readActivity(tabId) {
+    try {
+      const [{ result }] = await executeInTab(
+        tabId,
+        readActivityCounters,
+        [],
+        "Timed out reading page activity",
+      );
+      const total = (result?.mutations || 0) + (result?.network || 0) + (result?.storage || 0);
+      return { total, at: Date.now() };
+    } catch (error) {
+      return null;
+    }
+  }
+
+  async function collectWatchedFindings(tabId, statusEl, onTick) {
     const seen = new Set();
     const aggregated = [];
     const startedAt = Date.now();
-    while (Date.now() - startedAt < WATCH_DURATION_MS) {
+    const collect = async () => {
       const findings = await collectSnapshotFindings(tabId);
       for (const finding of findings) {
         const key =
@@ -30,22 +264,76 @@ window.ClientSideEyeFindings = (() => {
         seen.add(key);
         aggregated.push(finding);
       }
-      const secondsLeft = Math.max(
-        0,
-        Math.ceil((WATCH_DURATION_MS - (Date.now() - startedAt)) / 1000),
-      );
-      if (statusEl) {
-        statusEl.textContent = `Watching current tab...\nUnique findings: ${aggregated.length}\nTime left: ${secondsLeft}s`;
+    };
+
+    let previous = await readActivity(tabId);
+    let quietSince = startedAt;
+    let lastCollect = 0;
+    let rate = 0;
+    let tickStatus = "";
+    let countersMissing = false;
+    while (true) {
+      const now = Date.now();
+      const elapsed = now - startedAt;
+      if (elapsed >= (countersMissing ? WATCH_FIXED_MS : WATCH_MAX_MS)) {
+        break;
       }
-      if (secondsLeft <= 0) {
+      if (elapsed >= WATCH_MIN_MS && now - quietSince >= WATCH_QUIET_MS) {
         break;
       }
-      await new Promise((resolve) => setTimeout(resolve, WATCH_INTERVAL_MS));
+      if (now - lastCollect >= WATCH_INTERVAL_MS) {
+        lastCollect = now;
+        await collect();
+        tickStatus = onTick ? await onTick() : "";
+      }
+      if (statusEl) {
+        statusEl.textContent =
+          `Watching current tab... ${Math.floor(elapsed / 1000)}s\n` +
+          `Unique findings: ${aggregated.length}\n` +
+          `Page activity: ${rate.toFixed(1)}/s (stops after ${WATCH_QUIET_MS / 1000}s below ${QUIET_EVENTS_PER_SECOND}/s)` +
+          (tickStatus ? `\n${tickStatus}` : "");
+      }
+      await new Promise((resolve) => setTimeout(resolve, WATCH_SAMPLE_MS));
+
+      const current = await readActivity(tabId);
+      if (!current || !previous) {
+        // Without counters, fall back to the old fixed window.
+        countersMissing = true;
+        previous = current;
+        quietSince = Date.now();
+        continue;
+      }
+      const seconds = Math.max(0.001, (current.at - previous.at) / 1000);
+      rate = Math.max(0, current.total - previous.total) / seconds;
+      previous = current;
+      if (rate > QUIET_EVENTS_PER_SECOND) {
+        quietSince = current.at;
+      }
     }
+    // One last pass so anything rendered during the final quiet period is kept.
+    await collect();
     return aggregated;
   }
 
-  function collectFindings() {
+  // Runs in the page. Walks elements with a TreeWalker in short slices and
+  // yields between them, so very large DOMs do not freeze the page. Cheap
+  // attribute checks run first; only reported elements are serialized, and
+  // then only their own start tag. When scanId is set, full batches are
+  // streamed to the popup as they are found and the remainder is returned.
+  async function collectFindings(scanId) {
+    const SLICE_MS = 8;
+    const SLICE_CHECK_EVERY = 256;
+    const STREAM_BATCH = 100;
+    const candidateTags = new Set([
+      "button",
+      "a",
+      "input",
+      "select",
+      "textarea",
+      "form",
+      "div",
+      "span",
+    ]);
     const riskWords =
       /(save|submit|delete|remove|admin|role|permission|approve|reject|reset|unlock|disable|enable|export|import|grant|revoke|token|key)/i;
     const tokenWords =
@@ -55,7 +343,6 @@ window.ClientSideEyeFindings = (() => {
       /\b(innerHTML|outerHTML|insertAdjacentHTML|document\.write|eval|Function|setTimeout\s*\(|setInterval\s*\()/i;
     const interestingInitiators =
       /^(fetch|xmlhttprequest|script|iframe|link|beacon)$/i;
-    const graphqlWords = /\b(query|mutation|subscription)\b/i;
 
     const isDisabled = (el) => {
       if (!el) return false;
@@ -93,13 +380,41 @@ window.ClientSideEyeFindings = (() => {
       return !!el.getAttribute("onclick") || !!el.getAttribute("formaction");
     };
 
-    const nodes = Array.from(
-      document.querySelectorAll(
-        "button,a,input,select,textarea,form,div,span,[role='button']",
-      ),
-    );
+    const yieldToPage = () => {
+      if (typeof scheduler !== "undefined" && typeof scheduler.yield === "function") {
+        return scheduler.yield();
+      }
+      if (typeof requestIdleCallback === "function") {
+        return new Promise((resolve) => requestIdleCallback(resolve, { timeout: 50 }));
+      }
+      return new Promise((resolve) => setTimeout(resolve, 0));
+    };
+
+    // The element's own tag around a short text prefix, without serializing
+    // its descendants.
+    const shallowHtml = (el, tag, text) => {
+      const shell = el.cloneNode(false).outerHTML || "";
+      const close = `</${tag}>`;
+      return shell.endsWith(close)
+        ? `${shell.slice(0, -close.length)}${text.slice(0, 200)}${close}`
+        : shell;
+    };
+
     const out = [];
     const seen = new Set();
+    let streamed = 0;
+    let resumed = 0;
+
+    const flush = () => {
+      if (!scanId || out.length === 0) return;
+      const findings = out.splice(0);
+      streamed += findings.length;
+      try {
+        chrome.runtime
+          .sendMessage({ type: "clientsideeye-findings", scanId, findings })
+          .catch(() => {});
+      } catch (error) {}
+    };
 
     const pushFinding = (finding) => {
       const identity =
@@ -108,9 +423,57 @@ window.ClientSideEyeFindings = (() => {
       if (seen.has(identity)) return;
       seen.add(identity);
       out.push({ ...finding, identity });
+      if (out.length >= STREAM_BATCH) flush();
     };
 
-    for (const el of nodes) {
+    // The node we stopped on and its ancestors, each with the sibling that
+    // followed it, so the sweep can pick up where a removed branch used to be.
+    const pathToRoot = (el) => {
+      const path = [];
+      for (let node = el; node && node.nodeType === Node.ELEMENT_NODE; node = node.parentNode) {
+        path.push({ node, next: node.nextElementSibling });
+      }
+      return path;
+    };
+
+    // Continue at the sibling that followed the removed branch under its
+    // nearest connected ancestor. If that sibling went too, re-walk the
+    // ancestor's subtree; pushFinding drops anything already reported.
+    const resumeAfterRemoval = (path) => {
+      for (let i = 1; i < path.length; i++) {
+        const ancestor = path[i].node;
+        if (!ancestor.isConnected) continue;
+        const next = path[i - 1].next;
+        return next && next.parentNode === ancestor ? next : ancestor;
+      }
+      return document.documentElement;
+    };
+
+    const walker = document.createTreeWalker(
+      document.documentElement,
+      NodeFilter.SHOW_ELEMENT,
+    );
+    let sliceStart = performance.now();
+    let sinceCheck = 0;
+    for (let el = walker.nextNode(); el; el = walker.nextNode()) {
+      if (++sinceCheck >= SLICE_CHECK_EVERY) {
+        sinceCheck = 0;
+        if (performance.now() - sliceStart >= SLICE_MS) {
+          flush();
+          const path = pathToRoot(el);
+          await yieldToPage();
+          // The page kept running; if it removed the node we stopped on, the
+          // walker can no longer reach the rest of the document from there.
+          if (!el.isConnected) {
+            el = resumeAfterRemoval(path);
+            walker.currentNode = el;
+            resumed++;
+          }
+          sliceStart = performance.now();
+        }
+      }
+      const tag = (el.tagName || "").toLowerCase();
+      if (!candidateTags.has(tag) && el.getAttribute("role") !== "button") continue;
       if (!actionable(el)) continue;
       const disabled = isDisabled(el);
       const hidden = isHidden(el);
@@ -130,11 +493,12 @@ window.ClientSideEyeFindings = (() => {
         .map((key) => `${key}="${el.getAttribute(key) || ""}"`)
         .join(" ");
       const text = (el.innerText || el.textContent || el.value || "")
+        .slice(0, 4000)
         .replace(/\s+/g, " ")
         .trim();
-      const outer = (el.outerHTML || "").replace(/\s+/g, " ").slice(0, 420);
+      const outer = shallowHtml(el, tag, text).replace(/\s+/g, " ").slice(0, 420);
       const identity = [
-        (el.tagName || "").toLowerCase(),
+        tag,
         el.id || "",
         el.getAttribute("data-testid") || "",
         el.getAttribute("name") || "",
@@ -268,13 +632,22 @@ window.ClientSideEyeFindings = (() => {
         document.documentElement?.dataset?.clientsideeyeRuntime || "[]",
       );
       for (const entry of runtimeEntries) {
+        // Everything that keys the finding (type, title, evidence, identity)
+        // comes from the slot key: kind, method, URL template and GraphQL
+        // operation. The concrete URL, body and headers of whichever call
+        // filled the slot only go in the summary, so a slot that is evicted
+        // and refilled by another call to the same endpoint reports the same
+        // finding.
         const url = String(entry?.url || "");
-        const kind = String(entry?.kind || entry?.initiator || "runtime");
+        const kind = String(entry?.kind || "runtime");
         const method = String(entry?.method || "").toUpperCase();
         const body = String(entry?.body || "");
-        if (!url) continue;
-        const lower = url.toLowerCase();
-        const isGraphql = /\/graphql\b/.test(lower) || graphqlWords.test(body);
+        const template = String(entry?.template || "");
+        const graphqlOp = String(entry?.graphqlOp || "");
+        const hits = Number(entry?.hits) || 1;
+        if (!template) continue;
+        const lower = template.toLowerCase();
+        const isGraphql = /\/graphql\b/.test(lower) || Boolean(graphqlOp);
         const isInteresting =
           endpointWords.test(lower) ||
           /^(fetch|xmlhttprequest|websocket|eventsource)$/i.test(kind) ||
@@ -288,7 +661,7 @@ window.ClientSideEyeFindings = (() => {
             : kind === "eventsource"
               ? "Runtime EventSource endpoint observed in browser"
               : "Runtime endpoint observed in browser";
-        const evidence = `${method || kind} -> ${url}${body ? ` | body: ${body.slice(0, 120)}` : ""}`;
+        const sample = `${url}${body ? ` | body: ${body.slice(0, 120)}` : ""}${entry.headerNames?.length ? ` | headers: ${entry.headerNames.join(",")}` : ""}${entry.hasAuthHeader ? " | auth-header" : ""}`;
         pushFinding({
           url: location.href,
           type: "RUNTIME_NETWORK_REFERENCE",
@@ -304,9 +677,9 @@ window.ClientSideEyeFindings = (() => {
                 ? 82
                 : 74,
           title,
-          summary: `The frontend initiated or referenced ${kind} activity during page execution. This is attack-surface discovery and should be reviewed for unauthorized operations or data exposure.`,
-          evidence: `${evidence.slice(0, 260)}${entry.headerNames?.length ? ` | headers: ${entry.headerNames.join(",")}` : ""}${entry.graphqlOp ? ` | graphql: ${entry.graphqlOp}` : ""}${entry.hasAuthHeader ? " | auth-header" : ""}`.slice(0, 320),
-          identity: `runtime-hook|${kind}|${method}|${url}|${body.slice(0, 40)}`,
+          summary: `The frontend initiated or referenced ${kind} activity during page execution (${hits} ${hits === 1 ? "call" : "calls"} matching ${template}; sample: ${sample.slice(0, 320)}). This is attack-surface discovery and should be reviewed for unauthorized operations or data exposure.`,
+          evidence: `${method || kind} -> ${template}${graphqlOp ? ` | graphql: ${graphqlOp}` : ""}`.slice(0, 320),
+          identity: `runtime-hook|${kind}|${method}|${template}|${graphqlOp}`,
         });
       }
     } catch (error) {}
@@ -343,12 +716,17 @@ window.ClientSideEyeFindings = (() => {
       }
     } catch (error) {}
 
-    return out.slice(0, 120);
+    // The last partial batch comes back with the result instead of as a message.
+    return { findings: out, streamed, resumed };
   }
 
   return {
-    WATCH_DURATION_MS,
+    WATCH_MAX_MS,
     collectSnapshotFindings,
+    collectDomSnapshot,
     collectWatchedFindings,
+    startDomDeltaObserver,
+    takeDomDeltas,
+    stopDomDeltaObserver,
   };
 })();
@@ -29,23 +29,70 @@ window.ClientSideEyeRuntime = (() => {
     const root = document.documentElement;
     if (!root) return { installed: false };
 
+    // Distinct endpoints live in a fixed-size ring: a repeat call only bumps
+    // its slot's hit counter, and when the ring is full the oldest distinct
+    // endpoint is overwritten. The dataset copy is refreshed on a throttle,
+    // so a chatty page costs one Map lookup per request.
+    const MAX_ENDPOINTS = 500;
+    const PERSIST_THROTTLE_MS = 400;
     const state = window.__clientsideeyeRuntime || {
       installed: false,
-      entries: [],
       seq: 0,
+      storageWrites: 0,
       originals: {},
     };
+    if (!state.slots) {
+      state.slots = new Array(MAX_ENDPOINTS);
+      state.slotByKey = new Map();
+      state.nextSlot = 0;
+      state.persistTimer = 0;
+    }
     window.__clientsideeyeRuntime = state;
 
-    const persist = () => {
+    const writeDataset = () => {
+      state.persistTimer = 0;
       try {
-        root.dataset.clientsideeyeRuntime = JSON.stringify(
-          state.entries.slice(-200),
-        );
+        const live = [];
+        for (let i = 0; i < MAX_ENDPOINTS; i++) {
+          const entry = state.slots[(state.nextSlot + i) % MAX_ENDPOINTS];
+          if (entry) live.push(entry);
+        }
+        root.dataset.clientsideeyeRuntime = JSON.stringify(live);
         root.dataset.clientsideeyeRuntimeUpdated = String(Date.now());
+        // Running counters read by the deep scan to decide when the page has gone quiet.
+        root.dataset.clientsideeyeRuntimeActivity = `${state.seq},${state.storageWrites}`;
       } catch (error) {}
     };
 
+    const persist = () => {
+      if (!state.persistTimer) {
+        state.persistTimer = setTimeout(writeDataset, PERSIST_THROTTLE_MS);
+      }
+    };
+
+    // Collapses ids, UUIDs, hashes and query values so /users/17 and
+    // /users/42?tab=a count as one endpoint.
+    const urlTemplate = (url) => {
+      try {
+        const parsed = new URL(url, location.href);
+        const path = parsed.pathname
+          .split("/")
+          .map((segment) => {
+            if (/^\d+$/.test(segment)) return "{n}";
+            if (/^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$/i.test(segment)) return "{uuid}";
+            if (/^[0-9a-f]{16,}$/i.test(segment)) return "{hex}";
+            if (segment.length >= 24 && /^[A-Za-z0-9_-]+$/.test(segment) && /\d/.test(segment)) return "{token}";
+            return segment;
+          })
+          .join("/");
+        const params = [...new Set(parsed.searchParams.keys())].sort();
+        const query = params.length ? `?${params.map((name) => `${name}=`).join("&")}` : "";
+        return `${parsed.protocol}//${parsed.host}${path}${query}`;
+      } catch (error) {
+        return String(url || "").split(/[?#]/)[0];
+      }
+    };
+
     const summarizeHeaders = (headersLike) => {
       const out = [];
       const add = (name) => {
@@ -128,15 +175,42 @@ window.ClientSideEyeRuntime = (() => {
         if (!normalizedUrl) {
           return;
         }
-        const headerNames = summarizeHeaders(extra.headers);
+        const method = String(extra.method || "").slice(0, 32).toUpperCase();
         const body = String(extra.body || "").slice(0, 240);
         const graphqlOp = extractGraphqlOperation(normalizedUrl, body);
+        const template = urlTemplate(normalizedUrl);
+        const key = `${kind}|${method}|${template}|${graphqlOp}`;
         state.seq += 1;
-        state.entries.push({
+        const now = Date.now();
+        const existing = state.slotByKey.get(key);
+        if (existing !== undefined) {
+          const entry = state.slots[existing];
+          entry.hits += 1;
+          entry.lastTs = now;
+          if (!entry.hasAuthHeader && extra.headers) {
+            const names = summarizeHeaders(extra.headers);
+            entry.hasAuthHeader = names.some((name) =>
+              /authorization|x-api-key|api-key|token|cookie/i.test(name),
+            );
+            if (entry.hasAuthHeader) entry.headerNames = names;
+          }
+          persist();
+          return;
+        }
+
+        const headerNames = summarizeHeaders(extra.headers);
+        const slot = state.nextSlot;
+        const evicted = state.slots[slot];
+        if (evicted) {
+          state.slotByKey.delete(evicted.key);
+        }
+        state.slots[slot] = {
           id: state.seq,
+          key,
           kind,
           url: normalizedUrl,
-          method: String(extra.method || "").slice(0, 32),
+          template,
+          method,
           body,
           initiator: String(extra.initiator || "").slice(0, 80),
           headerNames,
@@ -144,11 +218,12 @@ window.ClientSideEyeRuntime = (() => {
             /authorization|x-api-key|api-key|token|cookie/i.test(name),
           ),
           graphqlOp,
-          ts: Date.now(),
-        });
-        if (state.entries.length > 200) {
-          state.entries.splice(0, state.entries.length - 200);
-        }
+          hits: 1,
+          ts: now,
+          lastTs: now,
+        };
+        state.slotByKey.set(key, slot);
+        state.nextSlot = (slot + 1) % MAX_ENDPOINTS;
         persist();
       } catch (error) {}
     };
@@ -225,6 +300,20 @@ window.ClientSideEyeRuntime = (() => {
         }
       } catch (error) {}
 
+      try {
+        const storageProto = Storage.prototype;
+        state.originals.storageSetItem = storageProto.setItem;
+        state.originals.storageRemoveItem = storageProto.removeItem;
+        const countWrite = (original) =>
+          function() {
+            state.storageWrites += 1;
+            persist();
+            return original.apply(this, arguments);
+          };
+        storageProto.setItem = countWrite(state.originals.storageSetItem);
+        storageProto.removeItem = countWrite(state.originals.storageRemoveItem);
+      } catch (error) {}
+
       try {
         const OriginalEventSource = window.EventSource;
         if (typeof OriginalEventSource === "function") {
@@ -242,8 +331,8 @@ window.ClientSideEyeRuntime = (() => {
       } catch (error) {}
     }
 
-    persist();
-    return { installed: true, entries: state.entries.length };
+    writeDataset();
+    return { installed: true, entries: state.slotByKey.size };
   }
 
   function restoreRuntimeHooks() {
@@ -271,10 +360,20 @@ window.ClientSideEyeRuntime = (() => {
       if (state.originals.eventSource) {
         window.EventSource = state.originals.eventSource;
       }
+      if (state.originals.storageSetItem) {
+        Storage.prototype.setItem = state.originals.storageSetItem;
+      }
+      if (state.originals.storageRemoveItem) {
+        Storage.prototype.removeItem = state.originals.storageRemoveItem;
+      }
     } catch (error) {}
 
     state.installed = false;
     state.originals = {};
+    if (state.persistTimer) {
+      clearTimeout(state.persistTimer);
+    }
+    state.persistTimer = 0;
     return { restored: true };
   }
 
@@ -64,74 +64,61 @@ async function runScan(button, watchMode) {
       return;
     }
 
-    const findingUrl = `${activeBridge}/api/finding`;
-    let firstError = "";
-    let nonOkStatus = "";
-    let ok = 0;
-    let failed = 0;
-    const findings = watchMode
-      ? await window.ClientSideEyeFindings.collectWatchedFindings(tab.id, status)
-      : await window.ClientSideEyeFindings.collectSnapshotFindings(tab.id);
-    if (findings.length === 0) {
-      status.textContent = watchMode
-        ? "No new actionable controls found during watch window."
-        : "No disabled/hidden actionable controls found.";
-      return;
-    }
-
-    for (const finding of findings) {
-      const body = new URLSearchParams({
-        source: "clientsideeye-browser-bridge",
-        url: finding.url || tab.url || "",
-        type: finding.type || "HIDDEN_OR_DISABLED_CONTROL",
-        severity: finding.severity || "MEDIUM",
-        confidence: String(finding.confidence ?? 55),
-        title: finding.title || "Client-side gated control found in browser DOM",
-        summary:
-          finding.summary ||
-          "Control appears client-side disabled/hidden in rendered DOM and may still be triggerable.",
-        evidence: finding.evidence || "(no evidence)",
-        identity: finding.identity || "",
-        recommendation:
-          "Do not rely on client-side disable/hide state for authorization. Enforce server-side authorization for action endpoints.",
-      });
-
+    // The full snapshot goes first; a deep scan then only sends what changes.
+    const snapshotStatus = await sendDomSnapshot(
+      activeBridge,
+      token,
+      await window.ClientSideEyeFindings.collectDomSnapshot(tab.id),
+    );
+    const sender = createFindingSender(activeBridge, token, tab, (line) => {
+      status.textContent = `Sending to Burp... ${sender.queued()} queued\n${line}`;
+    });
+    let findings;
+    if (watchMode) {
+      const deltas = { sent: 0 };
+      await window.ClientSideEyeFindings.startDomDeltaObserver(tab.id);
       try {
-        const response = await window.ClientSideEyeBridge.fetchWithTimeout(
-          findingUrl,
-          {
-            method: "POST",
-            headers: {
-              "Content-Type": "application/x-www-form-urlencoded",
-              "X-ClientSideEye-Token": token,
-            },
-            body,
-          },
-          1200,
+        findings = await window.ClientSideEyeFindings.collectWatchedFindings(
+          tab.id,
+          status,
+          () => sendDomDeltas(activeBridge, token, tab.id, deltas),
         );
-        if (response.ok) {
-          ok += 1;
-        } else {
-          failed += 1;
-          if (!nonOkStatus) {
-            nonOkStatus = `${response.status} ${response.statusText}`;
-          }
-          if (response.status === 401) {
-            nonOkStatus = "401 Unauthorized (check bridge token)";
-          }
-        }
-      } catch (error) {
-        failed += 1;
-        if (!firstError) {
-          firstError = String(error?.message || error);
-        }
+        await sendDomDeltas(activeBridge, token, tab.id, deltas);
+      } finally {
+        await window.ClientSideEyeFindings.stopDomDeltaObserver(tab.id).catch(() => {});
       }
+      sender.send(findings);
+    } else {
+      // Batches go to Burp while the page is still being swept.
+      findings = await window.ClientSideEyeFindings.collectSnapshotFindings(
+        tab.id,
+        (batch) => {
+          sender.send(batch);
+          status.textContent = `Scanning current tab...\nFound so far: ${sender.queued()}`;
+        },
+      );
+    }
+    const result = await sender.done();
+    if (findings.length === 0) {
+      status.textContent =
+        (watchMode
+          ? "No new actionable controls found during watch window."
+          : "No disabled/hidden actionable controls found.") +
+        `\nDOM snapshot: ${snapshotStatus}`;
+      return;
     }
 
     status.textContent =
-      `Bridge: ${activeBridge}\nFound: ${findings.length}\nSent: ${ok}\nFailed: ${failed}` +
-      (nonOkStatus ? `\nHTTP error: ${nonOkStatus}` : "") +
-      (firstError ? `\nFirst error: ${firstError}` : "");
+      `Bridge: ${activeBridge}\nFound: ${findings.length}\nSent: ${result.ok}\nFailed: ${result.failed}` +
+      (result.alreadyInBurp ? `\nAlready in Burp: ${result.alreadyInBurp}` : "") +
+      (result.duplicate ? `\nDuplicate: ${result.duplicate}` : "") +
+      (result.nonOkStatus ? `\nHTTP error: ${result.nonOkStatus}` : "") +
+      (result.firstError ? `\nFirst error: ${result.firstError}` : "") +
+      (result.requests
+        ? `\n${result.batched ? "Batches" : "Requests"}: ${result.requests} (avg ${Math.round(result.totalMs / result.requests)} ms, slowest ${Math.round(result.slowestMs)} ms)`
+        : "") +
+      (findings.sweepResumed ? `\nSweep resumed after page removed nodes: ${findings.sweepResumed}` : "") +
+      `\nDOM snapshot: ${snapshotStatus}`;
   } catch (error) {
     status.textContent = `Error: ${error?.message || error}`;
   } finally {
@@ -143,3 +130,329 @@ async function runScan(button, watchMode) {
     button.disabled = false;
   }
 }
+
+function toFindingPayload(finding, tab) {
+  return {
+    source: "clientsideeye-browser-bridge",
+    url: finding.url || tab.url || "",
+    type: finding.type || "HIDDEN_OR_DISABLED_CONTROL",
+    severity: finding.severity || "MEDIUM",
+    confidence: String(finding.confidence ?? 55),
+    title: finding.title || "Client-side gated control found in browser DOM",
+    summary:
+      finding.summary ||
+      "Control appears client-side disabled/hidden in rendered DOM and may still be triggerable.",
+    evidence: finding.evidence || "(no evidence)",
+    identity: finding.identity || "",
+    recommendation:
+      "Do not rely on client-side disable/hide state for authorization. Enforce server-side authorization for action endpoints.",
+  };
+}
+
+function showBackpressureWait(waitMs, status) {
+  const statusEl = document.getElementById("status");
+  if (statusEl) {
+    const reason =
+      status === 429
+        ? "rate limited"
+        : status === 503
+          ? "busy"
+          : status === 0
+            ? "unreachable"
+            : `error ${status}`;
+    statusEl.textContent = `Bridge ${reason}; retrying in ${Math.ceil(waitMs / 1000)}s...`;
+  }
+}
+
+function describeStatus(response) {
+  if (response.status === 401) {
+    return "401 Unauthorized (check bridge token)";
+  }
+  if (response.status === 429 || response.status >= 500) {
+    return `${response.status} ${response.statusText} (Burp is pushing back; retry later)`;
+  }
+  return `${response.status} ${response.statusText}`;
+}
+
+const GZIP_MIN_BYTES = 8 * 1024;
+
+async function gzip(data) {
+  const stream = new Blob([data])
+    .stream()
+    .pipeThrough(new CompressionStream("gzip"));
+  return new Response(stream).arrayBuffer();
+}
+
+function postBatch(activeBridge, token, json, compressed) {
+  const headers = {
+    "Content-Type": "application/json",
+    "X-ClientSideEye-Token": token,
+  };
+  if (compressed) {
+    headers["Content-Encoding"] = "gzip";
+  }
+  return window.ClientSideEyeBridge.fetchWithRetry(
+    `${activeBridge}/api/findings`,
+    { method: "POST", headers, body: compressed || json },
+    5000,
+    showBackpressureWait,
+  );
+}
+
+// Must produce the same value as BridgeSeenIndex.digest on the Burp side:
+// SHA-256 over url, type, identity, title and evidence joined by NUL, first
+// 8 bytes as lowercase hex.
+async function findingDigest(payload) {
+  const basis = [payload.url, payload.type, payload.identity, payload.title, payload.evidence]
+    .map((value) => value ?? "")
+    .join("\u0000");
+  const hash = await crypto.subtle.digest("SHA-256", new TextEncoder().encode(basis));
+  return Array.from(new Uint8Array(hash, 0, 8), (b) => b.toString(16).padStart(2, "0")).join("");
+}
+
+// Asks Burp which payloads it does not already hold. Resolves to every payload
+// when the Burp side predates /api/findings/unseen or the check fails, so the
+// upload itself still reports the real error.
+async function filterUnseen(activeBridge, token, payloads) {
+  try {
+    const digests = await Promise.all(payloads.map(findingDigest));
+    const response = await window.ClientSideEyeBridge.fetchWithRetry(
+      `${activeBridge}/api/findings/unseen`,
+      {
+        method: "POST",
+        headers: {
+          "Content-Type": "application/json",
+          "X-ClientSideEye-Token": token,
+        },
+        body: JSON.stringify(digests),
+      },
+      5000,
+      showBackpressureWait,
+    );
+    if (!response.ok) {
+      return { payloads, known: 0 };
+    }
+    const wanted = new Set((await response.json()).unseen || []);
+    const unseen = payloads.filter((_, i) => wanted.has(digests[i]));
+    return { payloads: unseen, known: payloads.length - unseen.length };
+  } catch (error) {
+    return { payloads, known: 0 };
+  }
+}
+
+// Uploads only the findings Burp has not seen, in one /api/findings request,
+// gzip-compressed when large.
+async function sendBatch(activeBridge, token, allPayloads) {
+  const result = { ok: 0, failed: 0, duplicate: 0, alreadyInBurp: 0, nonOkStatus: "", firstError: "" };
+  const { payloads, known } = await filterUnseen(activeBridge, token, allPayloads);
+  result.alreadyInBurp = known;
+  if (payloads.length === 0) {
+    return result;
+  }
+  try {
+    const json = JSON.stringify(payloads);
+    const compressed =
+      json.length >= GZIP_MIN_BYTES && typeof CompressionStream === "function"
+        ? await gzip(json)
+        : null;
+    let response = await postBatch(activeBridge, token, json, compressed);
+    if (compressed && (response.status === 400 || response.status === 415)) {
+      response = await postBatch(activeBridge, token, json, null);
+    }
+    if (!response.ok) {
+      result.failed = payloads.length;
+      result.nonOkStatus = describeStatus(response);
+      return result;
+    }
+    const counts = await response.json();
+    result.ok = (counts.accepted || 0) + (counts.duplicate || 0);
+    result.duplicate = counts.duplicate || 0;
+    result.failed = counts.rejected || 0;
+  } catch (error) {
+    result.failed = payloads.length;
+    result.firstError = String(error?.message || error);
+  }
+  return result;
+}
+
+const SEND_CHUNK_FINDINGS = 200;
+
+function mergeSendResult(total, result, count) {
+  if (result.error) {
+    total.failed += count;
+    total.firstError = total.firstError || String(result.error?.message || result.error);
+    return;
+  }
+  total.ok += result.ok || 0;
+  total.failed += result.failed || 0;
+  total.duplicate += result.duplicate || 0;
+  total.alreadyInBurp += result.alreadyInBurp || 0;
+  total.nonOkStatus = total.nonOkStatus || result.nonOkStatus || "";
+  total.firstError = total.firstError || result.firstError || "";
+}
+
+// Queues findings for upload as they arrive and sends them through the
+// bridge's bounded-concurrency queue: /api/findings chunks when Burp
+// advertises batch support, otherwise one /api/finding request each.
+// onProgress gets a line with each request's timing.
+function createFindingSender(activeBridge, token, tab, onProgress) {
+  const batched = window.ClientSideEyeBridge.features().batch;
+  const chunkSize = batched ? SEND_CHUNK_FINDINGS : 1;
+  const total = {
+    ok: 0,
+    failed: 0,
+    duplicate: 0,
+    alreadyInBurp: 0,
+    nonOkStatus: "",
+    firstError: "",
+    batched,
+    requests: 0,
+    totalMs: 0,
+    slowestMs: 0,
+  };
+  let queued = 0;
+  const queue = window.ClientSideEyeBridge.createSendQueue(
+    (payloads) =>
+      batched
+        ? sendBatch(activeBridge, token, payloads)
+        : sendOne(activeBridge, token, payloads[0]),
+    (payloads, result, ms) => {
+      mergeSendResult(total, result, payloads.length);
+      total.requests += 1;
+      total.totalMs += ms;
+      total.slowestMs = Math.max(total.slowestMs, ms);
+      onProgress?.(
+        batched
+          ? `Batch ${total.requests}: ${payloads.length} finding(s) in ${Math.round(ms)} ms`
+          : `Request ${total.requests}: ${Math.round(ms)} ms`,
+      );
+    },
+  );
+  return {
+    send(findings) {
+      for (let i = 0; i < findings.length; i += chunkSize) {
+        const payloads = findings
+          .slice(i, i + chunkSize)
+          .map((finding) => toFindingPayload(finding, tab));
+        queued += payloads.length;
+        queue.push(payloads);
+      }
+    },
+    queued: () => queued,
+    async done() {
+      await queue.drain();
+      return total;
+    },
+  };
+}
+
+const SNAPSHOT_MAX_BYTES = 16 * 1024 * 1024;
+
+async function sha256Hex(bytes) {
+  const hash = await crypto.subtle.digest("SHA-256", bytes);
+  return Array.from(new Uint8Array(hash), (b) => b.toString(16).padStart(2, "0")).join("");
+}
+
+// Posts the rendered DOM for analysis by Burp's HTML analyzer. The hash lets
+// Burp answer "unchanged" for a snapshot it already analyzed without
+// re-reading it, so rescanning an unchanged page is cheap on both sides.
+async function sendDomSnapshot(activeBridge, token, snapshot) {
+  if (!snapshot?.html) {
+    return "not captured";
+  }
+  try {
+    const bytes = new TextEncoder().encode(snapshot.html);
+    if (bytes.length > SNAPSHOT_MAX_BYTES) {
+      return "too large to send";
+    }
+    const headers = {
+      "Content-Type": "text/html; charset=utf-8",
+      "X-ClientSideEye-Token": token,
+      "X-ClientSideEye-Page-Url": snapshot.url,
+      "X-ClientSideEye-Snapshot-Sha256": await sha256Hex(bytes),
+    };
+    let body = bytes;
+    if (typeof CompressionStream === "function") {
+      body = await gzip(bytes);
+      headers["Content-Encoding"] = "gzip";
+    }
+    const response = await window.ClientSideEyeBridge.fetchWithRetry(
+      `${activeBridge}/api/snapshot`,
+      { method: "POST", headers, body },
+      15000,
+      showBackpressureWait,
+    );
+    if (response.status === 404) {
+      return "not supported by this Burp version";
+    }
+    if (!response.ok) {
+      return describeStatus(response);
+    }
+    return (await response.json()).status || "sent";
+  } catch (error) {
+    return `failed (${error?.message || error})`;
+  }
+}
+
+// Posts the subtrees changed since the last call; returns a status line for
+// the watch display. Delta upload failures never stop the deep scan.
+async function sendDomDeltas(activeBridge, token, tabId, deltas) {
+  try {
+    const fragments = await window.ClientSideEyeFindings.takeDomDeltas(tabId);
+    if (fragments.length > 0) {
+      const json = JSON.stringify(fragments);
+      const headers = {
+        "Content-Type": "application/json",
+        "X-ClientSideEye-Token": token,
+      };
+      let body = json;
+      if (json.length >= GZIP_MIN_BYTES && typeof CompressionStream === "function") {
+        body = await gzip(json);
+        headers["Content-Encoding"] = "gzip";
+      }
+      const response = await window.ClientSideEyeBridge.fetchWithRetry(
+        `${activeBridge}/api/dom-delta`,
+        { method: "POST", headers, body },
+        5000,
+        showBackpressureWait,
+      );
+      if (!response.ok) {
+        return `DOM changes: ${describeStatus(response)}`;
+      }
+      deltas.sent += fragments.length;
+    }
+  } catch (error) {
+    return `DOM changes: failed (${error?.message || error})`;
+  }
+  return `DOM changes sent: ${deltas.sent}`;
+}
+
+// Fallback for Burp versions without /api/findings.
+async function sendOne(activeBridge, token, payload) {
+  const result = { ok: 0, failed: 0, duplicate: 0, nonOkStatus: "", firstError: "" };
+  try {
+    const response = await window.ClientSideEyeBridge.fetchWithRetry(
+      `${activeBridge}/api/finding`,
+      {
+        method: "POST",
+        headers: {
+          "Content-Type": "application/x-www-form-urlencoded",
+          "X-ClientSideEye-Token": token,
+        },
+        body: new URLSearchParams(payload),
+      },
+      1200,
+      showBackpressureWait,
+    );
+    if (response.ok) {
+      result.ok = 1;
+    } else {
+      result.failed = 1;
+      result.nonOkStatus = describeStatus(response);
+    }
+  } catch (error) {
+    result.failed = 1;
+    result.firstError = String(error?.message || error);
+  }
+  return result;
+}
@@ -0,0 +1,32 @@
+package com.clientsideeye.burp.core;
+
+import com.clientsideeye.burp.testing.SyntheticCorpus;
+import com.clientsideeye.burp.testing.SyntheticCorpus.HtmlSpec;
+import com.clientsideeye.burp.testing.SyntheticCorpus.ScriptSpec;
+
+/**
+ * Sized analyzer inputs for the JMH benchmarks, drawn from a fixed-seed {@link SyntheticCorpus} so every run
+ * and every machine measures the same documents.
+ */
+final class BenchmarkInputs {
+    static final String PAGE_URL = "https://bench.corpus.test/app/settings";
+    static final String SCRIPT_URL = "https://bench.corpus.test/static/js/main.3f2a9c.js";
+    static final String SOURCE_MAP_URL = "https://bench.corpus.test/static/js/main.3f2a9c.js.map";
+
+    private static final SyntheticCorpus CORPUS = new SyntheticCorpus(0x5EED);
+
+    private BenchmarkInputs() {
+    }
+
+    static String html(int bytes) {
+        return CORPUS.htmlPageOfSize(bytes, HtmlSpec.typical(0));
+    }
+
+    static String javaScript(int bytes) {
+        return CORPUS.javaScriptBundle(ScriptSpec.typical(bytes));
+    }
+
+    static String sourceMap(int bytes) {
+        return CORPUS.sourceMapOfSize(bytes, 2048);
+    }
+}
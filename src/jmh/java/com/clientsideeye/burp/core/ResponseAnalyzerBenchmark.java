@@ -0,0 +1,63 @@
+package com.clientsideeye.burp.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ResponseAnalyzer} end to end: content sniffing, every analyzer pass that applies to the response,
+ * and the {@link AnalyzerMetrics} bookkeeping around them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseAnalyzerBenchmark {
+    /** Input size in KiB: small, medium and huge. */
+    @Param({"4", "256", "4096"})
+    public int inputKb;
+
+    @Param({"html", "javascript", "sourcemap"})
+    public String content;
+
+    private String url;
+    private String body;
+
+    @Setup
+    public void setUp() {
+        int bytes = inputKb * 1024;
+        switch (content) {
+            case "html" -> {
+                url = BenchmarkInputs.PAGE_URL;
+                body = BenchmarkInputs.html(bytes);
+            }
+            case "javascript" -> {
+                url = BenchmarkInputs.SCRIPT_URL;
+                body = BenchmarkInputs.javaScript(bytes);
+            }
+            case "sourcemap" -> {
+                url = BenchmarkInputs.SOURCE_MAP_URL;
+                body = BenchmarkInputs.sourceMap(bytes);
+            }
+            default -> throw new IllegalArgumentException("Unknown content: " + content);
+        }
+    }
+
+    @Benchmark
+    public List<Finding> analyze() {
+        return ResponseAnalyzer.analyze(url, body);
+    }
+}
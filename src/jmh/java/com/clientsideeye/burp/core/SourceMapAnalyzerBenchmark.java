@@ -0,0 +1,41 @@
+package com.clientsideeye.burp.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** {@link SourceMapAnalyzer} over source maps with embedded {@code sourcesContent}. */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceMapAnalyzerBenchmark {
+    /** Input size in KiB: small, medium and huge. */
+    @Param({"4", "256", "4096"})
+    public int inputKb;
+
+    private String sourceMap;
+
+    @Setup
+    public void setUp() {
+        sourceMap = BenchmarkInputs.sourceMap(inputKb * 1024);
+    }
+
+    @Benchmark
+    public List<Finding> analyzeSourceMap() {
+        return SourceMapAnalyzer.analyzeSourceMap(BenchmarkInputs.SOURCE_MAP_URL, sourceMap);
+    }
+}
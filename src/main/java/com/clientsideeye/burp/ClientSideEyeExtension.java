@@ -9,6 +9,7 @@ import burp.api.montoya.ui.contextmenu.ContextMenuItemsProvider;
 import com.clientsideeye.burp.core.Finding;
 import com.clientsideeye.burp.core.HtmlAnalyzer;
 import com.clientsideeye.burp.core.JavaScriptAnalyzer;
+import com.clientsideeye.burp.core.ResponseAnalyzer;
 import com.clientsideeye.burp.core.SourceMapAnalyzer;
 import com.clientsideeye.burp.integration.BrowserBridgeServer;
 import com.clientsideeye.burp.ui.ClientSideEyeTab;
@@ -44,12 +45,18 @@ public class ClientSideEyeExtension implements BurpExtension {
         this.bridgeServer = new BrowserBridgeServer(api, tab);
         this.bridgeServer.start();
         this.tab.setBridgeConnectionInfo(this.bridgeServer.boundPort(), this.bridgeServer.authToken());
+        this.tab.loadPersistedFindings();
         api.extension().registerUnloadingHandler(() -> {
             try {
                 if (bridgeServer != null) bridgeServer.stop();
             } catch (Exception ignored) {
                 // best-effort cleanup
             }
+            try {
+                if (tab != null) tab.shutdown();
+            } catch (Exception ignored) {
+                // best-effort cleanup
+            }
             try {
                 if (bg != null) bg.shutdownNow();
             } catch (Exception ignored) {
@@ -123,13 +130,7 @@ public class ClientSideEyeExtension implements BurpExtension {
                     }
 
                     analyzed++;
-                    List<Finding> findings = new ArrayList<>();
-                    if (htmlLike) findings.addAll(HtmlAnalyzer.analyzeHtml(url, body));
-                    if (jsLike) {
-                        findings.addAll(JavaScriptAnalyzer.analyzeJavaScript(url, body));
-                        findings.addAll(SourceMapAnalyzer.analyzeSourceMappingReference(url, body));
-                    }
-                    if (sourceMapLike) findings.addAll(SourceMapAnalyzer.analyzeSourceMap(url, body));
+                    List<Finding> findings = ResponseAnalyzer.analyze(url, body);
                     if (!findings.isEmpty()) {
                         tab.addFindings(findings);
                         added += findings.size();
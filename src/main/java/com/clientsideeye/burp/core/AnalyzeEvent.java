@@ -0,0 +1,32 @@
+package com.clientsideeye.burp.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one analyzer pass over a response body. Only committed while a recording has the event
+ * enabled, so the cost with JFR off is a {@code shouldCommit()} check.
+ */
+@Name("ClientSideEye.Analyze")
+@Label("ClientSideEye Analyze")
+@Category("ClientSideEye")
+@Description("One analyzer pass over an HTTP response body or rendered DOM snapshot.")
+@StackTrace(false)
+final class AnalyzeEvent extends Event {
+    @Label("URL")
+    String url;
+
+    @Label("Content Class")
+    @Description("Analyzer that ran: html, javascript, source_map_reference or source_map.")
+    String contentClass;
+
+    @Label("Input Characters")
+    long inputChars;
+
+    @Label("Findings")
+    int findings;
+}
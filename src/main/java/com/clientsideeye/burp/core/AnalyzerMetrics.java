@@ -0,0 +1,193 @@
+package com.clientsideeye.burp.core;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide run counts, timings, input sizes, finding counts and evidence truncations for each analyzer
+ * pass made by {@link ResponseAnalyzer}. Counters are {@link LongAdder}s so concurrent scans do not contend.
+ * A {@link Recording} additionally totals just the passes its own thread makes, so one scan can report its
+ * work without picking up what other threads analyzed meanwhile.
+ */
+public final class AnalyzerMetrics {
+
+    public enum Analyzer {
+        HTML("html"),
+        JAVASCRIPT("javascript"),
+        SOURCE_MAP_REFERENCE("source_map_reference"),
+        SOURCE_MAP("source_map");
+
+        private final String label;
+
+        Analyzer(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    public static final class Stats {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder inputChars = new LongAdder();
+        private final LongAdder findings = new LongAdder();
+        private final LongAdder truncations = new LongAdder();
+        private final LatencyHistogram duration = new LatencyHistogram();
+
+        public long runs() {
+            return runs.sum();
+        }
+
+        public long inputChars() {
+            return inputChars.sum();
+        }
+
+        public long findings() {
+            return findings.sum();
+        }
+
+        /** Evidence or snippet values cut short to fit a finding. */
+        public long truncations() {
+            return truncations.sum();
+        }
+
+        public LatencyHistogram duration() {
+            return duration;
+        }
+
+        public Totals totals() {
+            return new Totals(runs(), inputChars(), findings(), truncations(), (long) (duration.snapshot().sumSeconds() * 1e9));
+        }
+    }
+
+    /** Plain counter values at one point in time; subtract two to get the activity in between. */
+    public record Totals(long runs, long inputChars, long findings, long truncations, long durationNanos) {
+        public Totals minus(Totals earlier) {
+            return new Totals(runs - earlier.runs, inputChars - earlier.inputChars, findings - earlier.findings,
+                truncations - earlier.truncations, durationNanos - earlier.durationNanos);
+        }
+    }
+
+    /**
+     * Per-analyzer totals of the passes made on the opening thread until {@link #close()}. Recordings nest;
+     * each open one on the thread sees every pass. Not thread-safe: use it only on the thread that opened it.
+     */
+    public static final class Recording implements AutoCloseable {
+        private static final int RUNS = 0;
+        private static final int INPUT_CHARS = 1;
+        private static final int FINDINGS = 2;
+        private static final int TRUNCATIONS = 3;
+        private static final int DURATION_NANOS = 4;
+
+        private final Recording outer;
+        private final long[][] counts = new long[Analyzer.values().length][5];
+
+        private Recording(Recording outer) {
+            this.outer = outer;
+        }
+
+        private void add(Analyzer analyzer, long inputChars, long findings, long truncations, long durationNanos) {
+            for (Recording recording = this; recording != null; recording = recording.outer) {
+                long[] row = recording.counts[analyzer.ordinal()];
+                row[RUNS]++;
+                row[INPUT_CHARS] += inputChars;
+                row[FINDINGS] += findings;
+                row[TRUNCATIONS] += truncations;
+                row[DURATION_NANOS] += durationNanos;
+            }
+        }
+
+        public Map<Analyzer, Totals> totals() {
+            Map<Analyzer, Totals> totals = new EnumMap<>(Analyzer.class);
+            for (Analyzer analyzer : Analyzer.values()) {
+                long[] row = counts[analyzer.ordinal()];
+                totals.put(analyzer, new Totals(row[RUNS], row[INPUT_CHARS], row[FINDINGS], row[TRUNCATIONS], row[DURATION_NANOS]));
+            }
+            return totals;
+        }
+
+        @Override
+        public void close() {
+            if (outer == null) {
+                RECORDING.remove();
+            } else {
+                RECORDING.set(outer);
+            }
+        }
+    }
+
+    private static final Map<Analyzer, Stats> STATS = new EnumMap<>(Analyzer.class);
+
+    static {
+        for (Analyzer analyzer : Analyzer.values()) {
+            STATS.put(analyzer, new Stats());
+        }
+    }
+
+    // Truncations noted by the pass running on this thread; measure() attributes them to its analyzer.
+    private static final ThreadLocal<long[]> PASS_TRUNCATIONS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private static final ThreadLocal<Recording> RECORDING = new ThreadLocal<>();
+
+    private AnalyzerMetrics() {
+    }
+
+    /** Starts totalling this thread's passes; close the recording on the same thread. */
+    public static Recording record() {
+        Recording recording = new Recording(RECORDING.get());
+        RECORDING.set(recording);
+        return recording;
+    }
+
+    public static Stats stats(Analyzer analyzer) {
+        return STATS.get(analyzer);
+    }
+
+    public static Map<Analyzer, Totals> totals() {
+        Map<Analyzer, Totals> totals = new EnumMap<>(Analyzer.class);
+        for (Analyzer analyzer : Analyzer.values()) {
+            totals.put(analyzer, STATS.get(analyzer).totals());
+        }
+        return totals;
+    }
+
+    static List<Finding> measure(Analyzer analyzer, String url, String body, Supplier<List<Finding>> pass) {
+        long[] truncations = PASS_TRUNCATIONS.get();
+        long truncationsBefore = truncations[0];
+        AnalyzeEvent event = new AnalyzeEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<Finding> findings = pass.get();
+        Stats stats = STATS.get(analyzer);
+        int inputChars = body == null ? 0 : body.length();
+        long durationNanos = System.nanoTime() - start;
+        long passTruncations = truncations[0] - truncationsBefore;
+        stats.duration.record(durationNanos);
+        stats.runs.increment();
+        stats.inputChars.add(inputChars);
+        stats.findings.add(findings.size());
+        stats.truncations.add(passTruncations);
+        Recording recording = RECORDING.get();
+        if (recording != null) {
+            recording.add(analyzer, inputChars, findings.size(), passTruncations, durationNanos);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.url = url;
+            event.contentClass = analyzer.label();
+            event.inputChars = inputChars;
+            event.findings = findings.size();
+            event.commit();
+        }
+        return findings;
+    }
+
+    /** Called by the analyzers whenever they cut evidence or a snippet short. */
+    static void noteTruncation() {
+        PASS_TRUNCATIONS.get()[0]++;
+    }
+}
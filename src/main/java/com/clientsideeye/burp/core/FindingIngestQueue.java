@@ -0,0 +1,86 @@
+package com.clientsideeye.burp.core;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer of finding batches.
+ * Producers claim a slot with one CAS on the tail and publish it through the slot sequence,
+ * so analyzers and bridge connections never take a lock. Only one thread may drain.
+ */
+public final class FindingIngestQueue {
+    private final int mask;
+    private final AtomicReferenceArray<List<Finding>> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public FindingIngestQueue(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two >= 2");
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Returns false without blocking when the buffer is full. */
+    public boolean offer(List<Finding> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return true;
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.setRelease(index, batch);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /** Consumer-only: hands up to {@code maxBatches} published batches to {@code sink} in order. */
+    public int drainTo(Consumer<List<Finding>> sink, int maxBatches) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < maxBatches) {
+            int index = (int) (position & mask);
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            List<Finding> batch = slots.getAcquire(index);
+            slots.setRelease(index, null);
+            sequences.setRelease(index, position + mask + 1);
+            position++;
+            head.setRelease(position);
+            sink.accept(batch);
+            drained++;
+        }
+        return drained;
+    }
+
+    /** Approximate number of batches waiting to be drained. */
+    public int size() {
+        long pending = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(pending, mask + 1L));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,296 @@
+package com.clientsideeye.burp.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only log of findings and false-positive marks kept in string-valued project storage.
+ * Records are buffered and written as numbered segments; once the log holds far more records than
+ * live findings it is compacted into a fresh snapshot and the old segments are deleted.
+ * {@link #flush} and {@link #reset} must be called from a single writer thread.
+ */
+public final class FindingLog {
+
+    /** Minimal key/value view of the project storage (Montoya's {@code PersistedObject} in Burp). */
+    public interface Storage {
+        String getString(String key);
+
+        void setString(String key, String value);
+
+        void deleteString(String key);
+    }
+
+    /** State recovered by {@link #load}. */
+    public record Snapshot(List<Finding> findings, Set<String> falsePositiveKeys) {
+    }
+
+    static final String KEY_PREFIX = "clientsideeye.findings.";
+    private static final String VERSION_KEY = KEY_PREFIX + "version";
+    private static final String FIRST_KEY = KEY_PREFIX + "first";
+    private static final String NEXT_KEY = KEY_PREFIX + "next";
+    private static final String SEGMENT_KEY_PREFIX = KEY_PREFIX + "segment.";
+    private static final String FORMAT_VERSION = "1";
+    private static final int RECORDS_PER_SEGMENT = 500;
+    private static final int MAX_SEGMENTS = 200;
+    private static final int COMPACTION_SLACK_RECORDS = 2000;
+
+    private static final char FINDING = 'F';
+    private static final char MARK_FALSE_POSITIVE = 'P';
+    private static final char UNMARK_FALSE_POSITIVE = 'U';
+
+    private final Storage storage;
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger loggedRecords = new AtomicInteger();
+
+    public FindingLog(Storage storage) {
+        this.storage = storage;
+    }
+
+    // --- buffering (any thread) ---
+
+    public void appendFindings(Collection<Finding> findings) {
+        for (Finding finding : findings) {
+            pending.add(encodeFinding(finding));
+        }
+    }
+
+    public void appendFalsePositive(String stableKey, boolean marked) {
+        pending.add((marked ? MARK_FALSE_POSITIVE : UNMARK_FALSE_POSITIVE) + "\t" + escape(stableKey));
+    }
+
+    // --- writing (single writer thread) ---
+
+    /**
+     * Writes buffered records as new segments, then compacts against {@code liveStore} when the
+     * log has grown well past the live state.
+     */
+    public void flush(FindingStore liveStore) {
+        List<String> records = new ArrayList<>();
+        String record;
+        while ((record = pending.poll()) != null) {
+            records.add(record);
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        ensureVersion();
+        long first = readPointer(FIRST_KEY);
+        long next = writeSegments(records, readPointer(NEXT_KEY));
+        storage.setString(NEXT_KEY, Long.toString(next));
+        loggedRecords.addAndGet(records.size());
+
+        if (next - first > MAX_SEGMENTS || loggedRecords.get() > 2 * liveStore.size() + COMPACTION_SLACK_RECORDS) {
+            compact(liveStore);
+        }
+    }
+
+    /** Replaces the whole log with one snapshot of the live state. */
+    public void compact(FindingStore liveStore) {
+        ensureVersion();
+        List<Finding> liveFindings = liveStore.snapshot();
+        Set<String> liveFalsePositiveKeys = liveStore.falsePositiveKeys();
+        List<String> records = new ArrayList<>(liveFindings.size() + liveFalsePositiveKeys.size());
+        for (Finding finding : liveFindings) {
+            records.add(encodeFinding(finding));
+        }
+        for (String key : liveFalsePositiveKeys) {
+            records.add(MARK_FALSE_POSITIVE + "\t" + escape(key));
+        }
+        long oldFirst = readPointer(FIRST_KEY);
+        long oldNext = readPointer(NEXT_KEY);
+        long next = writeSegments(records, oldNext);
+        // NEXT moves first so every intermediate state still covers the snapshot: a crash before FIRST moves
+        // only replays the old segments ahead of it, and replay and the store both dedupe by stable key.
+        // Old segments are deleted only once FIRST no longer points at them.
+        storage.setString(NEXT_KEY, Long.toString(next));
+        storage.setString(FIRST_KEY, Long.toString(oldNext));
+        deleteSegments(oldFirst, oldNext);
+        loggedRecords.set(records.size());
+    }
+
+    /** Drops every persisted record and anything still buffered. */
+    public void reset() {
+        pending.clear();
+        long first = readPointer(FIRST_KEY);
+        long next = readPointer(NEXT_KEY);
+        storage.setString(FIRST_KEY, Long.toString(next));
+        deleteSegments(first, next);
+        loggedRecords.set(0);
+    }
+
+    // --- reading ---
+
+    /** Replays every segment in order; later records win. Safe to call off the writer thread before writes start. */
+    public Snapshot load() {
+        LinkedHashMap<String, Finding> findings = new LinkedHashMap<>();
+        Set<String> falsePositiveKeys = new LinkedHashSet<>();
+        String version = storage.getString(VERSION_KEY);
+        if (version != null && !FORMAT_VERSION.equals(version)) {
+            return new Snapshot(List.of(), Set.of());
+        }
+        long first = readPointer(FIRST_KEY);
+        long next = readPointer(NEXT_KEY);
+        int records = 0;
+        for (long segment = first; segment < next; segment++) {
+            String text = storage.getString(SEGMENT_KEY_PREFIX + segment);
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            for (String line : text.split("\n")) {
+                records++;
+                applyRecord(line, findings, falsePositiveKeys);
+            }
+        }
+        loggedRecords.set(records);
+        return new Snapshot(new ArrayList<>(findings.values()), falsePositiveKeys);
+    }
+
+    private static void applyRecord(String line, LinkedHashMap<String, Finding> findings, Set<String> falsePositiveKeys) {
+        if (line.length() < 2) {
+            return;
+        }
+        List<String> fields = splitFields(line.substring(2));
+        switch (line.charAt(0)) {
+            case FINDING -> {
+                Finding finding = decodeFinding(fields);
+                if (finding != null) {
+                    findings.put(finding.stableKey(), finding);
+                }
+            }
+            case MARK_FALSE_POSITIVE -> falsePositiveKeys.add(fields.get(0));
+            case UNMARK_FALSE_POSITIVE -> falsePositiveKeys.remove(fields.get(0));
+            default -> {
+                // unknown record types from newer versions are skipped
+            }
+        }
+    }
+
+    private long writeSegments(List<String> records, long next) {
+        for (int from = 0; from < records.size(); from += RECORDS_PER_SEGMENT) {
+            int to = Math.min(records.size(), from + RECORDS_PER_SEGMENT);
+            storage.setString(SEGMENT_KEY_PREFIX + next, String.join("\n", records.subList(from, to)));
+            next++;
+        }
+        return next;
+    }
+
+    private void deleteSegments(long from, long to) {
+        for (long segment = from; segment < to; segment++) {
+            storage.deleteString(SEGMENT_KEY_PREFIX + segment);
+        }
+    }
+
+    private void ensureVersion() {
+        if (!FORMAT_VERSION.equals(storage.getString(VERSION_KEY))) {
+            storage.setString(VERSION_KEY, FORMAT_VERSION);
+        }
+    }
+
+    private long readPointer(String key) {
+        try {
+            String value = storage.getString(key);
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (NumberFormatException ignored) {
+            return 0;
+        }
+    }
+
+    // --- record codec: tab-separated fields with \\, \t, \n and \r escaped ---
+
+    static String encodeFinding(Finding finding) {
+        return FINDING + "\t" + String.join("\t",
+            escape(finding.type()),
+            finding.severity().name(),
+            Integer.toString(finding.confidence()),
+            escape(finding.url()),
+            escape(finding.host()),
+            escape(finding.title()),
+            escape(finding.summary()),
+            escape(finding.evidence()),
+            escape(finding.recommendation()),
+            escape(finding.identity()),
+            escape(finding.firstSeen())
+        );
+    }
+
+    static Finding decodeFinding(List<String> fields) {
+        if (fields.size() < 11) {
+            return null;
+        }
+        try {
+            return new Finding(
+                fields.get(0),
+                Finding.Severity.valueOf(fields.get(1)),
+                Integer.parseInt(fields.get(2)),
+                fields.get(3),
+                fields.get(4),
+                fields.get(5),
+                fields.get(6),
+                fields.get(7),
+                fields.get(8),
+                fields.get(9),
+                fields.get(10)
+            );
+        } catch (IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder out = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '\\' -> "\\\\";
+                case '\t' -> "\\t";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                default -> null;
+            };
+            if (replacement != null && out == null) {
+                out = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (out != null) {
+                if (replacement != null) {
+                    out.append(replacement);
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        return out == null ? value : out.toString();
+    }
+
+    private static List<String> splitFields(String text) {
+        List<String> fields = new ArrayList<>(11);
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\t') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else if (c == '\\' && i + 1 < text.length()) {
+                char escaped = text.charAt(++i);
+                current.append(switch (escaped) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> escaped;
+                });
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
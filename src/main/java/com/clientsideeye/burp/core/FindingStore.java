@@ -0,0 +1,148 @@
+package com.clientsideeye.burp.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicated findings keyed by {@link Finding#stableKey()}, in first-seen order.
+ * A single ingest thread writes; the UI, exporters and the bridge may read concurrently.
+ */
+public final class FindingStore {
+
+    /** Changes produced by one {@link #upsertAll} call, in arrival order. */
+    public record Delta(List<Finding> added, List<Finding> updated, List<String> evictedKeys) {
+        public boolean isEmpty() {
+            return added.isEmpty() && updated.isEmpty() && evictedKeys.isEmpty();
+        }
+    }
+
+    private final int maxFindings;
+    private final ConcurrentHashMap<String, Long> sequenceByKey = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Finding> findingsBySequence = new ConcurrentSkipListMap<>();
+    private final Set<String> falsePositiveKeys = ConcurrentHashMap.newKeySet();
+    private long nextSequence;
+    private final LongAdder insertedTotal = new LongAdder();
+    private final LongAdder deduplicatedTotal = new LongAdder();
+
+    public FindingStore(int maxFindings) {
+        this.maxFindings = maxFindings;
+    }
+
+    // --- writer (ingest thread) ---
+
+    public Delta upsertAll(Collection<List<Finding>> batches) {
+        return merge(batches, true);
+    }
+
+    /** Adds findings whose keys are not already present, leaving newer entries untouched. */
+    public Delta addAbsent(List<Finding> findings) {
+        return merge(List.of(findings), false);
+    }
+
+    private Delta merge(Collection<List<Finding>> batches, boolean replaceExisting) {
+        LinkedHashMap<String, Finding> added = new LinkedHashMap<>();
+        LinkedHashMap<String, Finding> updated = new LinkedHashMap<>();
+        for (List<Finding> batch : batches) {
+            for (Finding finding : batch) {
+                String key = finding.stableKey();
+                Long sequence = sequenceByKey.get(key);
+                if (sequence == null) {
+                    sequence = nextSequence++;
+                    sequenceByKey.put(key, sequence);
+                    added.put(key, finding);
+                    insertedTotal.increment();
+                    findingsBySequence.put(sequence, finding);
+                    continue;
+                }
+                deduplicatedTotal.increment();
+                if (added.containsKey(key)) {
+                    added.put(key, finding);
+                } else if (replaceExisting) {
+                    updated.put(key, finding);
+                } else {
+                    continue;
+                }
+                findingsBySequence.put(sequence, finding);
+            }
+        }
+
+        List<String> evicted = new ArrayList<>();
+        while (sequenceByKey.size() > maxFindings) {
+            Map.Entry<Long, Finding> oldest = findingsBySequence.pollFirstEntry();
+            if (oldest == null) {
+                break;
+            }
+            String key = oldest.getValue().stableKey();
+            sequenceByKey.remove(key);
+            updated.remove(key);
+            if (added.remove(key) == null) {
+                evicted.add(key);
+            }
+        }
+        return new Delta(List.copyOf(added.values()), List.copyOf(updated.values()), evicted);
+    }
+
+    public void clear() {
+        findingsBySequence.clear();
+        sequenceByKey.clear();
+        falsePositiveKeys.clear();
+    }
+
+    // --- readers (any thread) ---
+
+    public boolean contains(String stableKey) {
+        return sequenceByKey.containsKey(stableKey);
+    }
+
+    public Finding get(String stableKey) {
+        Long sequence = sequenceByKey.get(stableKey);
+        return sequence == null ? null : findingsBySequence.get(sequence);
+    }
+
+    public int size() {
+        return sequenceByKey.size();
+    }
+
+    /** Findings that arrived with a new stable key, since the store was created. */
+    public long insertedTotal() {
+        return insertedTotal.sum();
+    }
+
+    /** Findings that matched an existing stable key and were merged rather than added. */
+    public long deduplicatedTotal() {
+        return deduplicatedTotal.sum();
+    }
+
+    public List<Finding> snapshot() {
+        return new ArrayList<>(findingsBySequence.values());
+    }
+
+    // --- false-positive marks (UI thread writes, any thread reads) ---
+
+    public boolean isFalsePositive(String stableKey) {
+        return falsePositiveKeys.contains(stableKey);
+    }
+
+    public boolean toggleFalsePositive(String stableKey) {
+        if (falsePositiveKeys.remove(stableKey)) {
+            return false;
+        }
+        falsePositiveKeys.add(stableKey);
+        return true;
+    }
+
+    public void markFalsePositives(Collection<String> stableKeys) {
+        falsePositiveKeys.addAll(stableKeys);
+    }
+
+    public Set<String> falsePositiveKeys() {
+        return Set.copyOf(falsePositiveKeys);
+    }
+}
@@ -30,6 +30,7 @@ final class HtmlAnalysisSupport {
         if (normalized.length() <= max) {
             return normalized;
         }
+        AnalyzerMetrics.noteTruncation();
         return normalized.substring(0, max) + "...";
     }
 
@@ -190,6 +190,7 @@ public final class JavaScriptAnalyzer {
         if (s == null) return "";
         String normalized = s.replaceAll("\\s+", " ").trim();
         if (normalized.length() <= max) return normalized;
+        AnalyzerMetrics.noteTruncation();
         return normalized.substring(0, max) + "...";
     }
 }
@@ -1,63 +1,107 @@
 package com.clientsideeye.burp.core;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 public final class JsonExporter {
 
+    /** Receives progress while a report is streamed; return false to cancel the export. */
+    @FunctionalInterface
+    public interface ProgressListener {
+        ProgressListener NONE = (written, total) -> true;
+
+        boolean onProgress(int written, int total);
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
     private JsonExporter() {}
 
     public static String toJson(List<Finding> findings) {
         return toJson(findings, null);
     }
 
-    public static String toJson(List<Finding> findings, java.util.Set<String> falsePositiveKeys) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{\"tool\":\"ClientSideEye\",\"findings\":[");
-        boolean first = true;
+    public static String toJson(List<Finding> findings, Set<String> falsePositiveKeys) {
+        StringWriter out = new StringWriter();
+        try {
+            writeJson(findings, falsePositiveKeys, out, ProgressListener.NONE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Streams the report straight to {@code out} one finding at a time, so the whole document is never held in memory.
+     * Throws {@link CancellationException} when the listener asks to stop.
+     */
+    public static void writeJson(List<Finding> findings, Set<String> falsePositiveKeys, Writer out, ProgressListener listener) throws IOException {
+        out.write("{\"tool\":\"ClientSideEye\",\"findings\":[");
+        int written = 0;
         for (Finding f : findings) {
-            if (!first) sb.append(",");
-            first = false;
-            boolean isFalsePositive = falsePositiveKeys != null && falsePositiveKeys.contains(f.stableKey());
-            sb.append("{");
-            kv(sb, "type", f.type()); sb.append(",");
-            kv(sb, "severity", f.severity().name()); sb.append(",");
-            sb.append("\"confidence\":").append(f.confidence()).append(",");
-            sb.append("\"falsePositive\":").append(isFalsePositive).append(",");
-            kv(sb, "url", f.url()); sb.append(",");
-            kv(sb, "host", f.host()); sb.append(",");
-            kv(sb, "title", f.title()); sb.append(",");
-            kv(sb, "identity", f.identity()); sb.append(",");
-            kv(sb, "firstSeen", f.firstSeen()); sb.append(",");
-            kv(sb, "summary", f.summary()); sb.append(",");
-            kv(sb, "evidence", f.evidence()); sb.append(",");
-            kv(sb, "recommendation", f.recommendation());
-            sb.append("}");
+            if (written > 0) out.write(',');
+            writeFinding(out, f, falsePositiveKeys != null && falsePositiveKeys.contains(f.stableKey()));
+            written++;
+            if (!listener.onProgress(written, findings.size())) {
+                throw new CancellationException("Export cancelled after " + written + " findings");
+            }
         }
-        sb.append("]}");
-        return sb.toString();
+        out.write("]}");
+        out.flush();
     }
 
-    private static void kv(StringBuilder sb, String k, String v) {
-        sb.append("\"").append(esc(k)).append("\":\"").append(esc(v)).append("\"");
+    static void writeFinding(Writer out, Finding f, boolean isFalsePositive) throws IOException {
+        out.write('{');
+        kv(out, "type", f.type()); out.write(',');
+        kv(out, "severity", f.severity().name()); out.write(',');
+        out.write("\"confidence\":"); out.write(Integer.toString(f.confidence())); out.write(',');
+        out.write("\"falsePositive\":"); out.write(isFalsePositive ? "true" : "false"); out.write(',');
+        kv(out, "url", f.url()); out.write(',');
+        kv(out, "host", f.host()); out.write(',');
+        kv(out, "title", f.title()); out.write(',');
+        kv(out, "identity", f.identity()); out.write(',');
+        kv(out, "firstSeen", f.firstSeen()); out.write(',');
+        kv(out, "summary", f.summary()); out.write(',');
+        kv(out, "evidence", f.evidence()); out.write(',');
+        kv(out, "recommendation", f.recommendation());
+        out.write('}');
     }
 
-    private static String esc(String s) {
-        if (s == null) return "";
-        StringBuilder out = new StringBuilder(s.length() + 16);
+    static void kv(Writer out, String k, String v) throws IOException {
+        out.write('"');
+        esc(out, k);
+        out.write("\":\"");
+        esc(out, v);
+        out.write('"');
+    }
+
+    // Copies runs of safe characters in one write and hex-encodes control characters without String.format.
+    static void esc(Writer out, String s) throws IOException {
+        if (s == null) return;
+        int runStart = 0;
         for (int i = 0; i < s.length(); i++) {
             char c = s.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+            if (i > runStart) out.write(s, runStart, i - runStart);
+            runStart = i + 1;
             switch (c) {
-                case '\\' -> out.append("\\\\");
-                case '"' -> out.append("\\\"");
-                case '\n' -> out.append("\\n");
-                case '\r' -> out.append("\\r");
-                case '\t' -> out.append("\\t");
+                case '\\' -> out.write("\\\\");
+                case '"' -> out.write("\\\"");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
                 default -> {
-                    if (c < 0x20) out.append(String.format("\\u%04x", (int)c));
-                    else out.append(c);
+                    out.write("\\u00");
+                    out.write(HEX[(c >> 4) & 0xF]);
+                    out.write(HEX[c & 0xF]);
                 }
             }
         }
-        return out.toString();
+        if (runStart < s.length()) out.write(s, runStart, s.length() - runStart);
     }
 }
@@ -0,0 +1,115 @@
+package com.clientsideeye.burp.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram safe to record from any thread. Buckets follow the usual Prometheus
+ * spacing from 0.5 ms to 10 s; observations above the last bound only land in the implicit +Inf bucket.
+ *
+ * <p>Alongside those, every observation also lands in an HDR-style log-linear bucket (8 sub-buckets per
+ * power of two, so within 12.5% of the true value) from which {@link #percentileNanos} reads percentiles.
+ */
+public final class LatencyHistogram {
+
+    /** Cumulative view in Prometheus order: {@code cumulativeCounts[i]} counts observations at or under {@code BOUNDS_SECONDS[i]}. */
+    public record Snapshot(long[] cumulativeCounts, long count, double sumSeconds) {
+    }
+
+    public static final double[] BOUNDS_SECONDS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_SECONDS.length];
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Octaves up to 2^39 ns (about 9 minutes); anything slower is clamped into the last fine bucket.
+    private static final int MAX_EXPONENT = 38;
+    private static final int FINE_BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    static {
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BOUNDS_SECONDS[i] * 1e9);
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder[] fineBuckets = new LongAdder[FINE_BUCKETS];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        for (int i = 0; i < fineBuckets.length; i++) {
+            fineBuckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        fineBuckets[fineIndex(nanos)].increment();
+        sumNanos.add(Math.max(0, nanos));
+    }
+
+    public Snapshot snapshot() {
+        long[] cumulative = new long[BOUNDS_NANOS.length];
+        long running = 0;
+        for (int i = 0; i < BOUNDS_NANOS.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        running += buckets[BOUNDS_NANOS.length].sum();
+        return new Snapshot(cumulative, running, sumNanos.sum() / 1e9);
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code percentile} (0-100) observation, or 0 when nothing has been
+     * recorded. Like {@link #snapshot()}, concurrent recording makes this approximate.
+     */
+    public long percentileNanos(double percentile) {
+        long[] counts = new long[FINE_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < FINE_BUCKETS; i++) {
+            counts[i] = fineBuckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < FINE_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(FINE_BUCKETS - 1);
+    }
+
+    // Values below 8 ns map one-to-one; above that each power of two [2^e, 2^(e+1)) splits into 8 equal buckets.
+    static int fineIndex(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(0, nanos);
+        }
+        int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(nanos));
+        if (exponent == MAX_EXPONENT && nanos >= 1L << (MAX_EXPONENT + 1)) {
+            return FINE_BUCKETS - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
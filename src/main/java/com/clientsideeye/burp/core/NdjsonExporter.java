@@ -0,0 +1,41 @@
+package com.clientsideeye.burp.core;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/** Newline-delimited JSON: one self-contained finding object per line, using the same fields as {@link JsonExporter}. */
+public final class NdjsonExporter {
+
+    private NdjsonExporter() {}
+
+    /** Throws {@link CancellationException} when the listener asks to stop; every line written so far is complete. */
+    public static void writeNdjson(List<Finding> findings, Set<String> falsePositiveKeys, Writer out, JsonExporter.ProgressListener listener) throws IOException {
+        int written = 0;
+        for (Finding f : findings) {
+            JsonExporter.writeFinding(out, f, falsePositiveKeys != null && falsePositiveKeys.contains(f.stableKey()));
+            out.write('\n');
+            written++;
+            if (!listener.onProgress(written, findings.size())) {
+                out.flush();
+                throw new CancellationException("Export cancelled after " + written + " findings");
+            }
+        }
+        out.flush();
+    }
+
+    /** One finding as a single-line JSON object, without the trailing newline. */
+    public static String toJsonLine(Finding finding, boolean isFalsePositive) {
+        StringWriter out = new StringWriter(512);
+        try {
+            JsonExporter.writeFinding(out, finding, isFalsePositive);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.clientsideeye.burp.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+
+/** Report formats offered by the export button; each streams findings to a {@link Writer}. */
+public enum ReportFormat {
+    JSON("JSON", ".json"),
+    NDJSON("NDJSON", ".ndjson"),
+    SARIF("SARIF 2.1", ".sarif");
+
+    private final String label;
+    private final String extension;
+
+    ReportFormat(String label, String extension) {
+        this.label = label;
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public void write(List<Finding> findings, Set<String> falsePositiveKeys, Writer out, JsonExporter.ProgressListener listener) throws IOException {
+        switch (this) {
+            case JSON -> JsonExporter.writeJson(findings, falsePositiveKeys, out, listener);
+            case NDJSON -> NdjsonExporter.writeNdjson(findings, falsePositiveKeys, out, listener);
+            case SARIF -> SarifExporter.writeSarif(findings, falsePositiveKeys, out, listener);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -1,5 +1,7 @@
 package com.clientsideeye.burp.core;
 
+import com.clientsideeye.burp.core.AnalyzerMetrics.Analyzer;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,15 +19,20 @@ public final class ResponseAnalyzer {
 
         List<Finding> findings = new ArrayList<>();
         if (htmlLike) {
-            findings.addAll(HtmlAnalyzer.analyzeHtml(url, body));
+            findings.addAll(AnalyzerMetrics.measure(Analyzer.HTML, url, body, () -> HtmlAnalyzer.analyzeHtml(url, body)));
         }
         if (jsLike) {
-            findings.addAll(JavaScriptAnalyzer.analyzeJavaScript(url, body));
-            findings.addAll(SourceMapAnalyzer.analyzeSourceMappingReference(url, body));
+            findings.addAll(AnalyzerMetrics.measure(Analyzer.JAVASCRIPT, url, body, () -> JavaScriptAnalyzer.analyzeJavaScript(url, body)));
+            findings.addAll(AnalyzerMetrics.measure(Analyzer.SOURCE_MAP_REFERENCE, url, body, () -> SourceMapAnalyzer.analyzeSourceMappingReference(url, body)));
         }
         if (sourceMapLike) {
-            findings.addAll(SourceMapAnalyzer.analyzeSourceMap(url, body));
+            findings.addAll(AnalyzerMetrics.measure(Analyzer.SOURCE_MAP, url, body, () -> SourceMapAnalyzer.analyzeSourceMap(url, body)));
         }
         return findings;
     }
+
+    /** Rendered DOM captured in the browser is known to be HTML, so only the HTML pass runs. */
+    public static List<Finding> analyzeRenderedHtml(String url, String html) {
+        return AnalyzerMetrics.measure(Analyzer.HTML, url, html, () -> HtmlAnalyzer.analyzeHtml(url, html));
+    }
 }
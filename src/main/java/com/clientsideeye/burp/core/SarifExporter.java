@@ -0,0 +1,99 @@
+package com.clientsideeye.burp.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * SARIF 2.1.0 log with one run. Rules are derived from the finding types up front; results are then
+ * streamed one at a time. False positives are kept as results with an external suppression.
+ */
+public final class SarifExporter {
+
+    static final String SCHEMA_URI = "https://json.schemastore.org/sarif-2.1.0.json";
+    static final String FINGERPRINT_KEY = "clientSideEyeStableKey/v1";
+    private static final String INFORMATION_URI = "https://github.com/U17Leetha/ClientSideEye-Burp";
+
+    private SarifExporter() {}
+
+    public static void writeSarif(List<Finding> findings, Set<String> falsePositiveKeys, Writer out, JsonExporter.ProgressListener listener) throws IOException {
+        Map<String, Integer> ruleIndex = new LinkedHashMap<>();
+        for (Finding f : findings) {
+            ruleIndex.putIfAbsent(f.type(), ruleIndex.size());
+        }
+
+        out.write("{\"$schema\":\"" + SCHEMA_URI + "\",\"version\":\"2.1.0\",\"runs\":[{\"tool\":{\"driver\":{");
+        JsonExporter.kv(out, "name", "ClientSideEye"); out.write(',');
+        JsonExporter.kv(out, "informationUri", INFORMATION_URI); out.write(',');
+        out.write("\"rules\":[");
+        boolean firstRule = true;
+        for (String type : ruleIndex.keySet()) {
+            if (!firstRule) out.write(',');
+            firstRule = false;
+            out.write('{');
+            JsonExporter.kv(out, "id", type); out.write(',');
+            JsonExporter.kv(out, "name", type); out.write(',');
+            out.write("\"shortDescription\":{");
+            JsonExporter.kv(out, "text", ruleDescription(type));
+            out.write("}}");
+        }
+        out.write("]}},\"results\":[");
+
+        int written = 0;
+        for (Finding f : findings) {
+            if (written > 0) out.write(',');
+            writeResult(out, f, ruleIndex.get(f.type()), falsePositiveKeys != null && falsePositiveKeys.contains(f.stableKey()));
+            written++;
+            if (!listener.onProgress(written, findings.size())) {
+                throw new CancellationException("Export cancelled after " + written + " findings");
+            }
+        }
+        out.write("]}]}");
+        out.flush();
+    }
+
+    private static void writeResult(Writer out, Finding f, int ruleIndex, boolean isFalsePositive) throws IOException {
+        out.write('{');
+        JsonExporter.kv(out, "ruleId", f.type()); out.write(',');
+        out.write("\"ruleIndex\":"); out.write(Integer.toString(ruleIndex)); out.write(',');
+        JsonExporter.kv(out, "level", level(f.severity())); out.write(',');
+        out.write("\"message\":{");
+        JsonExporter.kv(out, "text", f.summary().isBlank() ? f.title() : f.title() + ": " + f.summary());
+        out.write("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{");
+        JsonExporter.kv(out, "uri", f.url());
+        out.write("}}}],\"partialFingerprints\":{");
+        JsonExporter.kv(out, FINGERPRINT_KEY, f.stableKey());
+        out.write('}');
+        if (isFalsePositive) {
+            out.write(",\"suppressions\":[{\"kind\":\"external\",");
+            JsonExporter.kv(out, "justification", "Marked as a false positive in ClientSideEye");
+            out.write("}]");
+        }
+        out.write(",\"properties\":{");
+        JsonExporter.kv(out, "severity", f.severity().name()); out.write(',');
+        out.write("\"confidence\":"); out.write(Integer.toString(f.confidence())); out.write(',');
+        JsonExporter.kv(out, "host", f.host()); out.write(',');
+        JsonExporter.kv(out, "identity", f.identity()); out.write(',');
+        JsonExporter.kv(out, "firstSeen", f.firstSeen()); out.write(',');
+        JsonExporter.kv(out, "evidence", f.evidence()); out.write(',');
+        JsonExporter.kv(out, "recommendation", f.recommendation());
+        out.write("}}");
+    }
+
+    static String level(Finding.Severity severity) {
+        return switch (severity) {
+            case HIGH -> "error";
+            case MEDIUM -> "warning";
+            case LOW, INFO -> "note";
+        };
+    }
+
+    private static String ruleDescription(String type) {
+        return type.replace('_', ' ').toLowerCase(Locale.ROOT);
+    }
+}
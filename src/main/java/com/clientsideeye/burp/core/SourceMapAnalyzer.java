@@ -189,6 +189,7 @@ public final class SourceMapAnalyzer {
         if (s == null) return "";
         String normalized = s.replaceAll("\\s+", " ").trim();
         if (normalized.length() <= max) return normalized;
+        AnalyzerMetrics.noteTruncation();
         return normalized.substring(0, max) + "...";
     }
 }
@@ -0,0 +1,211 @@
+package com.clientsideeye.burp.integration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses a batch body for {@code /api/findings}: either a JSON array of finding objects or NDJSON with one
+ * object per line. Each object becomes the same flat field map the form endpoint produces; scalar values are
+ * kept as text and nested values are ignored. A malformed NDJSON line only rejects that record, while a
+ * malformed array rejects the whole body.
+ */
+final class BridgeBatchParser {
+
+    record Batch(List<Map<String, String>> records, int malformed) {
+    }
+
+    private final String text;
+    private int pos;
+
+    private BridgeBatchParser(String text) {
+        this.text = text;
+    }
+
+    static Batch parse(String body) {
+        String trimmed = body == null ? "" : body.strip();
+        if (trimmed.isEmpty()) {
+            return new Batch(List.of(), 0);
+        }
+        if (trimmed.charAt(0) == '[') {
+            return new Batch(new BridgeBatchParser(trimmed).parseArrayBody(), 0);
+        }
+        List<Map<String, String>> records = new ArrayList<>();
+        int malformed = 0;
+        for (String line : trimmed.split("\n")) {
+            if (line.isBlank()) continue;
+            try {
+                records.add(new BridgeBatchParser(line.strip()).parseSingleObject());
+            } catch (IllegalArgumentException e) {
+                malformed++;
+            }
+        }
+        return new Batch(records, malformed);
+    }
+
+    private List<Map<String, String>> parseArrayBody() {
+        List<Map<String, String>> records = new ArrayList<>();
+        expect('[');
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                records.add(parseObject());
+                skipWhitespace();
+                char c = next();
+                if (c == ']') break;
+                if (c != ',') throw error("expected , or ]");
+            }
+        }
+        expectEnd();
+        return records;
+    }
+
+    private Map<String, String> parseSingleObject() {
+        Map<String, String> record = parseObject();
+        expectEnd();
+        return record;
+    }
+
+    private Map<String, String> parseObject() {
+        Map<String, String> fields = new HashMap<>();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return fields;
+        }
+        while (true) {
+            skipWhitespace();
+            String key = parseString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            String value = parseScalarOrSkip();
+            if (value != null) {
+                fields.put(key, value);
+            }
+            skipWhitespace();
+            char c = next();
+            if (c == '}') return fields;
+            if (c != ',') throw error("expected , or }");
+        }
+    }
+
+    // Returns the scalar as text, or null for null and nested values (which are skipped).
+    private String parseScalarOrSkip() {
+        char c = peek();
+        if (c == '"') return parseString();
+        if (c == '{' || c == '[') {
+            skipNested();
+            return null;
+        }
+        if (text.startsWith("true", pos)) {
+            pos += 4;
+            return "true";
+        }
+        if (text.startsWith("false", pos)) {
+            pos += 5;
+            return "false";
+        }
+        if (text.startsWith("null", pos)) {
+            pos += 4;
+            return null;
+        }
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+            pos++;
+        }
+        if (pos == start) throw error("unexpected value");
+        return text.substring(start, pos);
+    }
+
+    private void skipNested() {
+        int depth = 0;
+        do {
+            char c = peek();
+            if (c == '"') {
+                parseString();
+                continue;
+            }
+            pos++;
+            if (c == '{' || c == '[') depth++;
+            else if (c == '}' || c == ']') depth--;
+        } while (depth > 0);
+    }
+
+    private String parseString() {
+        expect('"');
+        StringBuilder out = null;
+        int runStart = pos;
+        while (true) {
+            if (pos >= text.length()) throw error("unterminated string");
+            char c = text.charAt(pos);
+            if (c == '"') {
+                String value = out == null ? text.substring(runStart, pos) : out.append(text, runStart, pos).toString();
+                pos++;
+                return value;
+            }
+            if (c != '\\') {
+                pos++;
+                continue;
+            }
+            if (out == null) out = new StringBuilder();
+            out.append(text, runStart, pos);
+            pos++;
+            char escaped = next();
+            switch (escaped) {
+                case '"', '\\', '/' -> out.append(escaped);
+                case 'b' -> out.append('\b');
+                case 'f' -> out.append('\f');
+                case 'n' -> out.append('\n');
+                case 'r' -> out.append('\r');
+                case 't' -> out.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) throw error("bad unicode escape");
+                    try {
+                        out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("bad unicode escape");
+                    }
+                    pos += 4;
+                }
+                default -> throw error("bad escape");
+            }
+            runStart = pos;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private char peek() {
+        if (pos >= text.length()) throw error("unexpected end of input");
+        return text.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) throw error("expected " + expected);
+    }
+
+    private void expectEnd() {
+        skipWhitespace();
+        if (pos != text.length()) throw error("trailing content");
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("invalid JSON at " + pos + ": " + message);
+    }
+}
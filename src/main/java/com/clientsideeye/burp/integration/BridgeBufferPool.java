@@ -0,0 +1,68 @@
+package com.clientsideeye.burp.integration;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Power-of-two heap buffers reused across bridge requests. The selector thread and the request workers share
+ * the pool, so acquire and release lock it; both are a few deque operations.
+ * Each size class retains a handful of buffers; requests larger than the biggest class get a one-off buffer.
+ */
+final class BridgeBufferPool {
+    static final int MIN_CLASS_BYTES = 1024;
+    static final int MAX_CLASS_BYTES = 256 * 1024;
+    private static final int RETAINED_PER_CLASS = 16;
+
+    private final ArrayDeque<ByteBuffer>[] free;
+
+    @SuppressWarnings("unchecked")
+    BridgeBufferPool() {
+        int classes = Integer.numberOfTrailingZeros(MAX_CLASS_BYTES) - Integer.numberOfTrailingZeros(MIN_CLASS_BYTES) + 1;
+        free = new ArrayDeque[classes];
+        for (int i = 0; i < classes; i++) {
+            free[i] = new ArrayDeque<>();
+        }
+    }
+
+    /** Returns a cleared buffer whose limit is exactly {@code size}. */
+    synchronized ByteBuffer acquire(int size) {
+        int sizeClass = sizeClass(size);
+        ByteBuffer buffer = null;
+        if (sizeClass >= 0) {
+            buffer = free[sizeClass].pollFirst();
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(MIN_CLASS_BYTES << sizeClass);
+            }
+        } else {
+            buffer = ByteBuffer.allocate(size);
+        }
+        buffer.clear().limit(size);
+        return buffer;
+    }
+
+    synchronized void release(ByteBuffer buffer) {
+        if (buffer == null) return;
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1 || capacity < MIN_CLASS_BYTES || capacity > MAX_CLASS_BYTES) {
+            return;
+        }
+        ArrayDeque<ByteBuffer> queue = free[sizeClass(capacity)];
+        if (queue.size() < RETAINED_PER_CLASS) {
+            queue.addFirst(buffer);
+        }
+    }
+
+    synchronized int retained() {
+        int total = 0;
+        for (ArrayDeque<ByteBuffer> queue : free) {
+            total += queue.size();
+        }
+        return total;
+    }
+
+    private static int sizeClass(int size) {
+        if (size > MAX_CLASS_BYTES) return -1;
+        int rounded = Math.max(MIN_CLASS_BYTES, Integer.highestOneBit(Math.max(1, size - 1)) << 1);
+        return Integer.numberOfTrailingZeros(rounded) - Integer.numberOfTrailingZeros(MIN_CLASS_BYTES);
+    }
+}
@@ -0,0 +1,76 @@
+package com.clientsideeye.burp.integration;
+
+import com.clientsideeye.burp.core.Finding;
+import com.clientsideeye.burp.core.NdjsonExporter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Fans newly ingested findings out to {@code /api/stream} subscribers as server-sent events. Each publish is
+ * encoded once and offered to every stream without blocking; a subscriber whose buffer overflows is dropped.
+ * Each event carries the finding's current false-positive mark from the store.
+ */
+final class BridgeEventHub {
+    static final int MAX_SUBSCRIBERS = 16;
+
+    private final CopyOnWriteArrayList<BridgeHttpServer.EventStream> subscribers = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final Predicate<String> falsePositiveKey;
+    // Only the ingest thread publishes, so ids need no synchronization.
+    private long nextEventId = 1;
+
+    BridgeEventHub(Predicate<String> falsePositiveKey) {
+        this.falsePositiveKey = falsePositiveKey;
+    }
+
+    /** Returns false when the subscriber limit is reached. */
+    boolean subscribe(BridgeHttpServer.EventStream stream) {
+        subscribers.removeIf(BridgeHttpServer.EventStream::isClosed);
+        if (subscribers.size() >= MAX_SUBSCRIBERS) return false;
+        subscribers.add(stream);
+        return true;
+    }
+
+    /** Called on the ingest thread with the findings each flush added to the store. */
+    void publish(List<Finding> findings) {
+        if (subscribers.isEmpty() || findings.isEmpty()) return;
+        byte[] events = encode(findings, nextEventId, falsePositiveKey);
+        nextEventId += findings.size();
+        for (BridgeHttpServer.EventStream stream : subscribers) {
+            if (!stream.offer(events)) {
+                subscribers.remove(stream);
+                if (stream.overflowed()) dropped.increment();
+            }
+        }
+    }
+
+    void closeAll() {
+        for (BridgeHttpServer.EventStream stream : subscribers) {
+            stream.close();
+        }
+        subscribers.clear();
+    }
+
+    int subscriberCount() {
+        return (int) subscribers.stream().filter(stream -> !stream.isClosed()).count();
+    }
+
+    /** Subscribers disconnected because they fell too far behind. */
+    long droppedTotal() {
+        return dropped.sum();
+    }
+
+    static byte[] encode(List<Finding> findings, long firstEventId, Predicate<String> falsePositiveKey) {
+        StringBuilder out = new StringBuilder(findings.size() * 512);
+        long id = firstEventId;
+        for (Finding finding : findings) {
+            out.append("id: ").append(id++).append("\nevent: finding\ndata: ")
+                .append(NdjsonExporter.toJsonLine(finding, falsePositiveKey.test(finding.stableKey()))).append("\n\n");
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
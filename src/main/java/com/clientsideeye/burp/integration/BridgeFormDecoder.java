@@ -0,0 +1,55 @@
+package com.clientsideeye.burp.integration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodes {@code application/x-www-form-urlencoded} bytes in one pass: percent escapes and {@code +} are
+ * resolved into a scratch array and each key or value becomes a single UTF-8 string. Malformed escapes are
+ * kept literally rather than failing the request.
+ */
+final class BridgeFormDecoder {
+    private BridgeFormDecoder() {
+    }
+
+    static Map<String, String> decode(ByteBuffer body) {
+        Map<String, String> out = new HashMap<>();
+        if (body == null || !body.hasRemaining()) return out;
+        byte[] scratch = new byte[body.remaining()];
+        int length = 0;
+        String key = null;
+        for (int i = body.position(); i <= body.limit(); i++) {
+            byte b = i < body.limit() ? body.get(i) : (byte) '&';
+            if (b == '&') {
+                String text = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                if (key != null) {
+                    out.put(key, text);
+                } else if (!text.isBlank()) {
+                    out.put(text, "");
+                }
+                key = null;
+                length = 0;
+            } else if (b == '=' && key == null) {
+                key = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                length = 0;
+            } else if (b == '+') {
+                scratch[length++] = ' ';
+            } else if (b == '%' && i + 2 < body.limit() && hex(body.get(i + 1)) >= 0 && hex(body.get(i + 2)) >= 0) {
+                scratch[length++] = (byte) ((hex(body.get(i + 1)) << 4) | hex(body.get(i + 2)));
+                i += 2;
+            } else {
+                scratch[length++] = b;
+            }
+        }
+        return out;
+    }
+
+    private static int hex(byte b) {
+        if (b >= '0' && b <= '9') return b - '0';
+        if (b >= 'a' && b <= 'f') return b - 'a' + 10;
+        if (b >= 'A' && b <= 'F') return b - 'A' + 10;
+        return -1;
+    }
+}
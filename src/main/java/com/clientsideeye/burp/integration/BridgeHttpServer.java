@@ -0,0 +1,855 @@
+package com.clientsideeye.burp.integration;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Minimal HTTP/1.1 server on a single selector thread. Connections are kept alive between requests,
+ * each holds at most one pooled header buffer plus one pooled body sized by {@code Content-Length} (capped
+ * per path), and idle or stalled connections are closed after {@link #IDLE_TIMEOUT_MS}. Request heads are
+ * parsed straight from bytes. The selector thread only frames requests and asks {@link Handler#admit} whether
+ * to answer from the head alone; everything else, including inflating {@code Content-Encoding: gzip} bodies up
+ * to the same path cap, runs on a small pool of request workers while the connection waits, so a large body
+ * never stalls other connections. A handler may answer with an {@link EventStream}, which turns the
+ * connection into a server-sent event stream fed from other threads.
+ */
+final class BridgeHttpServer {
+
+    interface Handler {
+        /** Request worker: answers a request whose body has been decoded. */
+        Response handle(Request request);
+
+        /**
+         * Selector thread: answers from the method, path and headers alone (routing, auth, rate limiting), or
+         * returns null to have the body read and passed to {@link #handle} on a worker. Called as soon as the head
+         * is parsed, before any body buffer is claimed; the request's body is always empty here.
+         */
+        default Response admit(Request request) {
+            return null;
+        }
+    }
+
+    /** The body is a pooled buffer positioned at the payload; it is only valid until the handler returns. */
+    record Request(String method, String path, Map<String, String> headers, ByteBuffer body) {
+        String header(String lowerCaseName) {
+            return headers.get(lowerCaseName);
+        }
+
+        int bodyLength() {
+            return body.remaining();
+        }
+
+        /** The Content-Length the client sent; during {@link Handler#admit} the body has not been read yet. */
+        int declaredLength() {
+            try {
+                return Integer.parseInt(headers.getOrDefault("content-length", "0").trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        byte[] bodyBytes() {
+            byte[] bytes = new byte[body.remaining()];
+            body.duplicate().get(bytes);
+            return bytes;
+        }
+
+        String bodyText() {
+            return new String(body.array(), body.arrayOffset() + body.position(), body.remaining(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** {@code stream} is non-null only for event-stream responses, which have no body and no Content-Length. */
+    record Response(int status, String contentType, byte[] body, Map<String, String> headers, EventStream stream) {
+        Response(int status, String contentType, byte[] body, Map<String, String> headers) {
+            this(status, contentType, body, headers, null);
+        }
+
+        static Response eventStream(EventStream stream) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Cache-Control", "no-cache");
+            return new Response(200, "text/event-stream; charset=utf-8", new byte[0], headers, stream);
+        }
+
+        static Response json(int status, String json) {
+            return new Response(status, "application/json; charset=utf-8", json.getBytes(StandardCharsets.UTF_8), new LinkedHashMap<>());
+        }
+
+        static Response text(int status, String contentType, String text) {
+            return new Response(status, contentType, text.getBytes(StandardCharsets.UTF_8), new LinkedHashMap<>());
+        }
+
+        static Response empty(int status) {
+            return new Response(status, "text/plain; charset=utf-8", new byte[0], new LinkedHashMap<>());
+        }
+
+        Response withHeader(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+    }
+
+    static final int MAX_HEADER_BYTES = 16 * 1024;
+    static final int IDLE_TIMEOUT_MS = 5000;
+    static final int MAX_CONNECTIONS = 4096;
+    private static final int MAX_REQUESTS_PER_CONNECTION = 10_000;
+    private static final int SELECT_TIMEOUT_MS = 250;
+    static final int STREAM_HEARTBEAT_MS = 15_000;
+    private static final byte[] HEARTBEAT = ": keep-alive\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_QUEUED_REQUESTS = 64;
+    private static final String BUSY_RETRY_AFTER_SECONDS = "1";
+    private static final ByteBuffer EMPTY_BODY = ByteBuffer.allocate(0);
+
+    private enum HeadOutcome { INCOMPLETE, ANSWERED, BODY }
+
+    private final Handler handler;
+    private final ToIntFunction<String> maxBodyBytes;
+    private final Consumer<String> errorLog;
+    private final BridgeBufferPool pool = new BridgeBufferPool();
+    private final ConcurrentLinkedQueue<EventStream> readyStreams = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Completed> completed = new ConcurrentLinkedQueue<>();
+    private ThreadPoolExecutor workers;
+    private volatile boolean running;
+    private volatile Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private int boundPort = -1;
+    // Written by the selector thread only; volatile so metrics can read it.
+    private volatile int openConnections;
+    private long nextIdleSweep;
+
+    BridgeHttpServer(Handler handler, ToIntFunction<String> maxBodyBytes, Consumer<String> errorLog) {
+        this.handler = handler;
+        this.maxBodyBytes = maxBodyBytes;
+        this.errorLog = errorLog;
+    }
+
+    /** Binds the first free port in {@code [firstPort, firstPort + attempts)} and starts the selector thread. */
+    synchronized int start(String host, int firstPort, int attempts, String threadName) throws IOException {
+        IOException last = null;
+        for (int i = 0; i < attempts; i++) {
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            try {
+                channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+                channel.bind(new InetSocketAddress(host, firstPort + i), 256);
+                channel.configureBlocking(false);
+                selector = Selector.open();
+                channel.register(selector, SelectionKey.OP_ACCEPT);
+                serverChannel = channel;
+                boundPort = ((InetSocketAddress) channel.getLocalAddress()).getPort();
+                running = true;
+                workers = newWorkers(threadName);
+                selectorThread = new Thread(this::selectLoop, threadName);
+                selectorThread.setDaemon(true);
+                selectorThread.start();
+                return boundPort;
+            } catch (IOException e) {
+                last = e;
+                channel.close();
+            }
+        }
+        throw last == null ? new IOException("no port attempts") : last;
+    }
+
+    synchronized void stop() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (selectorThread != null) {
+            try {
+                selectorThread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        selectorThread = null;
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    private static ThreadPoolExecutor newWorkers(String threadName) {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadIds = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_REQUESTS), r -> {
+                Thread t = new Thread(r, threadName + "-worker-" + threadIds.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    int boundPort() {
+        return boundPort;
+    }
+
+    int openConnections() {
+        return openConnections;
+    }
+
+    /** Creates a stream a handler can return via {@link Response#eventStream}; safe from any thread. */
+    EventStream newEventStream(int maxBufferedBytes) {
+        return new EventStream(maxBufferedBytes);
+    }
+
+    /**
+     * Outgoing server-sent events for one subscriber. Producers {@link #offer} from any thread without blocking;
+     * once more than {@code maxBufferedBytes} are waiting for the socket, the stream closes itself and the
+     * connection is dropped rather than holding back the producer.
+     */
+    final class EventStream {
+        private final int maxBufferedBytes;
+        private final ConcurrentLinkedQueue<byte[]> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger bufferedBytes = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean overflowed;
+        private Connection connection;
+
+        private EventStream(int maxBufferedBytes) {
+            this.maxBufferedBytes = maxBufferedBytes;
+        }
+
+        /** Returns false once the stream is closed, including when this event would overflow its buffer. */
+        boolean offer(byte[] event) {
+            if (closed) return false;
+            if (bufferedBytes.addAndGet(event.length) > maxBufferedBytes) {
+                overflowed = true;
+                closed = true;
+                schedule();
+                return false;
+            }
+            queue.add(event);
+            schedule();
+            return true;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        boolean overflowed() {
+            return overflowed;
+        }
+
+        void close() {
+            closed = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                readyStreams.add(this);
+                Selector s = selector;
+                if (s != null) s.wakeup();
+            }
+        }
+
+        // Selector thread only: concatenates everything queued so far into one write.
+        private byte[] drain() {
+            List<byte[]> events = new ArrayList<>();
+            int total = 0;
+            byte[] event;
+            while ((event = queue.poll()) != null) {
+                events.add(event);
+                total += event.length;
+            }
+            bufferedBytes.addAndGet(-total);
+            byte[] out = new byte[total];
+            int pos = 0;
+            for (byte[] e : events) {
+                System.arraycopy(e, 0, out, pos, e.length);
+                pos += e.length;
+            }
+            return out;
+        }
+    }
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT_MS);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) connection.onReadable();
+                            if (key.isValid() && key.isWritable()) connection.onWritable();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        if (key.attachment() instanceof Connection connection) {
+                            connection.close();
+                        }
+                        if (!(e instanceof IOException)) {
+                            errorLog.accept("Bridge connection error: " + e);
+                        }
+                    }
+                }
+                finishCompleted();
+                flushReadyStreams();
+                closeIdleConnections();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                errorLog.accept("Bridge selector error: " + e);
+            }
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            if (openConnections >= MAX_CONNECTIONS) {
+                channel.close();
+                continue;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            openConnections++;
+        }
+    }
+
+    private void flushReadyStreams() {
+        EventStream stream;
+        while ((stream = readyStreams.poll()) != null) {
+            stream.scheduled.set(false);
+            if (stream.connection == null) continue;
+            try {
+                stream.connection.flushStream();
+            } catch (IOException e) {
+                stream.connection.close();
+            }
+        }
+    }
+
+    /** A worker's answer, handed back to the selector thread to be written. */
+    private record Completed(Connection connection, Response response, boolean close) {
+    }
+
+    private void finishCompleted() {
+        Completed done;
+        while ((done = completed.poll()) != null) {
+            Connection connection = done.connection();
+            connection.inFlight = false;
+            if (!connection.key.isValid()) continue;
+            try {
+                connection.key.interestOps(SelectionKey.OP_READ);
+                connection.lastActivity = System.nanoTime();
+                if (done.close()) {
+                    connection.respondAndClose(done.response());
+                    continue;
+                }
+                connection.respond(done.response());
+                // Pipelined requests may already be buffered.
+                connection.process();
+            } catch (IOException | RuntimeException e) {
+                connection.close();
+            }
+        }
+    }
+
+    private void closeIdleConnections() {
+        long now = System.nanoTime();
+        if (now - nextIdleSweep < 0) {
+            return;
+        }
+        nextIdleSweep = now + SELECT_TIMEOUT_MS * 1_000_000L;
+        long deadline = now - IDLE_TIMEOUT_MS * 1_000_000L;
+        for (SelectionKey key : new ArrayList<>(selector.keys())) {
+            if (!(key.attachment() instanceof Connection connection)) continue;
+            if (connection.inFlight) {
+                // A worker still owns this request; its timeout is the worker's business.
+                continue;
+            }
+            if (connection.stream == null) {
+                if (connection.lastActivity - deadline < 0) connection.close();
+            } else if (connection.pendingWrite != null) {
+                // A subscriber that has not drained its socket within the idle timeout is too slow to keep.
+                if (connection.lastActivity - deadline < 0) connection.close();
+            } else if (now - connection.lastActivity > STREAM_HEARTBEAT_MS * 1_000_000L) {
+                connection.stream.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    private void closeAll() {
+        try {
+            if (selector != null) {
+                for (SelectionKey key : new ArrayList<>(selector.keys())) {
+                    if (key.attachment() instanceof Connection connection) {
+                        connection.close();
+                    }
+                }
+                selector.close();
+            }
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException | ClosedSelectorException ignored) {
+            // best-effort close
+        }
+    }
+
+    // --- per-connection state machine: headers -> body -> write response -> headers ... ---
+
+    private final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private long lastActivity = System.nanoTime();
+        private int served;
+
+        // Pooled; the header buffer is returned while the connection sits idle between requests.
+        private ByteBuffer headerBuffer;
+        private ByteBuffer body;
+        private Head head;
+        private ByteBuffer pendingWrite;
+        private boolean closeAfterWrite;
+        private EventStream stream;
+        // Set while a worker handles the current request; reads pause so nothing is parsed past it.
+        private boolean inFlight;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void onReadable() throws IOException {
+            if (body == null && headerBuffer == null) {
+                headerBuffer = pool.acquire(MAX_HEADER_BYTES);
+            }
+            int read = channel.read(body != null ? body : headerBuffer);
+            if (read < 0) {
+                close();
+                return;
+            }
+            if (stream != null) {
+                // Event-stream clients have nothing more to say; discard input and only watch for EOF.
+                headerBuffer.clear();
+                return;
+            }
+            lastActivity = System.nanoTime();
+            process();
+        }
+
+        void onWritable() throws IOException {
+            channel.write(pendingWrite);
+            lastActivity = System.nanoTime();
+            if (pendingWrite.hasRemaining()) {
+                return;
+            }
+            pendingWrite = null;
+            if (closeAfterWrite) {
+                close();
+                return;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            if (stream != null) {
+                flushStream();
+                return;
+            }
+            // Pipelined requests may already be buffered.
+            process();
+        }
+
+        private void flushStream() throws IOException {
+            if (!key.isValid()) return;
+            if (stream.closed) {
+                close();
+                return;
+            }
+            if (pendingWrite != null) return;
+            byte[] events = stream.drain();
+            if (events.length == 0) return;
+            lastActivity = System.nanoTime();
+            write(events, false);
+        }
+
+        private void process() throws IOException {
+            while (pendingWrite == null && stream == null && !inFlight && key.isValid()) {
+                if (body == null) {
+                    if (headerBuffer == null) {
+                        break;
+                    }
+                    HeadOutcome outcome = parseHeaders();
+                    if (outcome == HeadOutcome.INCOMPLETE) {
+                        break;
+                    }
+                    if (outcome == HeadOutcome.ANSWERED) {
+                        continue;
+                    }
+                }
+                if (body.hasRemaining()) {
+                    return;
+                }
+                dispatch();
+            }
+            if (key.isValid() && body == null && headerBuffer != null && headerBuffer.position() == 0) {
+                pool.release(headerBuffer);
+                headerBuffer = null;
+            }
+        }
+
+        // BODY once a full header block has been parsed, admitted and the body buffer is ready; ANSWERED when
+        // the request was answered from its head, before any body buffer was claimed.
+        private HeadOutcome parseHeaders() throws IOException {
+            int end = indexOfHeaderEnd(headerBuffer);
+            if (end < 0) {
+                if (!headerBuffer.hasRemaining()) {
+                    respondAndClose(Response.json(431, "{\"error\":\"headers too large\"}"));
+                    return HeadOutcome.ANSWERED;
+                }
+                return HeadOutcome.INCOMPLETE;
+            }
+            head = parseHead(headerBuffer.array(), end);
+            if (head == null) {
+                respondAndClose(Response.json(400, "{\"error\":\"bad request\"}"));
+                return HeadOutcome.ANSWERED;
+            }
+            if (head.headers().containsKey("transfer-encoding")) {
+                respondAndClose(Response.json(411, "{\"error\":\"content-length required\"}"));
+                return HeadOutcome.ANSWERED;
+            }
+            int contentLength;
+            try {
+                contentLength = Integer.parseInt(head.headers().getOrDefault("content-length", "0"));
+            } catch (NumberFormatException e) {
+                contentLength = -1;
+            }
+            if (contentLength < 0) {
+                respondAndClose(Response.json(400, "{\"error\":\"bad content-length\"}"));
+                return HeadOutcome.ANSWERED;
+            }
+            if (contentLength > maxBodyBytes.applyAsInt(head.path())) {
+                respondAndClose(Response.json(413, "{\"error\":\"request too large\"}"));
+                return HeadOutcome.ANSWERED;
+            }
+
+            // Auth, rate limiting and routing are decided before a single body byte is buffered, so an
+            // unauthenticated client cannot make Burp allocate up to the path's body cap per connection.
+            Response early;
+            try {
+                early = handler.admit(new Request(head.method(), head.path(), head.headers(), EMPTY_BODY));
+            } catch (RuntimeException e) {
+                errorLog.accept("Bridge handler error: " + e);
+                early = Response.json(500, "{\"error\":\"internal error\"}");
+            }
+            if (early != null) {
+                headerBuffer.flip();
+                headerBuffer.position(end + 4);
+                headerBuffer.compact();
+                if (contentLength == 0) {
+                    respond(early);
+                } else {
+                    // The unread body is still on the wire, so the connection cannot be reused.
+                    respondAndClose(early);
+                }
+                return HeadOutcome.ANSWERED;
+            }
+
+            body = pool.acquire(contentLength);
+            // Move bytes already read past the header block into the body; anything beyond stays for the next request.
+            headerBuffer.flip();
+            headerBuffer.position(end + 4);
+            int copy = Math.min(headerBuffer.remaining(), contentLength);
+            body.put(headerBuffer.array(), headerBuffer.position(), copy);
+            headerBuffer.position(headerBuffer.position() + copy);
+            headerBuffer.compact();
+            return HeadOutcome.BODY;
+        }
+
+        private void dispatch() throws IOException {
+            ByteBuffer payload = body;
+            body = null;
+            payload.flip();
+            String encoding = head.headers().getOrDefault("content-encoding", "identity");
+            boolean gzip = "gzip".equalsIgnoreCase(encoding);
+            if (!gzip && !"identity".equalsIgnoreCase(encoding)) {
+                pool.release(payload);
+                respond(Response.json(415, "{\"error\":\"unsupported content-encoding\"}"));
+                return;
+            }
+            Request request = new Request(head.method(), head.path(), head.headers(), payload);
+
+            inFlight = true;
+            key.interestOps(0);
+            try {
+                workers.execute(() -> {
+                    completed.add(work(this, request, gzip));
+                    Selector s = selector;
+                    if (s != null) s.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight = false;
+                key.interestOps(SelectionKey.OP_READ);
+                pool.release(payload);
+                respond(Response.json(503, "{\"error\":\"bridge busy\",\"retryAfterSeconds\":" + BUSY_RETRY_AFTER_SECONDS + "}")
+                    .withHeader("Retry-After", BUSY_RETRY_AFTER_SECONDS));
+            }
+        }
+
+        private void respond(Response response) throws IOException {
+            if (response.stream() != null) {
+                stream = response.stream();
+                stream.connection = this;
+                write(encode(response, true), false);
+                stream.schedule();
+                return;
+            }
+            served++;
+            boolean close = !head.keepAlive() || served >= MAX_REQUESTS_PER_CONNECTION || !running;
+            write(response, close);
+        }
+
+        private void respondAndClose(Response response) throws IOException {
+            write(encode(response, true), true);
+        }
+
+        private void write(Response response, boolean close) throws IOException {
+            write(encode(response, close), close);
+        }
+
+        private void write(byte[] bytes, boolean close) throws IOException {
+            pendingWrite = ByteBuffer.wrap(bytes);
+            closeAfterWrite = close;
+            channel.write(pendingWrite);
+            if (pendingWrite.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            pendingWrite = null;
+            if (close) {
+                close();
+            }
+        }
+
+        void close() {
+            if (stream != null) {
+                stream.closed = true;
+            }
+            if (key != null && key.isValid()) {
+                key.cancel();
+                openConnections--;
+                pool.release(headerBuffer);
+                pool.release(body);
+                headerBuffer = null;
+                body = null;
+            }
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // best-effort close
+            }
+        }
+    }
+
+    // Request worker: decodes the body, runs the handler and returns every buffer it touched to the pool.
+    private Completed work(Connection connection, Request request, boolean gzip) {
+        ByteBuffer payload = request.body();
+        try {
+            if (gzip) {
+                ByteBuffer compressed = payload;
+                try {
+                    payload = gunzip(compressed, maxBodyBytes.applyAsInt(request.path()));
+                } catch (BodyTooLargeException e) {
+                    return new Completed(connection, Response.json(413, "{\"error\":\"request too large\"}"), true);
+                } catch (IOException e) {
+                    return new Completed(connection, Response.json(400, "{\"error\":\"invalid gzip body\"}"), false);
+                } finally {
+                    if (payload != compressed) pool.release(compressed);
+                }
+            }
+            Response response;
+            try {
+                response = handler.handle(new Request(request.method(), request.path(), request.headers(), payload));
+            } catch (RuntimeException e) {
+                errorLog.accept("Bridge handler error: " + e);
+                response = Response.json(500, "{\"error\":\"internal error\"}");
+            }
+            return new Completed(connection, response, false);
+        } finally {
+            pool.release(payload);
+        }
+    }
+
+    private ByteBuffer gunzip(ByteBuffer compressed, int limit) throws IOException {
+        ByteBuffer out = pool.acquire(Math.min(limit, Math.max(BridgeBufferPool.MIN_CLASS_BYTES, compressed.remaining() * 4)));
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(compressed.array(), compressed.arrayOffset() + compressed.position(), compressed.remaining()))) {
+            while (true) {
+                if (!out.hasRemaining()) {
+                    if (out.limit() >= limit) {
+                        if (in.read() < 0) break;
+                        throw new BodyTooLargeException();
+                    }
+                    ByteBuffer bigger = pool.acquire((int) Math.min(limit, out.limit() * 2L));
+                    out.flip();
+                    bigger.put(out);
+                    pool.release(out);
+                    out = bigger;
+                }
+                int n = in.read(out.array(), out.arrayOffset() + out.position(), out.remaining());
+                if (n < 0) break;
+                out.position(out.position() + n);
+            }
+        } catch (IOException e) {
+            pool.release(out);
+            throw e;
+        }
+        out.flip();
+        return out;
+    }
+
+    private static final class BodyTooLargeException extends IOException {
+        BodyTooLargeException() {
+            super("decoded body exceeds limit");
+        }
+    }
+
+    // --- byte-level request head parsing ---
+
+    record Head(String method, String path, boolean keepAlive, Map<String, String> headers) {
+    }
+
+    /** Parses the request line and headers in {@code bytes[0, end)}; returns null for a malformed request line. */
+    static Head parseHead(byte[] bytes, int end) {
+        int lineEnd = indexOfLineEnd(bytes, 0, end);
+        int methodEnd = indexOf(bytes, (byte) ' ', 0, lineEnd);
+        if (methodEnd <= 0) return null;
+        int targetEnd = indexOf(bytes, (byte) ' ', methodEnd + 1, lineEnd);
+        if (targetEnd < 0) targetEnd = lineEnd;
+        int pathEnd = indexOf(bytes, (byte) '?', methodEnd + 1, targetEnd);
+        if (pathEnd < 0) pathEnd = targetEnd;
+        String method = ascii(bytes, 0, methodEnd, false).toUpperCase(Locale.ROOT);
+        String path = ascii(bytes, methodEnd + 1, pathEnd, false);
+        if (path.isEmpty()) return null;
+        boolean http10 = "HTTP/1.0".equals(ascii(bytes, Math.min(targetEnd + 1, lineEnd), lineEnd, false));
+
+        Map<String, String> headers = new HashMap<>();
+        int pos = lineEnd + 2;
+        while (pos < end) {
+            int next = indexOfLineEnd(bytes, pos, end);
+            int colon = indexOf(bytes, (byte) ':', pos, next);
+            if (colon > pos) {
+                headers.put(ascii(bytes, pos, colon, true), ascii(bytes, colon + 1, next, false));
+            }
+            pos = next + 2;
+        }
+        String connection = headers.getOrDefault("connection", "").toLowerCase(Locale.ROOT);
+        boolean keepAlive = http10 ? connection.contains("keep-alive") : !connection.contains("close");
+        return new Head(method, path, keepAlive, headers);
+    }
+
+    private static int indexOfLineEnd(byte[] bytes, int from, int end) {
+        for (int i = from; i + 1 < end; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n') return i;
+        }
+        return end;
+    }
+
+    private static int indexOf(byte[] bytes, byte target, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (bytes[i] == target) return i;
+        }
+        return -1;
+    }
+
+    // Trims spaces/tabs and builds the string directly from header bytes (ISO-8859-1), optionally lower-cased.
+    private static String ascii(byte[] bytes, int from, int to, boolean lowerCase) {
+        while (from < to && (bytes[from] == ' ' || bytes[from] == '\t')) from++;
+        while (to > from && (bytes[to - 1] == ' ' || bytes[to - 1] == '\t')) to--;
+        char[] chars = new char[to - from];
+        for (int i = from; i < to; i++) {
+            char c = (char) (bytes[i] & 0xFF);
+            chars[i - from] = lowerCase && c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        }
+        return new String(chars);
+    }
+
+    static int indexOfHeaderEnd(ByteBuffer buffer) {
+        byte[] bytes = buffer.array();
+        for (int i = 3; i < buffer.position(); i++) {
+            if (bytes[i] == '\n' && bytes[i - 1] == '\r' && bytes[i - 2] == '\n' && bytes[i - 3] == '\r') {
+                return i - 3;
+            }
+        }
+        return -1;
+    }
+
+    static byte[] encode(Response response, boolean close) {
+        StringBuilder head = new StringBuilder(256);
+        head.append("HTTP/1.1 ").append(response.status()).append(' ').append(statusText(response.status())).append("\r\n");
+        head.append("Content-Type: ").append(response.contentType()).append("\r\n");
+        if (response.stream() == null) {
+            head.append("Content-Length: ").append(response.body().length).append("\r\n");
+        }
+        for (Map.Entry<String, String> header : response.headers().entrySet()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        head.append(close ? "Connection: close\r\n" : "Connection: keep-alive\r\n");
+        head.append("\r\n");
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        byte[] out = new byte[headBytes.length + response.body().length];
+        System.arraycopy(headBytes, 0, out, 0, headBytes.length);
+        System.arraycopy(response.body(), 0, out, headBytes.length, response.body().length);
+        return out;
+    }
+
+    static String statusText(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 202 -> "Accepted";
+            case 204 -> "No Content";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 411 -> "Length Required";
+            case 413 -> "Payload Too Large";
+            case 415 -> "Unsupported Media Type";
+            case 429 -> "Too Many Requests";
+            case 431 -> "Request Header Fields Too Large";
+            case 500 -> "Internal Server Error";
+            case 503 -> "Service Unavailable";
+            default -> "Error";
+        };
+    }
+}
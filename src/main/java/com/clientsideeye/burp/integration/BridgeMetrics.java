@@ -0,0 +1,113 @@
+package com.clientsideeye.burp.integration;
+
+import com.clientsideeye.burp.core.AnalyzerMetrics;
+import com.clientsideeye.burp.core.LatencyHistogram;
+import com.clientsideeye.burp.ui.ClientSideEyeTab;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request latencies and batch outcomes recorded by {@link BrowserBridgeServer}, rendered together with the
+ * ingest and analyzer counters for {@code GET /api/metrics}. Unknown paths are folded into {@code other} so a
+ * noisy client cannot grow the label set.
+ */
+final class BridgeMetrics {
+    private static final Set<String> KNOWN_PATHS = Set.of("/api/health", "/api/finding", "/api/findings", "/api/findings/unseen", "/api/snapshot", "/api/dom-delta", "/api/metrics", "/api/stream");
+
+    record RequestKey(String path, int status) {
+    }
+
+    private final Map<RequestKey, LatencyHistogram> requests = new ConcurrentHashMap<>();
+    private final LongAdder batchAccepted = new LongAdder();
+    private final LongAdder batchDuplicate = new LongAdder();
+    private final LongAdder batchRejected = new LongAdder();
+    private final LongAdder handshakeKnown = new LongAdder();
+    private final LongAdder handshakeUnseen = new LongAdder();
+
+    void recordRequest(String path, int status, long nanos) {
+        String label = KNOWN_PATHS.contains(path) ? path : "other";
+        requests.computeIfAbsent(new RequestKey(label, status), k -> new LatencyHistogram()).record(nanos);
+    }
+
+    void recordBatch(int accepted, int duplicates, int rejected) {
+        batchAccepted.add(accepted);
+        batchDuplicate.add(duplicates);
+        batchRejected.add(rejected);
+    }
+
+    void recordHandshake(int known, int unseen) {
+        handshakeKnown.add(known);
+        handshakeUnseen.add(unseen);
+    }
+
+    String render(int openConnections, int streamSubscribers, long streamDropped, ClientSideEyeTab.IngestStats ingest) {
+        PrometheusWriter w = new PrometheusWriter();
+
+        w.family("clientsideeye_bridge_request_duration_seconds", "histogram",
+            "Time spent handling bridge requests, on the selector thread or a request worker, excluding time queued for a worker.");
+        requests.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey(Comparator.comparing(RequestKey::path).thenComparingInt(RequestKey::status)))
+            .forEach(e -> w.histogram("clientsideeye_bridge_request_duration_seconds", e.getValue().snapshot(),
+                "path", e.getKey().path(), "status", Integer.toString(e.getKey().status())));
+
+        w.family("clientsideeye_bridge_open_connections", "gauge", "Open browser bridge connections.");
+        w.sample("clientsideeye_bridge_open_connections", openConnections);
+
+        w.family("clientsideeye_bridge_stream_subscribers", "gauge", "Connected /api/stream subscribers.");
+        w.sample("clientsideeye_bridge_stream_subscribers", streamSubscribers);
+        w.family("clientsideeye_bridge_stream_dropped_total", "counter", "Stream subscribers disconnected for falling behind.");
+        w.sample("clientsideeye_bridge_stream_dropped_total", streamDropped);
+
+        w.family("clientsideeye_bridge_batch_records_total", "counter", "Records received on /api/findings by outcome.");
+        w.sample("clientsideeye_bridge_batch_records_total", batchAccepted.sum(), "result", "accepted");
+        w.sample("clientsideeye_bridge_batch_records_total", batchDuplicate.sum(), "result", "duplicate");
+        w.sample("clientsideeye_bridge_batch_records_total", batchRejected.sum(), "result", "rejected");
+
+        w.family("clientsideeye_bridge_handshake_digests_total", "counter",
+            "Digests checked on /api/findings/unseen by whether Burp already held the finding.");
+        w.sample("clientsideeye_bridge_handshake_digests_total", handshakeKnown.sum(), "result", "known");
+        w.sample("clientsideeye_bridge_handshake_digests_total", handshakeUnseen.sum(), "result", "unseen");
+
+        w.family("clientsideeye_ingest_queue_depth", "gauge", "Finding batches waiting for the ingest thread.");
+        w.sample("clientsideeye_ingest_queue_depth", ingest.queueDepth());
+        w.family("clientsideeye_ingest_queue_capacity", "gauge", "Maximum finding batches the ingest queue holds.");
+        w.sample("clientsideeye_ingest_queue_capacity", ingest.queueCapacity());
+        w.family("clientsideeye_ui_pending_deltas", "gauge", "Table updates handed to the Swing thread but not yet applied.");
+        w.sample("clientsideeye_ui_pending_deltas", ingest.pendingUiDeltas());
+
+        w.family("clientsideeye_store_findings", "gauge", "Findings currently held in the store.");
+        w.sample("clientsideeye_store_findings", ingest.storeSize());
+        w.family("clientsideeye_store_upserts_total", "counter", "Findings merged into the store by outcome.");
+        w.sample("clientsideeye_store_upserts_total", ingest.inserted(), "result", "added");
+        w.sample("clientsideeye_store_upserts_total", ingest.deduplicated(), "result", "deduplicated");
+        long upserts = ingest.inserted() + ingest.deduplicated();
+        w.family("clientsideeye_store_dedupe_hit_ratio", "gauge", "Share of merged findings that matched an existing stable key.");
+        w.sample("clientsideeye_store_dedupe_hit_ratio", upserts == 0 ? 0 : (double) ingest.deduplicated() / upserts);
+
+        w.family("clientsideeye_analyzer_runs_total", "counter", "Analyzer passes over HTTP response bodies.");
+        for (AnalyzerMetrics.Analyzer a : AnalyzerMetrics.Analyzer.values()) {
+            w.sample("clientsideeye_analyzer_runs_total", AnalyzerMetrics.stats(a).runs(), "analyzer", a.label());
+        }
+        w.family("clientsideeye_analyzer_duration_seconds", "histogram", "Time spent in each analyzer pass.");
+        for (AnalyzerMetrics.Analyzer a : AnalyzerMetrics.Analyzer.values()) {
+            w.histogram("clientsideeye_analyzer_duration_seconds", AnalyzerMetrics.stats(a).duration().snapshot(), "analyzer", a.label());
+        }
+        w.family("clientsideeye_analyzer_input_chars_total", "counter", "Response body characters passed to each analyzer.");
+        for (AnalyzerMetrics.Analyzer a : AnalyzerMetrics.Analyzer.values()) {
+            w.sample("clientsideeye_analyzer_input_chars_total", AnalyzerMetrics.stats(a).inputChars(), "analyzer", a.label());
+        }
+        w.family("clientsideeye_analyzer_findings_total", "counter", "Findings reported by each analyzer before deduplication.");
+        for (AnalyzerMetrics.Analyzer a : AnalyzerMetrics.Analyzer.values()) {
+            w.sample("clientsideeye_analyzer_findings_total", AnalyzerMetrics.stats(a).findings(), "analyzer", a.label());
+        }
+        w.family("clientsideeye_analyzer_truncations_total", "counter", "Evidence values each analyzer cut short to fit a finding.");
+        for (AnalyzerMetrics.Analyzer a : AnalyzerMetrics.Analyzer.values()) {
+            w.sample("clientsideeye_analyzer_truncations_total", AnalyzerMetrics.stats(a).truncations(), "analyzer", a.label());
+        }
+        return w.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.clientsideeye.burp.integration;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-origin token buckets for bridge submissions. Each origin may burst up to {@code capacity} requests and
+ * then refills at {@code refillPerSecond}. Used only from the selector thread, so no locking.
+ */
+final class BridgeRateLimiter {
+
+    /** {@code firstRejection} is true for the first rejected request after the origin was last allowed through. */
+    record Decision(boolean allowed, long retryAfterSeconds, boolean firstRejection) {
+    }
+
+    private static final int MAX_TRACKED_ORIGINS = 1024;
+    private static final Decision ALLOWED = new Decision(true, 0, false);
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoClock;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    BridgeRateLimiter(int capacity, int refillPerSecond, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1e9;
+        this.nanoClock = nanoClock;
+    }
+
+    Decision tryAcquire(String origin) {
+        long now = nanoClock.getAsLong();
+        String key = origin == null || origin.isBlank() ? "(no origin)" : origin;
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= MAX_TRACKED_ORIGINS) {
+                evictFullBuckets(now);
+            }
+            bucket = new Bucket(capacity, now);
+            buckets.put(key, bucket);
+        }
+        bucket.refill(now);
+        if (bucket.tokens >= 1) {
+            bucket.tokens -= 1;
+            bucket.limited = false;
+            return ALLOWED;
+        }
+        boolean first = !bucket.limited;
+        bucket.limited = true;
+        long waitNanos = (long) Math.ceil((1 - bucket.tokens) / refillPerNano);
+        return new Decision(false, Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L), first);
+    }
+
+    private void evictFullBuckets(long now) {
+        Iterator<Bucket> it = buckets.values().iterator();
+        while (it.hasNext()) {
+            Bucket bucket = it.next();
+            bucket.refill(now);
+            if (bucket.tokens >= capacity) {
+                it.remove();
+            }
+        }
+        if (buckets.size() >= MAX_TRACKED_ORIGINS) {
+            buckets.clear();
+        }
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long updatedAt;
+        private boolean limited;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.updatedAt = now;
+        }
+
+        void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - updatedAt) * refillPerNano);
+            updatedAt = now;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.clientsideeye.burp.integration;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one browser bridge request, from routing to the response being ready to write. Submissions
+ * are recorded for the part that runs on the request worker.
+ */
+@Name("ClientSideEye.BridgeRequest")
+@Label("ClientSideEye Bridge Request")
+@Category("ClientSideEye")
+@Description("One HTTP request handled by the ClientSideEye browser bridge.")
+@StackTrace(false)
+final class BridgeRequestEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Body Size")
+    @DataAmount
+    long bodyBytes;
+
+    @Label("Origin")
+    String origin;
+}
@@ -0,0 +1,105 @@
+package com.clientsideeye.burp.integration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Remembers which stable key each submitted record resolved to, keyed by a compact digest the browser can
+ * compute without reproducing Burp-side normalization. The digest is the first 8 bytes of SHA-256 over the
+ * raw {@code url}, {@code type}, {@code identity}, {@code title} and {@code evidence} values joined by NUL,
+ * as 16 lowercase hex characters. A digest only counts as seen while its finding is still in the tab, so
+ * cleared or evicted findings are requested again. Bridge request workers share one index, so lookups and
+ * updates lock it; digests are computed outside the lock.
+ */
+final class BridgeSeenIndex {
+    static final int DIGEST_HEX_LENGTH = 16;
+    private static final int MAX_ENTRIES = 16_384;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Map<String, String> stableKeyByDigest = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    void remember(Map<String, String> record, String stableKey) {
+        String digest = digest(record);
+        synchronized (this) {
+            stableKeyByDigest.put(digest, stableKey);
+        }
+    }
+
+    /** Returns the digests, in request order, whose findings the tab does not currently hold. */
+    synchronized List<String> unseen(List<String> digests, Predicate<String> hasFinding) {
+        List<String> unseen = new ArrayList<>();
+        for (String digest : digests) {
+            String stableKey = stableKeyByDigest.get(digest);
+            if (stableKey == null || !hasFinding.test(stableKey)) {
+                unseen.add(digest);
+            }
+        }
+        return unseen;
+    }
+
+    synchronized int size() {
+        return stableKeyByDigest.size();
+    }
+
+    static String digest(Map<String, String> record) {
+        String basis = value(record, "url") + '\0' + value(record, "type") + '\0' + value(record, "identity")
+            + '\0' + value(record, "title") + '\0' + value(record, "evidence");
+        byte[] hash = sha256().digest(basis.getBytes(StandardCharsets.UTF_8));
+        char[] out = new char[DIGEST_HEX_LENGTH];
+        for (int i = 0; i < DIGEST_HEX_LENGTH / 2; i++) {
+            out[i * 2] = HEX[(hash[i] >> 4) & 0xf];
+            out[i * 2 + 1] = HEX[hash[i] & 0xf];
+        }
+        return new String(out);
+    }
+
+    /** Parses a JSON array of digest strings; anything else rejects the whole body. */
+    static List<String> parseDigests(String body) {
+        String text = body == null ? "" : body.strip();
+        if (text.length() < 2 || text.charAt(0) != '[' || text.charAt(text.length() - 1) != ']') {
+            throw new IllegalArgumentException("expected a JSON array");
+        }
+        List<String> digests = new ArrayList<>();
+        String inner = text.substring(1, text.length() - 1).strip();
+        if (inner.isEmpty()) return digests;
+        for (String item : inner.split(",", -1)) {
+            String quoted = item.strip();
+            if (quoted.length() != DIGEST_HEX_LENGTH + 2 || quoted.charAt(0) != '"' || quoted.charAt(quoted.length() - 1) != '"') {
+                throw new IllegalArgumentException("expected " + DIGEST_HEX_LENGTH + "-character digest strings");
+            }
+            String digest = quoted.substring(1, quoted.length() - 1);
+            for (int i = 0; i < digest.length(); i++) {
+                char c = digest.charAt(i);
+                if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                    throw new IllegalArgumentException("digest must be lowercase hex");
+                }
+            }
+            digests.add(digest);
+        }
+        return digests;
+    }
+
+    private static String value(Map<String, String> record, String name) {
+        String value = record.get(name);
+        return value == null ? "" : value;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.clientsideeye.burp.integration;
+
+import com.clientsideeye.burp.core.Finding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Runs rendered DOM snapshots from the browser through the HTML analyzer on a small worker pool of its own,
+ * separate from the bridge request workers. Snapshots are keyed by page URL plus the SHA-256 of the snapshot
+ * bytes; a key that was already analyzed, or is still queued, is not analyzed again. The client sends its own
+ * hash so unchanged snapshots are answered without hashing them first; workers re-hash what actually arrived.
+ * Mutation deltas are batches of changed subtrees and go through the same per-content dedupe, so only
+ * subtrees whose markup actually changed are analyzed. A key is forgotten again when its findings never
+ * reached the store (the sink refused them or analysis failed) and when the user clears all findings, so the
+ * same content is analyzed afresh next time.
+ */
+final class BridgeSnapshotAnalyzer {
+
+    enum Outcome { QUEUED, UNCHANGED, BUSY }
+
+    /** One changed subtree from a MutationObserver batch; {@code nodeId} is the browser's stable id for its root. */
+    record Fragment(String pageUrl, String nodeId, String html) {
+    }
+
+    private static final int MAX_REMEMBERED_SNAPSHOTS = 8192;
+    private static final int MAX_QUEUED_SNAPSHOTS = 8;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final BiFunction<String, String, List<Finding>> analyzer;
+    private final Predicate<List<Finding>> sink;
+    private final Consumer<String> errorLog;
+    private final ThreadPoolExecutor workers;
+    private final Set<String> knownSnapshots = Collections.newSetFromMap(Collections.synchronizedMap(
+        new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > MAX_REMEMBERED_SNAPSHOTS;
+            }
+        }));
+
+    BridgeSnapshotAnalyzer(BiFunction<String, String, List<Finding>> analyzer, Predicate<List<Finding>> sink, Consumer<String> errorLog) {
+        this.analyzer = analyzer;
+        this.sink = sink;
+        this.errorLog = errorLog;
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_SNAPSHOTS), r -> {
+                Thread t = new Thread(r, "ClientSideEye-snapshot-" + threadIds.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.NORM_PRIORITY - 1);
+                return t;
+            });
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues {@code snapshot}, which the caller must not reuse, unless {@code claimedSha256} marks it as
+     * already seen. Never blocks the caller.
+     */
+    Outcome submit(String pageUrl, String claimedSha256, byte[] snapshot) {
+        String claimedKey = claimedSha256 == null ? null : key(pageUrl, claimedSha256);
+        if (claimedKey != null && !knownSnapshots.add(claimedKey)) {
+            return Outcome.UNCHANGED;
+        }
+        try {
+            workers.execute(() -> analyze(pageUrl, claimedKey, snapshot));
+            return Outcome.QUEUED;
+        } catch (RejectedExecutionException e) {
+            if (claimedKey != null) knownSnapshots.remove(claimedKey);
+            return Outcome.BUSY;
+        }
+    }
+
+    /** Queues one delta batch as a single task so a burst of subtrees takes one queue slot. */
+    Outcome submitFragments(List<Fragment> fragments) {
+        if (fragments.isEmpty()) return Outcome.UNCHANGED;
+        try {
+            workers.execute(() -> analyzeFragments(fragments));
+            return Outcome.QUEUED;
+        } catch (RejectedExecutionException e) {
+            return Outcome.BUSY;
+        }
+    }
+
+    /** Drops every remembered key, e.g. after the findings they produced were cleared. */
+    void forgetAll() {
+        knownSnapshots.clear();
+    }
+
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void analyze(String pageUrl, String claimedKey, byte[] snapshot) {
+        String key = key(pageUrl, sha256Hex(snapshot));
+        if (!key.equals(claimedKey) && !knownSnapshots.add(key)) {
+            return;
+        }
+        try {
+            List<Finding> findings = analyzer.apply(pageUrl, new String(snapshot, StandardCharsets.UTF_8));
+            if (findings.isEmpty() || sink.test(findings)) return;
+        } catch (RuntimeException e) {
+            errorLog.accept("DOM snapshot analysis failed for " + pageUrl + ": " + e);
+        }
+        knownSnapshots.remove(key);
+        if (claimedKey != null) knownSnapshots.remove(claimedKey);
+    }
+
+    private void analyzeFragments(List<Fragment> fragments) {
+        List<Finding> findings = new ArrayList<>();
+        List<String> analyzedKeys = new ArrayList<>();
+        for (Fragment fragment : fragments) {
+            String key = key(fragment.pageUrl(), sha256Hex(fragment.html().getBytes(StandardCharsets.UTF_8)));
+            if (!knownSnapshots.add(key)) continue;
+            try {
+                findings.addAll(analyzer.apply(fragment.pageUrl(), fragment.html()));
+                analyzedKeys.add(key);
+            } catch (RuntimeException e) {
+                knownSnapshots.remove(key);
+                errorLog.accept("DOM delta analysis failed for " + fragment.pageUrl() + " node " + fragment.nodeId() + ": " + e);
+            }
+        }
+        if (!findings.isEmpty() && !sink.test(findings)) {
+            analyzedKeys.forEach(knownSnapshots::remove);
+        }
+    }
+
+    private static String key(String pageUrl, String sha256Hex) {
+        return pageUrl + ' ' + sha256Hex;
+    }
+
+    static String sha256Hex(byte[] bytes) {
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+        char[] out = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            out[i * 2] = HEX[(hash[i] >> 4) & 0xf];
+            out[i * 2 + 1] = HEX[hash[i] & 0xf];
+        }
+        return new String(out);
+    }
+}
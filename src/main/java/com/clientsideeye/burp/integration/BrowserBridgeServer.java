@@ -2,270 +2,391 @@ package com.clientsideeye.burp.integration;
 
 import burp.api.montoya.MontoyaApi;
 import com.clientsideeye.burp.core.Finding;
+import com.clientsideeye.burp.core.ResponseAnalyzer;
 import com.clientsideeye.burp.ui.ClientSideEyeTab;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import com.clientsideeye.burp.integration.BridgeHttpServer.Request;
+import com.clientsideeye.burp.integration.BridgeHttpServer.Response;
+
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
-import java.net.InetSocketAddress;
-import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.security.SecureRandom;
 
 public final class BrowserBridgeServer {
     private static final String HOST = "127.0.0.1";
     private static final int PORT = 17373;
     private static final int MAX_PORT_ATTEMPTS = 10;
-    private static final int SOCKET_READ_TIMEOUT_MS = 5000;
     private static final int MAX_FORM_BODY_BYTES = 64 * 1024;
+    // Override with -Dclientsideeye.bridge.maxBatchBytes=<bytes> when launching Burp.
+    static final int MAX_BATCH_BODY_BYTES = Integer.getInteger("clientsideeye.bridge.maxBatchBytes", 4 * 1024 * 1024);
+    // Override with -Dclientsideeye.bridge.maxSnapshotBytes=<bytes>; applies to the decoded snapshot.
+    static final int MAX_SNAPSHOT_BODY_BYTES = Integer.getInteger("clientsideeye.bridge.maxSnapshotBytes", 16 * 1024 * 1024);
     private static final String TOKEN_HEADER = "x-clientsideeye-token";
+    private static final String PAGE_URL_HEADER = "x-clientsideeye-page-url";
+    private static final String SNAPSHOT_HASH_HEADER = "x-clientsideeye-snapshot-sha256";
+    private static final int RATE_LIMIT_BURST = 120;
+    private static final int RATE_LIMIT_PER_SECOND = 60;
+    private static final String INGEST_BUSY_RETRY_AFTER_SECONDS = "1";
+    private static final int STREAM_BUFFER_BYTES = 256 * 1024;
 
     private final MontoyaApi api;
     private final ClientSideEyeTab tab;
-    private final ExecutorService acceptExec;
-    private final ExecutorService clientExec;
     private final String authToken;
+    private final BridgeHttpServer http;
+    private final BridgeMetrics metrics = new BridgeMetrics();
+    private final BridgeSeenIndex seen = new BridgeSeenIndex();
+    private final BridgeEventHub events;
+    private final BridgeSnapshotAnalyzer snapshots;
+    private final BridgeRateLimiter rateLimiter = new BridgeRateLimiter(RATE_LIMIT_BURST, RATE_LIMIT_PER_SECOND, System::nanoTime);
     private volatile boolean running;
-    private ServerSocket serverSocket;
-    private int boundPort = -1;
 
     public BrowserBridgeServer(MontoyaApi api, ClientSideEyeTab tab) {
         this.api = api;
         this.tab = tab;
-        this.acceptExec = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "ClientSideEye-bridge");
-            t.setDaemon(true);
-            return t;
-        });
-        this.clientExec = Executors.newCachedThreadPool(r -> {
-            Thread t = new Thread(r, "ClientSideEye-bridge-client");
-            t.setDaemon(true);
-            return t;
-        });
         this.authToken = generateToken();
+        this.http = new BridgeHttpServer(new BridgeHttpServer.Handler() {
+            @Override
+            public Response admit(Request request) {
+                return observe(request, BrowserBridgeServer.this::route);
+            }
+
+            @Override
+            public Response handle(Request request) {
+                return observe(request, BrowserBridgeServer.this::process);
+            }
+        }, BrowserBridgeServer::maxBodyBytes, message -> api.logging().logToError("[ClientSideEye] " + message));
+        this.events = new BridgeEventHub(tab::isFalsePositive);
+        tab.addIngestListener(events::publish);
+        this.snapshots = new BridgeSnapshotAnalyzer(ResponseAnalyzer::analyzeRenderedHtml, tab::addFindings,
+            message -> api.logging().logToError("[ClientSideEye] " + message));
+        tab.addClearListener(snapshots::forgetAll);
     }
 
     public synchronized void start() {
         if (running) return;
-        IOException last = null;
-        for (int i = 0; i < MAX_PORT_ATTEMPTS; i++) {
-            int candidatePort = PORT + i;
-            try {
-                serverSocket = new ServerSocket();
-                serverSocket.setReuseAddress(true);
-                serverSocket.bind(new InetSocketAddress(HOST, candidatePort), 50);
-                serverSocket.setSoTimeout(1000);
-                boundPort = candidatePort;
-                running = true;
-                acceptExec.submit(this::acceptLoop);
-                api.logging().logToOutput("[ClientSideEye] Browser bridge listening on http://" + HOST + ":" + boundPort + " (/api/health, /api/finding)");
-                api.logging().logToOutput("[ClientSideEye] Browser bridge token: " + authToken);
-                if (boundPort != PORT) {
-                    api.logging().logToOutput("[ClientSideEye] Default port " + PORT + " was busy. Using fallback port " + boundPort + ".");
-                }
-                return;
-            } catch (IOException e) {
-                last = e;
-                try {
-                    if (serverSocket != null) serverSocket.close();
-                } catch (IOException ignored) {}
-                serverSocket = null;
+        try {
+            int boundPort = http.start(HOST, PORT, MAX_PORT_ATTEMPTS, "ClientSideEye-bridge");
+            running = true;
+            api.logging().logToOutput("[ClientSideEye] Browser bridge listening on http://" + HOST + ":" + boundPort + " (/api/health, /api/finding, /api/findings, /api/findings/unseen, /api/snapshot, /api/dom-delta, /api/metrics, /api/stream)");
+            api.logging().logToOutput("[ClientSideEye] Browser bridge token: " + authToken);
+            if (boundPort != PORT) {
+                api.logging().logToOutput("[ClientSideEye] Default port " + PORT + " was busy. Using fallback port " + boundPort + ".");
             }
+        } catch (IOException e) {
+            api.logging().logToError("[ClientSideEye] Browser bridge failed to start after " + MAX_PORT_ATTEMPTS + " port attempts from " + PORT + ": " + e);
         }
-        api.logging().logToError("[ClientSideEye] Browser bridge failed to start after " + MAX_PORT_ATTEMPTS + " port attempts from " + PORT + ": " + last);
     }
 
     public synchronized void stop() {
         running = false;
-        try {
-            if (serverSocket != null) {
-                serverSocket.close();
-            }
-        } catch (IOException ignored) {
-            // best-effort close
-        } finally {
-            serverSocket = null;
-        }
-        acceptExec.shutdownNow();
-        clientExec.shutdownNow();
+        events.closeAll();
+        http.stop();
+        snapshots.shutdown();
     }
 
-    private void acceptLoop() {
-        while (running) {
-            try {
-                Socket s = serverSocket.accept();
-                s.setSoTimeout(SOCKET_READ_TIMEOUT_MS);
-                clientExec.submit(() -> handleClient(s));
-            } catch (SocketTimeoutException ignored) {
-                // periodic loop check
-            } catch (Exception e) {
-                if (running) {
-                    api.logging().logToError("[ClientSideEye] Bridge accept error: " + e);
-                }
-            }
+    // Times one phase of a request; a null phase result means the request moves on to a worker and is
+    // recorded there.
+    private Response observe(Request request, Function<Request, Response> phase) {
+        BridgeRequestEvent event = new BridgeRequestEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Response routed = phase.apply(request);
+        if (routed == null) {
+            return null;
+        }
+        String origin = request.header("origin");
+        Response response = withCors(routed, origin);
+        metrics.recordRequest(request.path(), response.status(), System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = request.method();
+            event.path = request.path();
+            event.status = response.status();
+            event.bodyBytes = Math.max(request.bodyLength(), request.declaredLength());
+            event.origin = origin;
+            event.commit();
         }
+        return response;
     }
 
-    private void handleClient(Socket socket) {
-        try (socket;
-             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
-             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+    // Selector thread: everything decided from the request head. Returns null for an admitted submission,
+    // whose body is then read, decoded and processed on a request worker.
+    private Response route(Request request) {
+        String method = request.method();
+        String path = request.path();
+        if ("OPTIONS".equals(method)) {
+            return Response.empty(204);
+        }
 
-            String requestLine = in.readLine();
-            if (requestLine == null || requestLine.isBlank()) {
-                writeResponse(out, 400, "application/json; charset=utf-8", "{\"error\":\"bad request\"}", null);
-                return;
+        if ("/api/health".equals(path)) {
+            if (!"GET".equals(method)) {
+                return Response.json(405, "{\"error\":\"method not allowed\"}");
             }
+            // "batch" tells the extension it may coalesce uploads into POST /api/findings.
+            return Response.json(200, "{\"status\":\"ok\",\"authRequired\":true,\"batch\":true}");
+        }
 
-            String[] reqParts = requestLine.split(" ");
-            if (reqParts.length < 2) {
-                writeResponse(out, 400, "application/json; charset=utf-8", "{\"error\":\"bad request\"}", null);
-                return;
+        if ("/api/metrics".equals(path)) {
+            if (!"GET".equals(method)) {
+                return Response.json(405, "{\"error\":\"method not allowed\"}");
             }
-            String method = reqParts[0].trim().toUpperCase(Locale.ROOT);
-            String rawPath = reqParts[1].trim();
-            String path = rawPath;
-            int qIdx = rawPath.indexOf('?');
-            if (qIdx >= 0) {
-                path = rawPath.substring(0, qIdx);
+            if (validateRequest(authToken, readEndpointToken(request), 0, 0) != 200) {
+                return Response.json(401, "{\"error\":\"unauthorized\"}");
             }
+            return Response.text(200, PrometheusWriter.CONTENT_TYPE,
+                metrics.render(http.openConnections(), events.subscriberCount(), events.droppedTotal(), tab.ingestStats()));
+        }
 
-            int contentLength = 0;
-            String origin = null;
-            Map<String, String> headers = new HashMap<>();
-            String line;
-            while ((line = in.readLine()) != null && !line.isEmpty()) {
-                String lower = line.toLowerCase(Locale.ROOT);
-                int colon = line.indexOf(':');
-                if (colon > 0) {
-                    String headerName = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
-                    String headerValue = line.substring(colon + 1).trim();
-                    headers.put(headerName, headerValue);
-                    if ("origin".equals(headerName)) {
-                        origin = headerValue;
-                    }
-                }
-                if (lower.startsWith("content-length:")) {
-                    try {
-                        contentLength = Integer.parseInt(line.substring("content-length:".length()).trim());
-                    } catch (Exception ignored) {
-                        contentLength = 0;
-                    }
-                }
+        if ("/api/stream".equals(path)) {
+            if (!"GET".equals(method)) {
+                return Response.json(405, "{\"error\":\"method not allowed\"}");
             }
-
-            if (contentLength > MAX_FORM_BODY_BYTES) {
-                writeResponse(out, 413, "application/json; charset=utf-8", "{\"error\":\"request too large\"}", origin);
-                return;
+            if (validateRequest(authToken, readEndpointToken(request), 0, 0) != 200) {
+                return Response.json(401, "{\"error\":\"unauthorized\"}");
             }
-
-            String body = "";
-            if (contentLength > 0) {
-                char[] buf = new char[contentLength];
-                int read = 0;
-                while (read < contentLength) {
-                    int n = in.read(buf, read, contentLength - read);
-                    if (n < 0) break;
-                    read += n;
-                }
-                body = new String(buf, 0, read);
+            BridgeHttpServer.EventStream stream = http.newEventStream(STREAM_BUFFER_BYTES);
+            if (!events.subscribe(stream)) {
+                return Response.json(503, "{\"error\":\"too many stream subscribers\"}");
             }
+            return Response.eventStream(stream);
+        }
 
-            if ("OPTIONS".equals(method)) {
-                writeResponse(out, 204, "text/plain; charset=utf-8", "", origin);
-                return;
+        if ("/api/finding".equals(path) || "/api/findings".equals(path) || "/api/findings/unseen".equals(path)
+                || "/api/snapshot".equals(path) || "/api/dom-delta".equals(path)) {
+            if (!"POST".equals(method)) {
+                return Response.json(405, "{\"error\":\"method not allowed\"}");
             }
-
-            if ("/api/health".equals(path)) {
-                if (!"GET".equals(method)) {
-                    writeResponse(out, 405, "application/json; charset=utf-8", "{\"error\":\"method not allowed\"}", origin);
-                    return;
-                }
-                writeResponse(out, 200, "application/json; charset=utf-8", "{\"status\":\"ok\",\"authRequired\":true}", origin);
-                return;
+            String providedToken = safe(request.header(TOKEN_HEADER));
+            int validationStatus = validateRequest(authToken, providedToken, request.declaredLength(), maxBodyBytes(path));
+            if (validationStatus != 200) {
+                String bodyText = validationStatus == 401 ? "{\"error\":\"unauthorized\"}" : "{\"error\":\"request too large\"}";
+                return Response.json(validationStatus, bodyText);
             }
-
-            if ("/api/finding".equals(path)) {
-                if (!"POST".equals(method)) {
-                    writeResponse(out, 405, "application/json; charset=utf-8", "{\"error\":\"method not allowed\"}", origin);
-                    return;
+            // Only authenticated requests draw on an origin's budget, so unauthenticated noise cannot
+            // exhaust it for the real extension.
+            String origin = request.header("origin");
+            BridgeRateLimiter.Decision decision = rateLimiter.tryAcquire(origin);
+            if (!decision.allowed()) {
+                if (decision.firstRejection()) {
+                    api.logging().logToOutput("[ClientSideEye] Bridge rate-limiting " + (origin == null ? "requests without an Origin" : origin)
+                        + "; retry after " + decision.retryAfterSeconds() + "s");
                 }
-                String providedToken = safe(headers.get(TOKEN_HEADER));
-                int validationStatus = validateFindingRequest(authToken, providedToken, contentLength);
-                if (validationStatus != 200) {
-                    String bodyText = validationStatus == 401 ? "{\"error\":\"unauthorized\"}" : "{\"error\":\"request too large\"}";
-                    writeResponse(out, validationStatus, "application/json; charset=utf-8", bodyText, origin);
-                    return;
-                }
-                handleFindingPost(out, body, origin);
-                return;
+                return rateLimited(decision.retryAfterSeconds());
             }
-
-            writeResponse(out, 404, "application/json; charset=utf-8", "{\"error\":\"not found\"}", origin);
-        } catch (Exception e) {
-            api.logging().logToError("[ClientSideEye] Bridge client error: " + e);
+            return null;
         }
+
+        return Response.json(404, "{\"error\":\"not found\"}");
     }
 
-    private void handleFindingPost(BufferedWriter out, String body, String origin) throws IOException {
-        Map<String, String> form = parseFormEncoded(body);
+    // Request worker: parses and processes a submission that route() admitted.
+    private Response process(Request request) {
+        return switch (request.path()) {
+            case "/api/finding" -> handleFindingPost(request.body());
+            case "/api/findings" -> handleFindingsBatchPost(request.bodyText());
+            case "/api/snapshot" -> handleSnapshotPost(request);
+            case "/api/dom-delta" -> handleDomDeltaPost(request.bodyText());
+            default -> handleUnseenPost(request.bodyText());
+        };
+    }
+
+    private Response handleFindingPost(ByteBuffer body) {
+        Map<String, String> form = BridgeFormDecoder.decode(body);
         Finding finding;
         try {
             finding = BrowserBridgeFindingFactory.fromForm(form);
         } catch (IllegalArgumentException e) {
-            writeResponse(out, 400, "application/json; charset=utf-8", "{\"error\":\"" + e.getMessage() + "\"}", origin);
-            return;
+            return Response.json(400, "{\"error\":\"" + e.getMessage() + "\"}");
+        }
+        seen.remember(form, finding.stableKey());
+
+        if (!tab.offerFindings(List.of(finding))) {
+            return ingestBusy();
+        }
+        return Response.json(200, "{\"accepted\":1}");
+    }
+
+    private Response handleFindingsBatchPost(String body) {
+        BridgeBatchParser.Batch batch;
+        try {
+            batch = BridgeBatchParser.parse(body);
+        } catch (IllegalArgumentException e) {
+            return Response.json(400, "{\"error\":\"malformed batch\"}");
         }
 
-        List<Finding> findings = new ArrayList<>();
-        findings.add(finding);
-        tab.addFindings(findings);
+        BatchResult result = collectBatch(batch, tab::hasFinding, seen);
+        if (!tab.offerFindings(result.accepted())) {
+            return ingestBusy();
+        }
+        metrics.recordBatch(result.accepted().size(), result.duplicates(), result.rejected());
+        api.logging().logToOutput("[ClientSideEye] Bridge batch from " + result.source() + " | accepted=" + result.accepted().size()
+            + " duplicate=" + result.duplicates() + " rejected=" + result.rejected());
+        return Response.json(200, result.toJson());
+    }
 
-        String source = BrowserBridgeFindingFactory.defaultIfBlank(form.get("source"), "browser-extension");
-        api.logging().logToOutput("[ClientSideEye] Bridge accepted finding from " + source + " | " + finding.type() + " | " + finding.severity() + " (" + finding.confidence() + ") | " + finding.url());
-        writeResponse(out, 200, "application/json; charset=utf-8", "{\"accepted\":1}", origin);
+    // Scrapers and SSE clients often can only send Authorization, so a bearer token is accepted here as well.
+    static String readEndpointToken(Request request) {
+        String token = request.header(TOKEN_HEADER);
+        if (token != null) return token;
+        String authorization = request.header("authorization");
+        if (authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return authorization.substring(7).trim();
+        }
+        return null;
     }
 
-    private static void writeResponse(BufferedWriter out, int status, String contentType, String body, String origin) throws IOException {
-        String statusText = switch (status) {
-            case 200 -> "OK";
-            case 204 -> "No Content";
-            case 401 -> "Unauthorized";
-            case 413 -> "Payload Too Large";
-            case 400 -> "Bad Request";
-            case 404 -> "Not Found";
-            case 405 -> "Method Not Allowed";
-            default -> "Error";
+    // The snapshot is copied out of the pooled body and analyzed on a worker; findings arrive via the ingest queue.
+    private Response handleSnapshotPost(Request request) {
+        String pageUrl = safe(request.header(PAGE_URL_HEADER)).trim();
+        if (pageUrl.isEmpty()) {
+            return Response.json(400, "{\"error\":\"page url header is required\"}");
+        }
+        BridgeSnapshotAnalyzer.Outcome outcome = snapshots.submit(pageUrl, snapshotHash(request), request.bodyBytes());
+        return switch (outcome) {
+            case QUEUED -> Response.json(202, "{\"status\":\"queued\"}");
+            case UNCHANGED -> Response.json(200, "{\"status\":\"unchanged\"}");
+            case BUSY -> ingestBusy();
         };
-        byte[] bodyBytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
-        out.write("HTTP/1.1 " + status + " " + statusText + "\r\n");
-        out.write("Content-Type: " + contentType + "\r\n");
-        out.write("Content-Length: " + bodyBytes.length + "\r\n");
-        if (isAllowedExtensionOrigin(origin)) {
-            out.write("Access-Control-Allow-Origin: " + origin + "\r\n");
-            out.write("Vary: Origin\r\n");
-            out.write("Access-Control-Allow-Methods: GET,POST,OPTIONS\r\n");
-            out.write("Access-Control-Allow-Headers: Content-Type, X-ClientSideEye-Token\r\n");
+    }
+
+    private Response handleDomDeltaPost(String body) {
+        BridgeBatchParser.Batch batch;
+        try {
+            batch = BridgeBatchParser.parse(body);
+        } catch (IllegalArgumentException e) {
+            return Response.json(400, "{\"error\":\"malformed delta\"}");
+        }
+        DeltaBatch delta = collectDelta(batch);
+        if (snapshots.submitFragments(delta.fragments()) == BridgeSnapshotAnalyzer.Outcome.BUSY) {
+            return ingestBusy();
+        }
+        return Response.json(202, "{\"accepted\":" + delta.fragments().size() + ",\"rejected\":" + delta.rejected() + "}");
+    }
+
+    record DeltaBatch(List<BridgeSnapshotAnalyzer.Fragment> fragments, int rejected) {
+    }
+
+    // Records need a page URL and markup; the node id is optional and only used for diagnostics.
+    static DeltaBatch collectDelta(BridgeBatchParser.Batch batch) {
+        List<BridgeSnapshotAnalyzer.Fragment> fragments = new ArrayList<>();
+        int rejected = batch.malformed();
+        for (Map<String, String> record : batch.records()) {
+            String pageUrl = safe(record.get("pageUrl")).trim();
+            String html = safe(record.get("html"));
+            if (pageUrl.isEmpty() || html.isBlank()) {
+                rejected++;
+                continue;
+            }
+            fragments.add(new BridgeSnapshotAnalyzer.Fragment(pageUrl, safe(record.get("nodeId")), html));
         }
-        out.write("Connection: close\r\n");
-        out.write("\r\n");
-        if (bodyBytes.length > 0) {
-            out.write(new String(bodyBytes, StandardCharsets.UTF_8));
+        return new DeltaBatch(fragments, rejected);
+    }
+
+    // Only a well-formed SHA-256 is trusted for the fast unchanged check; workers verify it either way.
+    static String snapshotHash(Request request) {
+        String hash = request.header(SNAPSHOT_HASH_HEADER);
+        if (hash == null) return null;
+        hash = hash.trim();
+        if (hash.length() != 64) return null;
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return null;
         }
-        out.flush();
+        return hash;
+    }
+
+    // Handshake before a batch upload: the browser posts record digests and uploads only the ones returned.
+    private Response handleUnseenPost(String body) {
+        List<String> digests;
+        try {
+            digests = BridgeSeenIndex.parseDigests(body);
+        } catch (IllegalArgumentException e) {
+            return Response.json(400, "{\"error\":\"malformed digest list\"}");
+        }
+        List<String> unseen = seen.unseen(digests, tab::hasFinding);
+        metrics.recordHandshake(digests.size() - unseen.size(), unseen.size());
+        return Response.json(200, unseenJson(unseen, digests.size() - unseen.size()));
+    }
+
+    static String unseenJson(List<String> unseen, int known) {
+        StringBuilder json = new StringBuilder(32 + unseen.size() * (BridgeSeenIndex.DIGEST_HEX_LENGTH + 3));
+        json.append("{\"unseen\":[");
+        for (int i = 0; i < unseen.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append('"').append(unseen.get(i)).append('"');
+        }
+        return json.append("],\"known\":").append(known).append('}').toString();
+    }
+
+    static Response rateLimited(long retryAfterSeconds) {
+        return Response.json(429, "{\"error\":\"rate limited\",\"retryAfterSeconds\":" + retryAfterSeconds + "}")
+            .withHeader("Retry-After", Long.toString(retryAfterSeconds));
+    }
+
+    // The ingest queue is full because the UI has fallen behind; nothing from this request was kept.
+    static Response ingestBusy() {
+        return Response.json(503, "{\"error\":\"ingest busy\",\"retryAfterSeconds\":" + INGEST_BUSY_RETRY_AFTER_SECONDS + "}")
+            .withHeader("Retry-After", INGEST_BUSY_RETRY_AFTER_SECONDS);
+    }
+
+    record BatchResult(List<Finding> accepted, int duplicates, int rejected, String source) {
+        String toJson() {
+            return "{\"accepted\":" + accepted.size() + ",\"duplicate\":" + duplicates + ",\"rejected\":" + rejected + "}";
+        }
+    }
+
+    // Findings already in the store or repeated within the batch count as duplicates and are not re-ingested.
+    // Every valid record is remembered in the seen index so later handshakes can skip it.
+    static BatchResult collectBatch(BridgeBatchParser.Batch batch, Predicate<String> alreadyKnown, BridgeSeenIndex seen) {
+        Map<String, Finding> accepted = new LinkedHashMap<>();
+        int duplicates = 0;
+        int rejected = batch.malformed();
+        String source = "browser-extension";
+        for (Map<String, String> record : batch.records()) {
+            Finding finding;
+            try {
+                finding = BrowserBridgeFindingFactory.fromForm(record);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                continue;
+            }
+            String key = finding.stableKey();
+            seen.remember(record, key);
+            if (accepted.containsKey(key) || alreadyKnown.test(key)) {
+                duplicates++;
+                continue;
+            }
+            accepted.put(key, finding);
+            source = BrowserBridgeFindingFactory.defaultIfBlank(record.get("source"), source);
+        }
+        return new BatchResult(new ArrayList<>(accepted.values()), duplicates, rejected, source);
+    }
+
+    private static int maxBodyBytes(String path) {
+        return switch (path) {
+            case "/api/findings", "/api/findings/unseen", "/api/dom-delta" -> MAX_BATCH_BODY_BYTES;
+            case "/api/snapshot" -> MAX_SNAPSHOT_BODY_BYTES;
+            default -> MAX_FORM_BODY_BYTES;
+        };
+    }
+
+    private static Response withCors(Response response, String origin) {
+        if (isAllowedExtensionOrigin(origin)) {
+            response.withHeader("Access-Control-Allow-Origin", origin)
+                .withHeader("Vary", "Origin")
+                .withHeader("Access-Control-Allow-Methods", "GET,POST,OPTIONS")
+                .withHeader("Access-Control-Allow-Headers", "Content-Type, Content-Encoding, X-ClientSideEye-Token, X-ClientSideEye-Page-Url, X-ClientSideEye-Snapshot-Sha256")
+                .withHeader("Access-Control-Expose-Headers", "Retry-After");
+        }
+        return response;
     }
 
     private static boolean isAllowedExtensionOrigin(String origin) {
@@ -276,29 +397,17 @@ public final class BrowserBridgeServer {
     }
 
     static int validateFindingRequest(String expectedToken, String providedToken, int contentLength) {
-        if (contentLength > MAX_FORM_BODY_BYTES) return 413;
+        return validateRequest(expectedToken, providedToken, contentLength, MAX_FORM_BODY_BYTES);
+    }
+
+    static int validateRequest(String expectedToken, String providedToken, int contentLength, int maxBodyBytes) {
+        if (contentLength > maxBodyBytes) return 413;
         if (!safe(expectedToken).equals(safe(providedToken))) return 401;
         return 200;
     }
 
     static Map<String, String> parseFormEncodedForTest(String body) {
-        return parseFormEncoded(body);
-    }
-
-    private static Map<String, String> parseFormEncoded(String body) {
-        Map<String, String> out = new HashMap<>();
-        if (body == null || body.isBlank()) return out;
-        String[] parts = body.split("&");
-        for (String p : parts) {
-            if (p == null || p.isBlank()) continue;
-            int idx = p.indexOf('=');
-            String k = idx >= 0 ? p.substring(0, idx) : p;
-            String v = idx >= 0 ? p.substring(idx + 1) : "";
-            k = URLDecoder.decode(k, StandardCharsets.UTF_8);
-            v = URLDecoder.decode(v, StandardCharsets.UTF_8);
-            out.put(k, v);
-        }
-        return out;
+        return BridgeFormDecoder.decode(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)));
     }
 
     private static String safe(String s) {
@@ -312,7 +421,7 @@ public final class BrowserBridgeServer {
     }
 
     public int boundPort() {
-        return boundPort;
+        return http.boundPort();
     }
 
     public String authToken() {
@@ -0,0 +1,84 @@
+package com.clientsideeye.burp.integration;
+
+import com.clientsideeye.burp.core.LatencyHistogram;
+
+import java.math.BigDecimal;
+
+/**
+ * Minimal writer for the Prometheus text exposition format (version 0.0.4). Callers emit one
+ * {@link #family} header followed by its samples; label values are escaped here.
+ */
+final class PrometheusWriter {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    PrometheusWriter family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    /** {@code labels} alternates names and values. */
+    PrometheusWriter sample(String name, double value, String... labels) {
+        out.append(name);
+        appendLabels(labels, null);
+        out.append(' ').append(number(value)).append('\n');
+        return this;
+    }
+
+    PrometheusWriter histogram(String name, LatencyHistogram.Snapshot snapshot, String... labels) {
+        long[] cumulative = snapshot.cumulativeCounts();
+        for (int i = 0; i < cumulative.length; i++) {
+            out.append(name).append("_bucket");
+            appendLabels(labels, number(LatencyHistogram.BOUNDS_SECONDS[i]));
+            out.append(' ').append(cumulative[i]).append('\n');
+        }
+        out.append(name).append("_bucket");
+        appendLabels(labels, "+Inf");
+        out.append(' ').append(snapshot.count()).append('\n');
+        sample(name + "_sum", snapshot.sumSeconds(), labels);
+        sample(name + "_count", snapshot.count(), labels);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private void appendLabels(String[] labels, String le) {
+        if (labels.length == 0 && le == null) return;
+        out.append('{');
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (i > 0) out.append(',');
+            out.append(labels[i]).append("=\"");
+            escape(labels[i + 1]);
+            out.append('"');
+        }
+        if (le != null) {
+            if (labels.length > 0) out.append(',');
+            out.append("le=\"").append(le).append('"');
+        }
+        out.append('}');
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    static String number(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+}
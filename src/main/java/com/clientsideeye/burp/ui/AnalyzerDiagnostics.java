@@ -0,0 +1,59 @@
+package com.clientsideeye.burp.ui;
+
+import com.clientsideeye.burp.core.AnalyzerMetrics;
+import com.clientsideeye.burp.core.AnalyzerMetrics.Analyzer;
+import com.clientsideeye.burp.core.AnalyzerMetrics.Totals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+final class AnalyzerDiagnostics {
+    private AnalyzerDiagnostics() {
+    }
+
+    // Analyzers see decoded response text, so input is counted in millions of UTF-16 chars, not bytes.
+    record Row(String analyzer, long runs, double inputMchars, long findings, long truncations,
+               double totalSeconds, double meanMs, double p50Ms, double p99Ms, double mcharsPerSecond) {
+    }
+
+    static List<Row> currentRows() {
+        List<Row> rows = new ArrayList<>();
+        for (Analyzer analyzer : Analyzer.values()) {
+            AnalyzerMetrics.Stats stats = AnalyzerMetrics.stats(analyzer);
+            rows.add(row(analyzer, stats.totals(), stats.duration().percentileNanos(50), stats.duration().percentileNanos(99)));
+        }
+        return rows;
+    }
+
+    static Row row(Analyzer analyzer, Totals totals, long p50Nanos, long p99Nanos) {
+        double seconds = totals.durationNanos() / 1e9;
+        double inputMchars = totals.inputChars() / 1e6;
+        return new Row(
+            analyzer.label(),
+            totals.runs(),
+            inputMchars,
+            totals.findings(),
+            totals.truncations(),
+            seconds,
+            totals.runs() == 0 ? 0 : totals.durationNanos() / 1e6 / totals.runs(),
+            p50Nanos / 1e6,
+            p99Nanos / 1e6,
+            seconds == 0 ? 0 : inputMchars / seconds
+        );
+    }
+
+    // One clause per analyzer that ran, for the Site Map completion log line.
+    static String summarize(Map<Analyzer, Totals> activity) {
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<Analyzer, Totals> entry : activity.entrySet()) {
+            Totals totals = entry.getValue();
+            if (totals.runs() <= 0) continue;
+            parts.add(String.format(Locale.ROOT, "%s %d runs, %.2f M chars in, %d findings, %d truncated, %.2f s",
+                entry.getKey().label(), totals.runs(), totals.inputChars() / 1e6, totals.findings(),
+                totals.truncations(), totals.durationNanos() / 1e9));
+        }
+        return parts.isEmpty() ? "none ran" : String.join("; ", parts);
+    }
+}
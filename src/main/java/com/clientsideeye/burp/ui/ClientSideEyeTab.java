@@ -4,14 +4,17 @@ import burp.api.montoya.MontoyaApi;
 import burp.api.montoya.http.message.HttpRequestResponse;
 
 import com.clientsideeye.burp.core.Finding;
-import com.clientsideeye.burp.core.FindingType;
-import com.clientsideeye.burp.core.JsonExporter;
+import com.clientsideeye.burp.core.FindingIngestQueue;
+import com.clientsideeye.burp.core.FindingLog;
+import com.clientsideeye.burp.core.FindingStore;
+import com.clientsideeye.burp.core.ReportFormat;
 
 import javax.swing.AbstractButton;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JFileChooser;
 import javax.swing.JLabel;
@@ -23,6 +26,7 @@ import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
 import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
@@ -34,7 +38,6 @@ import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
-import javax.swing.table.TableRowSorter;
 import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.Font;
@@ -42,15 +45,21 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.io.File;
-import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.clientsideeye.burp.core.Finding.Severity;
@@ -63,14 +72,38 @@ public class ClientSideEyeTab extends JPanel {
     private static final int MAX_FINDINGS = 5000;
     private static final int SITE_MAP_SCAN_WARN_THRESHOLD = 1000;
     private static final int SITE_MAP_SCAN_HARD_CAP = 2000;
-
-    // Dedupe by stable key -> Finding (LinkedHashMap preserves insertion order)
-    private final LinkedHashMap<String, Finding> findingsByKey = new LinkedHashMap<>();
-    private final Set<String> falsePositiveKeys = new HashSet<>();
+    private static final int INGEST_QUEUE_CAPACITY = 4096;
+    private static final int INGEST_MAX_BATCHES_PER_FLUSH = INGEST_QUEUE_CAPACITY;
+    private static final long INGEST_FLUSH_INTERVAL_MS = 100;
+    // While this many deltas are still waiting for the EDT, the ingest thread stops draining so the
+    // bounded queue fills and bridge submissions are pushed back instead of piling up behind the UI.
+    private static final int MAX_PENDING_UI_DELTAS = 4;
+    // Producers blocked on a full ingest queue wake when the ingest thread drains it, re-check their
+    // abandon condition at least this often, and give up after the timeout.
+    private static final long INGEST_WAIT_SLICE_MS = 100;
+    private static final long INGEST_OFFER_TIMEOUT_MS = 10_000;
+    private static final long PERSIST_FLUSH_INTERVAL_MS = 2000;
+    private static final int RESTORE_CHUNK_SIZE = 250;
+
+    // Producers (context menu, site map runner, bridge connections) enqueue without locking;
+    // the single ingest thread dedupes into the store and hands the UI one delta per flush.
+    private final FindingStore store = new FindingStore(MAX_FINDINGS);
+    private final FindingIngestQueue ingestQueue = new FindingIngestQueue(INGEST_QUEUE_CAPACITY);
+    private final ScheduledExecutorService ingestExec;
+    private final AtomicInteger pendingUiDeltas = new AtomicInteger();
+    private final ReentrantLock ingestSpaceLock = new ReentrantLock();
+    private final Condition ingestSpaceAvailable = ingestSpaceLock.newCondition();
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+    private final List<Consumer<List<Finding>>> ingestListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> clearListeners = new CopyOnWriteArrayList<>();
+    // Append-only project log; nothing is written until the persisted state has been replayed.
+    private final FindingLog findingLog;
+    private volatile boolean findingLogReady;
+    private volatile boolean restoreCancelled;
 
     private final FindingsTableModel tableModel = new FindingsTableModel(this::isFalsePositive, this::findingArea);
     private final JTable table = new JTable();
-    private final TableRowSorter<FindingsTableModel> sorter = new TableRowSorter<>(tableModel);
+    private final FindingsRowSorter sorter = new FindingsRowSorter(tableModel);
 
     private final JTextArea detailArea = new JTextArea();
     private final JTextField filterHost = new JTextField();
@@ -80,6 +113,8 @@ public class ClientSideEyeTab extends JPanel {
     private final JToggleButton showTokenButton = new JToggleButton("Show");
     private final JSpinner scanLimitSpinner = new JSpinner(new SpinnerNumberModel(SITE_MAP_SCAN_HARD_CAP, 100, 10000, 100));
     private final JCheckBox exportVisibleOnly = new JCheckBox("Export visible rows only", true);
+    private final JComboBox<ReportFormat> exportFormat = new JComboBox<>(ReportFormat.values());
+    private final JCheckBox exportGzip = new JCheckBox("Compress export (gzip)", false);
 
     private final FindingTypeFilterMenu typeFilterMenu = new FindingTypeFilterMenu();
 
@@ -90,26 +125,118 @@ public class ClientSideEyeTab extends JPanel {
     private final JPopupMenu severityMenu = new JPopupMenu();
     private final JButton severityMenuButton = new JButton("Severity…");
     private final JCheckBox filterFalsePositive = new JCheckBox("Show false positives", true);
+    private final DiagnosticsPanel diagnosticsPanel = new DiagnosticsPanel(this::ingestStats);
+    private final SiteMapScanProgressPanel siteMapProgressPanel = new SiteMapScanProgressPanel();
+    private volatile SiteMapScanProgress activeSiteMapScan;
 
     public ClientSideEyeTab(MontoyaApi api, ExecutorService bg) {
         super(new BorderLayout(10, 10));
         this.api = api;
         this.bg = bg;
+        this.ingestExec = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ClientSideEye-ingest");
+            t.setDaemon(true);
+            return t;
+        });
+        this.findingLog = new FindingLog(new ProjectFindingStorage(api.persistence().extensionData()));
 
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         JButton analyzeSiteMapButton = new JButton("Analyze Site Map (Quick)");
-        JButton exportButton = new JButton("Export JSON…");
+        JButton exportButton = new JButton("Export…");
         JButton viewButton = new JButton("View in Browser…");
         JButton clearButton = new JButton("Clear Findings");
         JButton copyTokenButton = new JButton("Copy Bridge Token");
 
         configureMenus();
         configureTable();
-        add(buildControlsPanel(analyzeSiteMapButton, exportButton, viewButton, clearButton, copyTokenButton), BorderLayout.NORTH);
-        add(buildContentSplitPane(), BorderLayout.CENTER);
+        JPanel findingsPanel = new JPanel(new BorderLayout(10, 10));
+        findingsPanel.add(buildControlsPanel(analyzeSiteMapButton, exportButton, viewButton, clearButton, copyTokenButton), BorderLayout.NORTH);
+        findingsPanel.add(buildContentSplitPane(), BorderLayout.CENTER);
+        findingsPanel.add(siteMapProgressPanel, BorderLayout.SOUTH);
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Findings", findingsPanel);
+        tabs.addTab("Diagnostics", diagnosticsPanel);
+        tabs.addChangeListener(e -> {
+            if (tabs.getSelectedComponent() == diagnosticsPanel) diagnosticsPanel.refresh();
+        });
+        add(tabs, BorderLayout.CENTER);
         bindListeners(analyzeSiteMapButton, exportButton, viewButton, clearButton, copyTokenButton);
         refreshTable();
+        ingestExec.scheduleWithFixedDelay(this::flushIngestQueue, INGEST_FLUSH_INTERVAL_MS, INGEST_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        ingestExec.scheduleWithFixedDelay(this::flushFindingLog, PERSIST_FLUSH_INTERVAL_MS, PERSIST_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        SiteMapScanProgress scan = activeSiteMapScan;
+        if (scan != null) scan.requestCancel();
+        SwingUtilities.invokeLater(() -> {
+            diagnosticsPanel.stop();
+            siteMapProgressPanel.stop();
+        });
+        ingestExec.execute(() -> {
+            drainIngestQueue();
+            flushFindingLog();
+        });
+        ingestExec.shutdown();
+        try {
+            if (!ingestExec.awaitTermination(2, TimeUnit.SECONDS)) {
+                ingestExec.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ingestExec.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Replays the project log on a background thread so extension load stays fast;
+    // restored findings reach the table in chunks as they are handed to the ingest thread.
+    public void loadPersistedFindings() {
+        Thread loader = new Thread(this::restorePersistedFindings, "ClientSideEye-restore");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void restorePersistedFindings() {
+        try {
+            FindingLog.Snapshot snapshot = findingLog.load();
+            ingestExec.execute(() -> {
+                if (!restoreCancelled) store.markFalsePositives(snapshot.falsePositiveKeys());
+            });
+            List<Finding> findings = snapshot.findings();
+            for (int from = 0; from < findings.size(); from += RESTORE_CHUNK_SIZE) {
+                List<Finding> chunk = findings.subList(from, Math.min(findings.size(), from + RESTORE_CHUNK_SIZE));
+                ingestExec.execute(() -> publishRestored(chunk));
+            }
+            ingestExec.execute(() -> {
+                findingLogReady = true;
+                if (!findings.isEmpty()) {
+                    api.logging().logToOutput("[ClientSideEye] Restored " + findings.size() + " findings and " + snapshot.falsePositiveKeys().size() + " false-positive marks from the project.");
+                }
+            });
+        } catch (Exception e) {
+            findingLogReady = true;
+            api.logging().logToError("[ClientSideEye] Restore from project failed: " + e);
+        }
+    }
+
+    // Runs on the ingest thread only.
+    private void publishRestored(List<Finding> chunk) {
+        if (restoreCancelled) return;
+        FindingStore.Delta delta = store.addAbsent(chunk);
+        if (!delta.isEmpty()) {
+            publishDelta(delta);
+        }
+    }
+
+    // Runs on the ingest thread only.
+    private void flushFindingLog() {
+        if (!findingLogReady) return;
+        try {
+            findingLog.flush(store);
+        } catch (Exception e) {
+            api.logging().logToError("[ClientSideEye] Persisting findings failed: " + e);
+        }
     }
 
     private void configureMenus() {
@@ -190,8 +317,11 @@ public class ClientSideEyeTab extends JPanel {
     }
 
     private void addControlRowThree(JPanel controls, GridBagConstraints c) {
-        addControl(controls, c, 0, 2, 0, 3, exportVisibleOnly);
-        addControl(controls, c, 3, 2, 1, 10, new JLabel("Host filter also scopes Site Map scans when set."));
+        addControl(controls, c, 0, 2, 0, 2, exportVisibleOnly);
+        addControl(controls, c, 2, 2, 0, 1, new JLabel("Format:"));
+        addControl(controls, c, 3, 2, 0, 1, exportFormat);
+        addControl(controls, c, 4, 2, 0, 1, exportGzip);
+        addControl(controls, c, 5, 2, 1, 8, new JLabel("Host filter also scopes Site Map scans when set."));
     }
 
     private void addControl(
@@ -224,14 +354,15 @@ public class ClientSideEyeTab extends JPanel {
         table.setModel(tableModel);
         table.setRowSorter(sorter);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        table.setDefaultRenderer(Object.class, new SeverityRowRenderer(tableModel));
-        sorter.setComparator(0, (a, b) -> severityRank((String) a) - severityRank((String) b));
-        sorter.setComparator(1, Comparator.comparingInt(o -> Integer.parseInt(String.valueOf(o))));
+        SeverityRowRenderer renderer = new SeverityRowRenderer(tableModel);
+        table.setDefaultRenderer(Object.class, renderer);
+        table.setDefaultRenderer(Integer.class, renderer);
         sorter.setSortKeys(defaultSortKeys());
     }
 
+    // Severity ties already fall back to confidence in the sorter, so one key gives severity then confidence.
     private List<SortKey> defaultSortKeys() {
-        return List.of(new SortKey(0, SortOrder.DESCENDING), new SortKey(1, SortOrder.DESCENDING));
+        return List.of(new SortKey(FindingsTableModel.SEVERITY_COLUMN, SortOrder.DESCENDING));
     }
 
     private void bindListeners(
@@ -242,7 +373,7 @@ public class ClientSideEyeTab extends JPanel {
         JButton copyTokenButton
     ) {
         clearButton.addActionListener(e -> clearFindings());
-        exportButton.addActionListener(e -> exportJson());
+        exportButton.addActionListener(e -> exportReport());
         viewButton.addActionListener(e -> showViewInBrowserDialog());
         analyzeSiteMapButton.addActionListener(e -> bg.submit(this::analyzeSiteMapInScope));
         copyTokenButton.addActionListener(e -> copyBridgeToken());
@@ -292,23 +423,199 @@ public class ClientSideEyeTab extends JPanel {
         showFindingContextMenu(e.getComponent(), e.getX(), e.getY());
     }
 
-    // Called by extension (context menu / site map analysis)
-    public void addFindings(List<Finding> findings) {
-        if (findings == null || findings.isEmpty()) return;
+    /** Point-in-time ingest pipeline counters for the bridge metrics endpoint. */
+    public record IngestStats(int storeSize, int queueDepth, int queueCapacity, int pendingUiDeltas,
+                              long inserted, long deduplicated) {
+    }
+
+    /** Safe from any thread; each value is read independently, so the set is only approximately consistent. */
+    public IngestStats ingestStats() {
+        return new IngestStats(store.size(), ingestQueue.size(), ingestQueue.capacity(), pendingUiDeltas.get(),
+            store.insertedTotal(), store.deduplicatedTotal());
+    }
+
+    /** True when a finding with this stable key has already been ingested; safe from any thread. */
+    public boolean hasFinding(String stableKey) {
+        return store.contains(stableKey);
+    }
+
+    public boolean isFalsePositive(String stableKey) {
+        return store.isFalsePositive(stableKey);
+    }
+
+    // Called by extension (context menu / site map analysis) and the browser bridge, from any thread.
+    // Returns false when the batch was dropped because the ingest queue stayed full.
+    public boolean addFindings(List<Finding> findings) {
+        return enqueueFindings(findings, () -> false);
+    }
+
+    /**
+     * Blocks while the ingest queue is full until the ingest thread drains it, for at most
+     * {@link #INGEST_OFFER_TIMEOUT_MS}. Returns false, dropping the batch, on timeout, on shutdown or as soon as
+     * {@code abandon} turns true (checked at least every {@link #INGEST_WAIT_SLICE_MS}).
+     */
+    boolean enqueueFindings(List<Finding> findings, BooleanSupplier abandon) {
+        if (findings == null || findings.isEmpty()) return true;
+
+        List<Finding> batch = List.copyOf(findings);
+        if (ingestQueue.offer(batch)) return true;
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(INGEST_OFFER_TIMEOUT_MS);
+        ingestSpaceLock.lock();
+        waitingProducers.incrementAndGet();
+        try {
+            while (!ingestQueue.offer(batch)) {
+                long remaining = deadline - System.nanoTime();
+                if (ingestExec.isShutdown() || abandon.getAsBoolean()) return false;
+                if (remaining <= 0) {
+                    api.logging().logToError("[ClientSideEye] Ingest queue stayed full for " + INGEST_OFFER_TIMEOUT_MS
+                        + " ms; dropped " + batch.size() + " findings.");
+                    return false;
+                }
+                ingestSpaceAvailable.awaitNanos(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(INGEST_WAIT_SLICE_MS)));
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waitingProducers.decrementAndGet();
+            ingestSpaceLock.unlock();
+        }
+    }
+
+    // Runs on the ingest thread after a drain freed slots.
+    private void signalIngestSpace() {
+        if (waitingProducers.get() == 0) return;
+        ingestSpaceLock.lock();
+        try {
+            ingestSpaceAvailable.signalAll();
+        } finally {
+            ingestSpaceLock.unlock();
+        }
+    }
+
+    /** Non-blocking variant for the bridge: returns false when the ingest queue is full so the caller can push back. */
+    public boolean offerFindings(List<Finding> findings) {
+        if (findings == null || findings.isEmpty()) return true;
+        return !ingestExec.isShutdown() && ingestQueue.offer(List.copyOf(findings));
+    }
 
+    /**
+     * Registers a callback for findings newly added to the store from any live source (not project restore).
+     * It runs on the ingest thread, so it must return quickly and never block.
+     */
+    public void addIngestListener(Consumer<List<Finding>> listener) {
+        ingestListeners.add(listener);
+    }
+
+    /**
+     * Registers a callback run after the user clears all findings, so caches keyed on findings already being
+     * stored can be dropped. It runs on the ingest thread, so it must return quickly and never block.
+     */
+    public void addClearListener(Runnable listener) {
+        clearListeners.add(listener);
+    }
+
+    // Runs on the ingest thread only.
+    private void flushIngestQueue() {
+        if (pendingUiDeltas.get() >= MAX_PENDING_UI_DELTAS) return;
+        drainIngestQueue();
+    }
+
+    private void drainIngestQueue() {
+        try {
+            List<List<Finding>> batches = new ArrayList<>();
+            ingestQueue.drainTo(batches::add, INGEST_MAX_BATCHES_PER_FLUSH);
+            if (batches.isEmpty()) return;
+            signalIngestSpace();
+
+            FindingStore.Delta delta = store.upsertAll(batches);
+            findingLog.appendFindings(delta.added());
+            findingLog.appendFindings(delta.updated());
+            if (!delta.isEmpty()) {
+                publishDelta(delta);
+            }
+            if (!delta.added().isEmpty()) {
+                notifyIngestListeners(delta.added());
+            }
+        } catch (Exception e) {
+            api.logging().logToError("[ClientSideEye] Ingest error: " + e);
+        }
+    }
+
+    private void notifyIngestListeners(List<Finding> added) {
+        for (Consumer<List<Finding>> listener : ingestListeners) {
+            try {
+                listener.accept(added);
+            } catch (RuntimeException e) {
+                api.logging().logToError("[ClientSideEye] Ingest listener error: " + e);
+            }
+        }
+    }
+
+    private void publishDelta(FindingStore.Delta delta) {
+        pendingUiDeltas.incrementAndGet();
         SwingUtilities.invokeLater(() -> {
-            for (Finding f : findings) {
-                findingsByKey.put(f.stableKey(), f);
+            try {
+                applyDelta(delta);
+            } finally {
+                pendingUiDeltas.decrementAndGet();
             }
+        });
+    }
 
-            // cap
-            while (findingsByKey.size() > MAX_FINDINGS) {
-                String firstKey = findingsByKey.keySet().iterator().next();
-                findingsByKey.remove(firstKey);
+    private void applyDelta(FindingStore.Delta delta) {
+        TableRefreshEvent event = new TableRefreshEvent();
+        event.begin();
+        FindingFilterState filters = currentFilters();
+        Map<Integer, Finding> replaced = new HashMap<>();
+        List<Finding> appended = new ArrayList<>();
+        boolean needsRefresh = false;
+
+        for (Finding f : delta.updated()) {
+            boolean visible = filters.matches(f, isFalsePositive(f), findingArea(f));
+            int row = tableModel.rowOf(f.stableKey());
+            if (row >= 0 && visible) {
+                replaced.put(row, f);
+            } else if (row >= 0 || visible) {
+                // hidden by the update, or an older filtered finding that belongs mid-table
+                needsRefresh = true;
+            }
+        }
+        for (Finding f : delta.added()) {
+            if (filters.matches(f, isFalsePositive(f), findingArea(f))) {
+                appended.add(f);
             }
+        }
 
+        // evicted keys are the oldest, so visible ones should form a prefix of the table
+        int evictedVisible = 0;
+        for (String key : delta.evictedKeys()) {
+            int row = tableModel.rowOf(key);
+            if (row >= 0) {
+                needsRefresh |= row != evictedVisible;
+                evictedVisible++;
+            }
+        }
+
+        if (needsRefresh) {
             refreshTable();
-        });
+            return;
+        }
+        tableModel.replaceRows(replaced);
+        tableModel.removeFirstRows(evictedVisible);
+        tableModel.appendRows(appended);
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "delta";
+            event.storeRows = store.size();
+            event.visibleRows = tableModel.getRowCount();
+            event.appendedRows = appended.size();
+            event.replacedRows = replaced.size();
+            event.removedRows = evictedVisible;
+            event.commit();
+        }
     }
 
     private void analyzeSiteMapInScope() {
@@ -330,18 +637,52 @@ public class ClientSideEyeTab extends JPanel {
             }
 
             int scanLimit = ((Number) scanLimitSpinner.getValue()).intValue();
-            SiteMapScanSummary summary = SiteMapScanRunner.scan(items, this::scanHostMatches, scanLimit, this::addFindings);
+            SiteMapScanProgress progress = new SiteMapScanProgress(Math.min(inScopeCount, scanLimit), System::nanoTime);
+            activeSiteMapScan = progress;
+            SwingUtilities.invokeLater(() -> siteMapProgressPanel.start(progress));
+            SiteMapScanSummary summary = null;
+            try {
+                summary = SiteMapScanRunner.scan(items, this::scanHostMatches, scanLimit,
+                    findings -> enqueueFindings(findings, progress::cancelled), progress);
+            } finally {
+                activeSiteMapScan = null;
+                SiteMapScanSummary finished = summary;
+                SwingUtilities.invokeLater(() -> siteMapProgressPanel.finish(finished));
+            }
 
-            api.logging().logToOutput("[ClientSideEye] Site Map analyze complete. Pages analyzed: " + summary.analyzed() + " | Findings added: " + summary.added() + " | Skipped (non-analyzable): " + summary.skippedNonAnalyzable() + " | Skipped (scan cap): " + summary.skippedByCap() + " | Host scope: " + currentScanHostScope());
+            String outcome = summary.cancelled()
+                ? "cancelled after " + summary.eligibleSeen() + " of " + inScopeCount + " eligible items"
+                : "complete";
+            api.logging().logToOutput("[ClientSideEye] Site Map analyze " + outcome + ". Pages analyzed: " + summary.analyzed() + " | Findings added: " + summary.added() + " | Skipped (non-analyzable): " + summary.skippedNonAnalyzable() + " | Skipped (scan cap): " + summary.skippedByCap() + " | Host scope: " + currentScanHostScope() + " | Analyzers: " + AnalyzerDiagnostics.summarize(summary.analyzerActivity()));
         } catch (Exception e) {
             api.logging().logToError("[ClientSideEye] Site Map analyze error: " + e);
         }
     }
 
     private void clearFindings() {
-        findingsByKey.clear();
-        falsePositiveKeys.clear();
-        refreshTable();
+        // Clear on the ingest thread so it is ordered after any delta already handed to the UI
+        // and also drops batches that were offered before the clear.
+        ingestExec.execute(() -> {
+            ingestQueue.drainTo(batch -> { }, INGEST_QUEUE_CAPACITY);
+            signalIngestSpace();
+            store.clear();
+            for (Runnable listener : clearListeners) {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    api.logging().logToError("[ClientSideEye] Clear listener error: " + e);
+                }
+            }
+            restoreCancelled = true;
+            findingLogReady = true;
+            try {
+                findingLog.reset();
+            } catch (Exception e) {
+                api.logging().logToError("[ClientSideEye] Clearing persisted findings failed: " + e);
+            }
+            SwingUtilities.invokeLater(this::refreshTable);
+        });
+        tableModel.setRows(List.of());
         detailArea.setText("");
     }
 
@@ -382,11 +723,24 @@ public class ClientSideEyeTab extends JPanel {
     }
 
     private void refreshTable() {
+        TableRefreshEvent event = new TableRefreshEvent();
+        event.begin();
         FindingFilterState filters = currentFilters();
-        List<Finding> filtered = new ArrayList<>(findingsByKey.values()).stream()
+        List<Finding> all = store.snapshot();
+        List<Finding> filtered = all.stream()
             .filter(finding -> filters.matches(finding, isFalsePositive(finding), findingArea(finding)))
             .collect(Collectors.toList());
+        int previousRows = tableModel.getRowCount();
         tableModel.setRows(filtered);
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "full";
+            event.storeRows = all.size();
+            event.visibleRows = filtered.size();
+            event.removedRows = previousRows;
+            event.appendedRows = filtered.size();
+            event.commit();
+        }
     }
 
     private void toggleFalsePositiveForSelection() {
@@ -397,13 +751,13 @@ public class ClientSideEyeTab extends JPanel {
         }
 
         String key = f.stableKey();
-        if (falsePositiveKeys.contains(key)) {
-            falsePositiveKeys.remove(key);
+        findingLog.appendFalsePositive(key, store.toggleFalsePositive(key));
+
+        if (filterFalsePositive.isSelected()) {
+            tableModel.rowChanged(key);
         } else {
-            falsePositiveKeys.add(key);
+            refreshTable();
         }
-
-        refreshTable();
         detailArea.setText(FindingDetailRenderer.render(f, isFalsePositive(f), findingArea(f)));
         detailArea.setCaretPosition(0);
     }
@@ -425,25 +779,25 @@ public class ClientSideEyeTab extends JPanel {
     }
 
 
-    private void exportJson() {
-        try {
-            JFileChooser chooser = new JFileChooser();
-            chooser.setDialogTitle("Export ClientSideEye JSON Report");
-            chooser.setSelectedFile(new File("clientsideeye_report.json"));
-            int res = chooser.showSaveDialog(api.userInterface().swingUtils().suiteFrame());
-            if (res != JFileChooser.APPROVE_OPTION) return;
-
-            File out = chooser.getSelectedFile();
-            List<Finding> toExport = exportVisibleOnly.isSelected()
-                    ? tableModel.rowsSnapshot()
-                    : new ArrayList<>(findingsByKey.values());
-            String json = JsonExporter.toJson(toExport, falsePositiveKeys);
-            Files.writeString(out.toPath(), json);
-
-            api.logging().logToOutput("[ClientSideEye] Exported: " + out.getAbsolutePath());
-        } catch (Exception e) {
-            api.logging().logToError("[ClientSideEye] Export failed: " + e);
+    private void exportReport() {
+        ReportFormat format = (ReportFormat) exportFormat.getSelectedItem();
+        boolean gzip = exportGzip.isSelected();
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export ClientSideEye " + format + " Report");
+        chooser.setSelectedFile(new File("clientsideeye_report" + format.extension() + (gzip ? ".gz" : "")));
+        int res = chooser.showSaveDialog(api.userInterface().swingUtils().suiteFrame());
+        if (res != JFileChooser.APPROVE_OPTION) return;
+
+        File out = chooser.getSelectedFile();
+        if (gzip && !out.getName().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+            out = new File(out.getPath() + ".gz");
         }
+        // Snapshot on the EDT; serialization and disk I/O run on the worker.
+        List<Finding> toExport = exportVisibleOnly.isSelected()
+                ? tableModel.rowsSnapshot()
+                : store.snapshot();
+        new ReportExportWorker(api, out, format, toExport, store.falsePositiveKeys(), gzip)
+            .start(api.userInterface().swingUtils().suiteFrame());
     }
 
     private void showViewInBrowserDialog() {
@@ -461,17 +815,6 @@ public class ClientSideEyeTab extends JPanel {
         ClipboardHelper.copy(s);
     }
 
-    private static int severityRank(String s) {
-        if (s == null) return 0;
-        return switch (s) {
-            case "HIGH" -> 4;
-            case "MEDIUM" -> 3;
-            case "LOW" -> 2;
-            case "INFO" -> 1;
-            default -> 0;
-        };
-    }
-
     private boolean confirmLargeSiteMapScan(int inScopeCount) {
         int scanLimit = ((Number) scanLimitSpinner.getValue()).intValue();
         final int[] decision = new int[]{JOptionPane.CLOSED_OPTION};
@@ -534,7 +877,7 @@ public class ClientSideEyeTab extends JPanel {
     }
 
     private boolean isFalsePositive(Finding f) {
-        return f != null && falsePositiveKeys.contains(f.stableKey());
+        return f != null && store.isFalsePositive(f.stableKey());
     }
 
 
@@ -0,0 +1,115 @@
+package com.clientsideeye.burp.ui;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.awt.BorderLayout;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Live per-analyzer counters (runs, input size, findings, truncations, time and latency percentiles) and the
+ * ingest pipeline state. Refreshes once a second, and only while it is on screen.
+ */
+final class DiagnosticsPanel extends JPanel {
+    private static final int REFRESH_INTERVAL_MS = 1000;
+
+    private final Supplier<ClientSideEyeTab.IngestStats> ingestStats;
+    private final AnalyzerTableModel model = new AnalyzerTableModel();
+    private final JLabel ingestLabel = new JLabel(" ");
+    private final Timer timer = new Timer(REFRESH_INTERVAL_MS, e -> refreshIfShowing());
+
+    DiagnosticsPanel(Supplier<ClientSideEyeTab.IngestStats> ingestStats) {
+        super(new BorderLayout(10, 10));
+        this.ingestStats = ingestStats;
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JTable table = new JTable(model);
+        table.setAutoCreateRowSorter(true);
+        add(new JLabel("Analyzer activity since Burp loaded the extension (all sources: context menu, Site Map, bridge)."), BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(ingestLabel, BorderLayout.SOUTH);
+        timer.start();
+    }
+
+    void stop() {
+        timer.stop();
+    }
+
+    private void refreshIfShowing() {
+        if (!isShowing()) return;
+        refresh();
+    }
+
+    void refresh() {
+        model.setRows(AnalyzerDiagnostics.currentRows());
+        ClientSideEyeTab.IngestStats stats = ingestStats.get();
+        ingestLabel.setText(String.format(Locale.ROOT,
+            "Store: %d findings | Ingest queue: %d/%d | Pending table updates: %d | Inserted: %d | Deduplicated: %d",
+            stats.storeSize(), stats.queueDepth(), stats.queueCapacity(), stats.pendingUiDeltas(),
+            stats.inserted(), stats.deduplicated()));
+    }
+
+    private static final class AnalyzerTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {
+            "Analyzer", "Runs", "Input (M chars)", "Findings", "Truncated", "Total (s)", "Mean (ms)", "p50 (ms)", "p99 (ms)", "M chars/s"
+        };
+
+        private List<AnalyzerDiagnostics.Row> rows = List.of();
+
+        void setRows(List<AnalyzerDiagnostics.Row> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return switch (column) {
+                case 0 -> String.class;
+                case 1, 3, 4 -> Long.class;
+                default -> Double.class;
+            };
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int column) {
+            AnalyzerDiagnostics.Row row = rows.get(rowIndex);
+            return switch (column) {
+                case 0 -> row.analyzer();
+                case 1 -> row.runs();
+                case 2 -> round(row.inputMchars());
+                case 3 -> row.findings();
+                case 4 -> row.truncations();
+                case 5 -> round(row.totalSeconds());
+                case 6 -> round(row.meanMs());
+                case 7 -> round(row.p50Ms());
+                case 8 -> round(row.p99Ms());
+                default -> round(row.mcharsPerSecond());
+            };
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.clientsideeye.burp.ui;
+
+/**
+ * Model row indices kept in ascending order for one sort key.
+ * Appends, updates and deletes are merged into the existing order instead of re-sorting every row.
+ */
+final class FindingSortIndex {
+    @FunctionalInterface
+    interface RowComparator {
+        int compare(int leftRow, int rightRow);
+    }
+
+    private final RowComparator comparator;
+    private int[] order = new int[0];
+    private int[] spare = new int[0];
+    private int size;
+
+    FindingSortIndex(RowComparator comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int modelRowAt(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Invalid sort position: " + position);
+        }
+        return order[position];
+    }
+
+    void rebuild(int rowCount) {
+        order = new int[Math.max(rowCount, 16)];
+        for (int i = 0; i < rowCount; i++) {
+            order[i] = i;
+        }
+        size = rowCount;
+        sort(order, 0, size, new int[size]);
+    }
+
+    void rowsInserted(int firstRow, int lastRow) {
+        int inserted = lastRow - firstRow + 1;
+        if (inserted <= 0) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (order[i] >= firstRow) {
+                order[i] += inserted;
+            }
+        }
+        int[] added = new int[inserted];
+        for (int i = 0; i < inserted; i++) {
+            added[i] = firstRow + i;
+        }
+        mergeIn(added);
+    }
+
+    void rowsDeleted(int firstRow, int lastRow) {
+        int deleted = lastRow - firstRow + 1;
+        if (deleted <= 0) {
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            if (row < firstRow) {
+                order[kept++] = row;
+            } else if (row > lastRow) {
+                order[kept++] = row - deleted;
+            }
+        }
+        size = kept;
+    }
+
+    void rowsUpdated(int firstRow, int lastRow) {
+        int updated = lastRow - firstRow + 1;
+        if (updated <= 0) {
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            if (row < firstRow || row > lastRow) {
+                order[kept++] = row;
+            }
+        }
+        size = kept;
+        int[] changed = new int[updated];
+        for (int i = 0; i < updated; i++) {
+            changed[i] = firstRow + i;
+        }
+        mergeIn(changed);
+    }
+
+    private void mergeIn(int[] rows) {
+        sort(rows, 0, rows.length, new int[rows.length]);
+        int total = size + rows.length;
+        if (spare.length < total) {
+            spare = new int[Math.max(total, order.length * 2)];
+        }
+        int[] merged = spare;
+        int left = 0;
+        int right = 0;
+        int out = 0;
+        while (left < size && right < rows.length) {
+            merged[out++] = comparator.compare(order[left], rows[right]) <= 0 ? order[left++] : rows[right++];
+        }
+        while (left < size) {
+            merged[out++] = order[left++];
+        }
+        while (right < rows.length) {
+            merged[out++] = rows[right++];
+        }
+        spare = order;
+        order = merged;
+        size = total;
+    }
+
+    // Stable merge sort over primitive row indices; avoids boxing every row into an Integer.
+    private void sort(int[] rows, int from, int to, int[] scratch) {
+        if (to - from < 2) {
+            return;
+        }
+        if (to - from <= 16) {
+            insertionSort(rows, from, to);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(rows, from, mid, scratch);
+        sort(rows, mid, to, scratch);
+        if (comparator.compare(rows[mid - 1], rows[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(rows, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int out = from; out < to; out++) {
+            if (right >= to || (left < mid && comparator.compare(scratch[left], scratch[right]) <= 0)) {
+                rows[out] = scratch[left++];
+            } else {
+                rows[out] = scratch[right++];
+            }
+        }
+    }
+
+    private void insertionSort(int[] rows, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.clientsideeye.burp.ui;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import java.util.List;
+
+/**
+ * Row sorter backed by one {@link FindingSortIndex} per sorted column.
+ * Indexes are built the first time a column is sorted and then kept current as rows are
+ * inserted, updated or deleted, so a new batch of findings never re-sorts the whole table.
+ * Only one sort key is applied and reported; ties always fall back to severity, then confidence.
+ */
+final class FindingsRowSorter extends RowSorter<FindingsTableModel> {
+    private final FindingsTableModel model;
+    private final FindingSortIndex[] indexes;
+    private List<SortKey> sortKeys = List.of();
+    private int[] modelToView;
+    // Row count as of the last model notification; JTable converts indexes before it notifies the sorter.
+    private int rowCount;
+
+    FindingsRowSorter(FindingsTableModel model) {
+        this.model = model;
+        this.indexes = new FindingSortIndex[model.getColumnCount()];
+        this.rowCount = model.getRowCount();
+    }
+
+    @Override
+    public FindingsTableModel getModel() {
+        return model;
+    }
+
+    @Override
+    public void toggleSortOrder(int column) {
+        checkColumn(column);
+        SortOrder order = SortOrder.ASCENDING;
+        if (!sortKeys.isEmpty() && sortKeys.get(0).getColumn() == column) {
+            order = sortKeys.get(0).getSortOrder() == SortOrder.ASCENDING ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+        }
+        setSortKeys(List.of(new SortKey(column, order)));
+    }
+
+    // Keys after the first are dropped: each index orders by one column, so they could not be honoured.
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> next = keys == null || keys.isEmpty() ? List.of() : List.of(keys.get(0));
+        for (SortKey key : next) {
+            checkColumn(key.getColumn());
+        }
+        if (next.equals(sortKeys)) {
+            return;
+        }
+        int[] previousViewToModel = viewToModelSnapshot();
+        sortKeys = next;
+        modelToView = null;
+        fireSortOrderChanged();
+        fireRowSorterChanged(previousViewToModel);
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (index < 0 || index >= rowCount) {
+            throw new IndexOutOfBoundsException("Invalid view index: " + index);
+        }
+        FindingSortIndex primary = primaryIndex();
+        if (primary == null) {
+            return index;
+        }
+        return descending() ? primary.modelRowAt(rowCount - 1 - index) : primary.modelRowAt(index);
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (index < 0 || index >= rowCount) {
+            throw new IndexOutOfBoundsException("Invalid model index: " + index);
+        }
+        if (primaryIndex() == null) {
+            return index;
+        }
+        if (modelToView == null || modelToView.length != rowCount) {
+            int[] inverse = new int[rowCount];
+            for (int view = 0; view < rowCount; view++) {
+                inverse[convertRowIndexToModel(view)] = view;
+            }
+            modelToView = inverse;
+        }
+        return modelToView[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        allRowsChanged();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        rowCount = model.getRowCount();
+        for (FindingSortIndex index : indexes) {
+            if (index != null) {
+                index.rebuild(rowCount);
+            }
+        }
+        rowsChanged();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        rowCount += endRow - firstRow + 1;
+        for (FindingSortIndex index : indexes) {
+            if (index != null) {
+                index.rowsInserted(firstRow, endRow);
+            }
+        }
+        rowsChanged();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        rowCount -= endRow - firstRow + 1;
+        for (FindingSortIndex index : indexes) {
+            if (index != null) {
+                index.rowsDeleted(firstRow, endRow);
+            }
+        }
+        rowsChanged();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        for (FindingSortIndex index : indexes) {
+            if (index != null) {
+                index.rowsUpdated(firstRow, endRow);
+            }
+        }
+        rowsChanged();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        rowsUpdated(firstRow, endRow);
+    }
+
+    private void rowsChanged() {
+        modelToView = null;
+        if (primaryIndex() != null) {
+            fireRowSorterChanged(null);
+        }
+    }
+
+    private FindingSortIndex primaryIndex() {
+        if (sortKeys.isEmpty() || sortKeys.get(0).getSortOrder() == SortOrder.UNSORTED) {
+            return null;
+        }
+        int column = sortKeys.get(0).getColumn();
+        if (indexes[column] == null) {
+            FindingSortIndex index = new FindingSortIndex((left, right) -> compareRows(column, left, right));
+            index.rebuild(rowCount);
+            indexes[column] = index;
+        }
+        return indexes[column];
+    }
+
+    private boolean descending() {
+        return sortKeys.get(0).getSortOrder() == SortOrder.DESCENDING;
+    }
+
+    // Ties fall back to severity, then confidence, then model order so every index is a total order.
+    private int compareRows(int column, int left, int right) {
+        int result = model.compareRows(column, left, right);
+        if (result == 0 && column != FindingsTableModel.SEVERITY_COLUMN) {
+            result = model.compareRows(FindingsTableModel.SEVERITY_COLUMN, left, right);
+        }
+        if (result == 0 && column != FindingsTableModel.CONFIDENCE_COLUMN) {
+            result = model.compareRows(FindingsTableModel.CONFIDENCE_COLUMN, left, right);
+        }
+        return result != 0 ? result : Integer.compare(left, right);
+    }
+
+    private int[] viewToModelSnapshot() {
+        if (primaryIndex() == null) {
+            return null;
+        }
+        int[] snapshot = new int[rowCount];
+        for (int view = 0; view < rowCount; view++) {
+            snapshot[view] = convertRowIndexToModel(view);
+        }
+        return snapshot;
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= indexes.length) {
+            throw new IndexOutOfBoundsException("Invalid sort column: " + column);
+        }
+    }
+}
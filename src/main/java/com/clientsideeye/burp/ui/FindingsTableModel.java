@@ -1,21 +1,32 @@
 package com.clientsideeye.burp.ui;
 
 import com.clientsideeye.burp.core.Finding;
+import com.clientsideeye.burp.core.Finding.Severity;
 
 import javax.swing.table.AbstractTableModel;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 final class FindingsTableModel extends AbstractTableModel {
+    static final int SEVERITY_COLUMN = 0;
+    static final int CONFIDENCE_COLUMN = 1;
+    static final int FALSE_POSITIVE_COLUMN = 2;
+
     private static final String[] COLUMNS = {
         "Severity", "Confidence", "FP", "Type", "Area", "Host", "Title", "URL"
     };
 
     private final Predicate<Finding> falsePositiveChecker;
     private final Function<Finding, String> areaResolver;
-    private List<Finding> rows = List.of();
+    private final ArrayList<Finding> rows = new ArrayList<>();
+    // stableKey -> absolute append sequence; the model row is sequence - removedPrefix
+    private final Map<String, Long> sequenceByKey = new HashMap<>();
+    private long appendedCount;
+    private long removedPrefix;
 
     FindingsTableModel(Predicate<Finding> falsePositiveChecker, Function<Finding, String> areaResolver) {
         this.falsePositiveChecker = falsePositiveChecker;
@@ -23,10 +34,72 @@ final class FindingsTableModel extends AbstractTableModel {
     }
 
     void setRows(List<Finding> rows) {
-        this.rows = rows == null ? List.of() : List.copyOf(rows);
+        this.rows.clear();
+        sequenceByKey.clear();
+        appendedCount = 0;
+        removedPrefix = 0;
+        if (rows != null) {
+            this.rows.ensureCapacity(rows.size());
+            for (Finding finding : rows) {
+                this.rows.add(finding);
+                sequenceByKey.put(finding.stableKey(), appendedCount++);
+            }
+        }
         fireTableDataChanged();
     }
 
+    void appendRows(List<Finding> findings) {
+        if (findings == null || findings.isEmpty()) {
+            return;
+        }
+        int firstRow = rows.size();
+        for (Finding finding : findings) {
+            rows.add(finding);
+            sequenceByKey.put(finding.stableKey(), appendedCount++);
+        }
+        fireTableRowsInserted(firstRow, rows.size() - 1);
+    }
+
+    void replaceRows(Map<Integer, Finding> replacements) {
+        if (replacements == null || replacements.isEmpty()) {
+            return;
+        }
+        int firstRow = Integer.MAX_VALUE;
+        int lastRow = -1;
+        for (Map.Entry<Integer, Finding> entry : replacements.entrySet()) {
+            int row = entry.getKey();
+            rows.set(row, entry.getValue());
+            firstRow = Math.min(firstRow, row);
+            lastRow = Math.max(lastRow, row);
+        }
+        fireTableRowsUpdated(firstRow, lastRow);
+    }
+
+    void removeFirstRows(int count) {
+        int removed = Math.min(count, rows.size());
+        if (removed <= 0) {
+            return;
+        }
+        for (int i = 0; i < removed; i++) {
+            sequenceByKey.remove(rows.get(i).stableKey());
+        }
+        rows.subList(0, removed).clear();
+        removedPrefix += removed;
+        fireTableRowsDeleted(0, removed - 1);
+    }
+
+    void rowChanged(String stableKey) {
+        int row = rowOf(stableKey);
+        if (row >= 0) {
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    int rowOf(String stableKey) {
+        Long sequence = sequenceByKey.get(stableKey);
+        return sequence == null ? -1 : (int) (sequence - removedPrefix);
+    }
+
     List<Finding> rowsSnapshot() {
         return new ArrayList<>(rows);
     }
@@ -38,6 +111,17 @@ final class FindingsTableModel extends AbstractTableModel {
         return rows.get(row);
     }
 
+    int compareRows(int column, int leftRow, int rightRow) {
+        Finding left = rows.get(leftRow);
+        Finding right = rows.get(rightRow);
+        return switch (column) {
+            case SEVERITY_COLUMN -> Integer.compare(severityRank(left.severity()), severityRank(right.severity()));
+            case CONFIDENCE_COLUMN -> Integer.compare(left.confidence(), right.confidence());
+            case FALSE_POSITIVE_COLUMN -> Boolean.compare(falsePositiveChecker.test(left), falsePositiveChecker.test(right));
+            default -> String.CASE_INSENSITIVE_ORDER.compare(textValue(left, column), textValue(right, column));
+        };
+    }
+
     @Override
     public int getRowCount() {
         return rows.size();
@@ -53,13 +137,28 @@ final class FindingsTableModel extends AbstractTableModel {
         return COLUMNS[column];
     }
 
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return switch (columnIndex) {
+            case SEVERITY_COLUMN -> Severity.class;
+            case CONFIDENCE_COLUMN -> Integer.class;
+            default -> String.class;
+        };
+    }
+
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
         Finding finding = rows.get(rowIndex);
         return switch (columnIndex) {
-            case 0 -> finding.severity().name();
-            case 1 -> String.valueOf(finding.confidence());
-            case 2 -> falsePositiveChecker.test(finding) ? "yes" : "";
+            case SEVERITY_COLUMN -> finding.severity();
+            case CONFIDENCE_COLUMN -> finding.confidence();
+            case FALSE_POSITIVE_COLUMN -> falsePositiveChecker.test(finding) ? "yes" : "";
+            default -> textValue(finding, columnIndex);
+        };
+    }
+
+    private String textValue(Finding finding, int columnIndex) {
+        return switch (columnIndex) {
             case 3 -> finding.type();
             case 4 -> areaResolver.apply(finding);
             case 5 -> finding.host();
@@ -68,4 +167,14 @@ final class FindingsTableModel extends AbstractTableModel {
             default -> "";
         };
     }
+
+    static int severityRank(Severity severity) {
+        if (severity == null) return 0;
+        return switch (severity) {
+            case HIGH -> 4;
+            case MEDIUM -> 3;
+            case LOW -> 2;
+            case INFO -> 1;
+        };
+    }
 }
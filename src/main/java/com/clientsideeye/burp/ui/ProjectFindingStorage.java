@@ -0,0 +1,27 @@
+package com.clientsideeye.burp.ui;
+
+import burp.api.montoya.persistence.PersistedObject;
+import com.clientsideeye.burp.core.FindingLog;
+
+final class ProjectFindingStorage implements FindingLog.Storage {
+    private final PersistedObject data;
+
+    ProjectFindingStorage(PersistedObject data) {
+        this.data = data;
+    }
+
+    @Override
+    public String getString(String key) {
+        return data.getString(key);
+    }
+
+    @Override
+    public void setString(String key, String value) {
+        data.setString(key, value);
+    }
+
+    @Override
+    public void deleteString(String key) {
+        data.deleteString(key);
+    }
+}
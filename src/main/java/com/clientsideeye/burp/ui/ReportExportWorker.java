@@ -0,0 +1,129 @@
+package com.clientsideeye.burp.ui;
+
+import burp.api.montoya.MontoyaApi;
+import com.clientsideeye.burp.core.Finding;
+import com.clientsideeye.burp.core.ReportFormat;
+
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
+import java.awt.Component;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a report to disk off the EDT, optionally gzip-compressed, behind a cancellable progress monitor.
+ * A cancelled or failed export removes the partial file.
+ */
+final class ReportExportWorker extends SwingWorker<Integer, Void> {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final MontoyaApi api;
+    private final File target;
+    private final ReportFormat format;
+    private final List<Finding> findings;
+    private final Set<String> falsePositiveKeys;
+    private final boolean gzip;
+    private final AtomicInteger written = new AtomicInteger();
+    private ProgressMonitor monitor;
+
+    ReportExportWorker(MontoyaApi api, File target, ReportFormat format, List<Finding> findings, Set<String> falsePositiveKeys, boolean gzip) {
+        this.api = api;
+        this.target = target;
+        this.format = format;
+        this.findings = findings;
+        this.falsePositiveKeys = falsePositiveKeys;
+        this.gzip = gzip;
+    }
+
+    // Must be called on the EDT.
+    void start(Component parent) {
+        monitor = new ProgressMonitor(parent, "Exporting ClientSideEye report to " + target.getName(), progressNote(), 0, 100);
+        addPropertyChangeListener(event -> {
+            if (!"progress".equals(event.getPropertyName())) {
+                return;
+            }
+            if (monitor.isCanceled()) {
+                cancel(false);
+                return;
+            }
+            monitor.setProgress((Integer) event.getNewValue());
+            monitor.setNote(progressNote());
+        });
+        execute();
+    }
+
+    @Override
+    protected Integer doInBackground() throws IOException {
+        boolean complete = false;
+        try {
+            try (OutputStream file = Files.newOutputStream(target.toPath());
+                 OutputStream sink = gzip ? new GZIPOutputStream(file, BUFFER_BYTES) : file;
+                 Writer out = new BufferedWriter(new OutputStreamWriter(sink, StandardCharsets.UTF_8), BUFFER_BYTES)) {
+                format.write(findings, falsePositiveKeys, out, this::onProgress);
+            }
+            complete = !isCancelled();
+            return written.get();
+        } finally {
+            // cancel(false) runs done() right away while this thread may still be writing, so the partial file
+            // is only removed here, once the streams above are closed.
+            if (!complete) {
+                deletePartialFile();
+            }
+        }
+    }
+
+    private boolean onProgress(int count, int total) {
+        written.set(count);
+        int percent = total == 0 ? 100 : (int) (count * 100L / total);
+        if (percent != getProgress()) {
+            setProgress(percent);
+        }
+        return !isCancelled();
+    }
+
+    @Override
+    protected void done() {
+        if (monitor != null) {
+            monitor.close();
+        }
+        try {
+            int count = get();
+            api.logging().logToOutput("[ClientSideEye] Exported " + count + " findings as " + format + ": " + target.getAbsolutePath());
+        } catch (CancellationException e) {
+            api.logging().logToOutput("[ClientSideEye] Export cancelled after " + written.get() + " of " + findings.size() + " findings.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof CancellationException) {
+                api.logging().logToOutput("[ClientSideEye] Export cancelled after " + written.get() + " of " + findings.size() + " findings.");
+            } else {
+                api.logging().logToError("[ClientSideEye] Export failed: " + cause);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String progressNote() {
+        return written.get() + " of " + findings.size() + " findings written";
+    }
+
+    private void deletePartialFile() {
+        try {
+            Files.deleteIfExists(target.toPath());
+        } catch (IOException ignored) {
+            // best-effort cleanup
+        }
+    }
+}
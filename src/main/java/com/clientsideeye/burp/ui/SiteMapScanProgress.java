@@ -0,0 +1,81 @@
+package com.clientsideeye.burp.ui;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Live state of one Site Map run, shared by the scanning thread (which reports progress and polls for
+ * cancellation) and the EDT (which renders it and requests cancellation). Progress, rate and ETA count only
+ * items inside the scan cap: items past it are tallied separately, since skipping them takes no time and
+ * would otherwise inflate the rate.
+ */
+final class SiteMapScanProgress implements SiteMapScanRunner.Listener {
+    private final long total;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private volatile int seen;
+    private volatile int skippedByCap;
+    private volatile boolean cancelRequested;
+
+    /** {@code total} is the number of items the scan can analyze: eligible items, at most the scan cap. */
+    SiteMapScanProgress(long total, LongSupplier nanoClock) {
+        this.total = Math.max(0, total);
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+    }
+
+    @Override
+    public void progress(int eligibleSeen, int skippedByCap) {
+        this.skippedByCap = skippedByCap;
+        seen = eligibleSeen - skippedByCap;
+    }
+
+    @Override
+    public boolean cancelled() {
+        return cancelRequested;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    int seen() {
+        return seen;
+    }
+
+    int skippedByCap() {
+        return skippedByCap;
+    }
+
+    long total() {
+        return total;
+    }
+
+    int percent() {
+        return total == 0 ? 0 : (int) Math.min(100, seen * 100L / total);
+    }
+
+    double itemsPerSecond() {
+        double seconds = (nanoClock.getAsLong() - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : seen / seconds;
+    }
+
+    String describe() {
+        // Blank responses do not use up the cap, so a capped scan can pass its total slightly.
+        long current = Math.min(seen, total);
+        int overCap = skippedByCap;
+        double rate = itemsPerSecond();
+        String eta = rate <= 0 || current == 0 ? "--:--" : duration((long) Math.ceil((total - current) / rate));
+        return String.format(Locale.ROOT, "%,d / %,d items | %.1f items/s | ETA %s%s%s",
+            current, total, rate, eta, overCap > 0 ? String.format(Locale.ROOT, " | %,d over scan cap", overCap) : "",
+            cancelRequested ? " | cancelling..." : "");
+    }
+
+    static String duration(long seconds) {
+        long clamped = Math.max(0, seconds);
+        if (clamped >= 3600) {
+            return String.format(Locale.ROOT, "%d:%02d:%02d", clamped / 3600, clamped / 60 % 60, clamped % 60);
+        }
+        return String.format(Locale.ROOT, "%d:%02d", clamped / 60, clamped % 60);
+    }
+}
@@ -0,0 +1,81 @@
+package com.clientsideeye.burp.ui;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.Timer;
+import java.awt.BorderLayout;
+import java.util.Locale;
+
+/**
+ * Progress bar, rate/ETA line and Cancel button for Site Map runs. It polls the running
+ * {@link SiteMapScanProgress} on a Swing timer instead of receiving one EDT task per item. All methods
+ * must be called on the EDT.
+ */
+final class SiteMapScanProgressPanel extends JPanel {
+    private static final int REFRESH_INTERVAL_MS = 250;
+    private static final String IDLE_TEXT = "No Site Map scan running.";
+
+    private final JProgressBar bar = new JProgressBar(0, 100);
+    private final JLabel status = new JLabel(IDLE_TEXT);
+    private final JButton cancelButton = new JButton("Cancel Scan");
+    private final Timer timer = new Timer(REFRESH_INTERVAL_MS, e -> render());
+    private SiteMapScanProgress current;
+
+    SiteMapScanProgressPanel() {
+        super(new BorderLayout(8, 0));
+        bar.setStringPainted(true);
+        bar.setString("");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> cancel());
+        add(bar, BorderLayout.WEST);
+        add(status, BorderLayout.CENTER);
+        add(cancelButton, BorderLayout.EAST);
+    }
+
+    void start(SiteMapScanProgress progress) {
+        current = progress;
+        cancelButton.setEnabled(true);
+        render();
+        timer.start();
+    }
+
+    void finish(SiteMapScanSummary summary) {
+        timer.stop();
+        cancelButton.setEnabled(false);
+        if (summary == null || current == null) {
+            current = null;
+            bar.setValue(0);
+            bar.setString("");
+            status.setText(IDLE_TEXT);
+            return;
+        }
+        render();
+        status.setText(String.format(Locale.ROOT, "%s after %,d of %,d items: %d analyzed, %d findings%s.",
+            summary.cancelled() ? "Cancelled" : "Finished",
+            Math.min(summary.eligibleSeen() - summary.skippedByCap(), current.total()), current.total(),
+            summary.analyzed(), summary.added(),
+            summary.skippedByCap() > 0 ? String.format(Locale.ROOT, ", %,d over scan cap", summary.skippedByCap()) : ""));
+        current = null;
+    }
+
+    void cancel() {
+        if (current != null) {
+            current.requestCancel();
+            cancelButton.setEnabled(false);
+            render();
+        }
+    }
+
+    void stop() {
+        timer.stop();
+    }
+
+    private void render() {
+        if (current == null) return;
+        bar.setValue(current.percent());
+        bar.setString(current.percent() + "%");
+        status.setText(current.describe());
+    }
+}
@@ -1,15 +1,32 @@
 package com.clientsideeye.burp.ui;
 
 import burp.api.montoya.http.message.HttpRequestResponse;
+import com.clientsideeye.burp.core.AnalyzerMetrics;
 import com.clientsideeye.burp.core.Finding;
 import com.clientsideeye.burp.core.ResponseAnalyzer;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 final class SiteMapScanRunner {
+    /** Progress and cancellation hooks; both are called on the scanning thread at item boundaries. */
+    interface Listener {
+        Listener NONE = new Listener() {
+        };
+
+        /**
+         * {@code eligibleSeen} counts in-scope, host-matching items examined so far, as {@link #countEligible} does;
+         * {@code skippedByCap} is how many of those came after the scan cap and were not analyzed.
+         */
+        default void progress(int eligibleSeen, int skippedByCap) {
+        }
+
+        default boolean cancelled() {
+            return false;
+        }
+    }
+
     private SiteMapScanRunner() {
     }
 
@@ -17,46 +34,68 @@ final class SiteMapScanRunner {
         List<HttpRequestResponse> items,
         Predicate<String> hostMatcher,
         int scanLimit,
-        Consumer<List<Finding>> findingsConsumer
+        Predicate<List<Finding>> findingsSink
+    ) {
+        return scan(items, hostMatcher, scanLimit, findingsSink, Listener.NONE);
+    }
+
+    static SiteMapScanSummary scan(
+        List<HttpRequestResponse> items,
+        Predicate<String> hostMatcher,
+        int scanLimit,
+        Predicate<List<Finding>> findingsSink,
+        Listener listener
     ) {
         int analyzed = 0;
         int added = 0;
         int skippedNonAnalyzable = 0;
         int skippedByCap = 0;
+        int eligibleSeen = 0;
+        boolean cancelled = false;
+        // Totals only this thread's passes, so concurrent bridge or context-menu analysis is not counted.
+        try (AnalyzerMetrics.Recording recording = AnalyzerMetrics.record()) {
+            for (HttpRequestResponse requestResponse : items) {
+                if (listener.cancelled()) {
+                    cancelled = true;
+                    break;
+                }
+                if (requestResponse == null || requestResponse.request() == null || requestResponse.response() == null) {
+                    continue;
+                }
+                if (!requestResponse.request().isInScope()) {
+                    continue;
+                }
+                String url = requestResponse.request().url();
+                if (!hostMatcher.test(url)) {
+                    continue;
+                }
+                eligibleSeen++;
+                if (analyzed >= scanLimit) {
+                    listener.progress(eligibleSeen, ++skippedByCap);
+                    continue;
+                }
+                listener.progress(eligibleSeen, skippedByCap);
 
-        for (HttpRequestResponse requestResponse : items) {
-            if (requestResponse == null || requestResponse.request() == null || requestResponse.response() == null) {
-                continue;
-            }
-            if (!requestResponse.request().isInScope()) {
-                continue;
-            }
-            String url = requestResponse.request().url();
-            if (!hostMatcher.test(url)) {
-                continue;
-            }
-            if (analyzed >= scanLimit) {
-                skippedByCap++;
-                continue;
-            }
+                String body = requestResponse.response().bodyToString();
+                if (body == null || body.isBlank()) {
+                    continue;
+                }
 
-            String body = requestResponse.response().bodyToString();
-            if (body == null || body.isBlank()) {
-                continue;
-            }
+                analyzed++;
+                List<Finding> findings = ResponseAnalyzer.analyze(url, body);
+                if (findings.isEmpty()) {
+                    skippedNonAnalyzable++;
+                    continue;
+                }
 
-            analyzed++;
-            List<Finding> findings = ResponseAnalyzer.analyze(url, body);
-            if (findings.isEmpty()) {
-                skippedNonAnalyzable++;
-                continue;
+                // The sink returns false when it dropped the batch, e.g. because the ingest queue stayed full.
+                if (findingsSink.test(findings)) {
+                    added += findings.size();
+                }
             }
 
-            added += findings.size();
-            findingsConsumer.accept(findings);
+            return new SiteMapScanSummary(analyzed, added, skippedNonAnalyzable, skippedByCap, recording.totals(), cancelled, eligibleSeen);
         }
-
-        return new SiteMapScanSummary(analyzed, added, skippedNonAnalyzable, skippedByCap);
     }
 
     static long countEligible(List<HttpRequestResponse> items, Predicate<String> hostMatcher) {
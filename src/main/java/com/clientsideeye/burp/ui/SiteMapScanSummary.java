@@ -1,16 +1,39 @@
 package com.clientsideeye.burp.ui;
 
+import com.clientsideeye.burp.core.AnalyzerMetrics.Analyzer;
+import com.clientsideeye.burp.core.AnalyzerMetrics.Totals;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
 final class SiteMapScanSummary {
     private final int analyzed;
     private final int added;
     private final int skippedNonAnalyzable;
     private final int skippedByCap;
+    private final Map<Analyzer, Totals> analyzerActivity;
+    private final boolean cancelled;
+    private final int eligibleSeen;
 
-    SiteMapScanSummary(int analyzed, int added, int skippedNonAnalyzable, int skippedByCap) {
+    SiteMapScanSummary(
+        int analyzed,
+        int added,
+        int skippedNonAnalyzable,
+        int skippedByCap,
+        Map<Analyzer, Totals> analyzerActivity,
+        boolean cancelled,
+        int eligibleSeen
+    ) {
         this.analyzed = analyzed;
         this.added = added;
         this.skippedNonAnalyzable = skippedNonAnalyzable;
         this.skippedByCap = skippedByCap;
+        Map<Analyzer, Totals> ordered = new EnumMap<>(Analyzer.class);
+        ordered.putAll(analyzerActivity);
+        this.analyzerActivity = Collections.unmodifiableMap(ordered);
+        this.cancelled = cancelled;
+        this.eligibleSeen = eligibleSeen;
     }
 
     int analyzed() {
@@ -28,4 +51,18 @@ final class SiteMapScanSummary {
     int skippedByCap() {
         return skippedByCap;
     }
+
+    // Analyzer counters recorded on the scanning thread only, so concurrent bridge analysis is not included.
+    Map<Analyzer, Totals> analyzerActivity() {
+        return analyzerActivity;
+    }
+
+    // True when the run was stopped early; the other counts then cover only the items examined before that.
+    boolean cancelled() {
+        return cancelled;
+    }
+
+    int eligibleSeen() {
+        return eligibleSeen;
+    }
 }
@@ -0,0 +1,35 @@
+package com.clientsideeye.burp.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event for one findings table update on the EDT: a full filtered rebuild or an incremental delta. */
+@Name("ClientSideEye.TableRefresh")
+@Label("ClientSideEye Table Refresh")
+@Category("ClientSideEye")
+@Description("Findings table rebuilt from the store, or updated in place from an ingest delta.")
+@StackTrace(false)
+final class TableRefreshEvent extends Event {
+    @Label("Kind")
+    @Description("full or delta.")
+    String kind;
+
+    @Label("Store Rows")
+    int storeRows;
+
+    @Label("Visible Rows")
+    int visibleRows;
+
+    @Label("Appended Rows")
+    int appendedRows;
+
+    @Label("Replaced Rows")
+    int replacedRows;
+
+    @Label("Removed Rows")
+    int removedRows;
+}
@@ -0,0 +1,55 @@
+package com.clientsideeye.burp;
+
+import burp.api.montoya.http.message.HttpRequestResponse;
+import com.clientsideeye.burp.testing.FakeMontoya;
+import com.clientsideeye.burp.testing.SyntheticCorpus;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientSideEyeExtensionTest {
+
+    @Test
+    void contextMenuAnalyzesSelectionHeadless() throws Exception {
+        FakeMontoya fake = FakeMontoya.withSiteMap(new SyntheticCorpus(4), 40);
+        new ClientSideEyeExtension().initialize(fake.api());
+        try {
+            assertTrue(fake.suiteTabs().containsKey("ClientSideEye"));
+            assertEquals(1, fake.contextMenuProviders().size());
+
+            List<HttpRequestResponse> selected = fake.api().siteMap().requestResponses();
+            List<Component> items = fake.contextMenuProviders().get(0).provideMenuItems(FakeMontoya.contextMenuEvent(selected));
+            JMenuItem send = (JMenuItem) ((JMenu) items.get(0)).getMenuComponent(0);
+            for (ActionListener listener : send.getActionListeners()) {
+                listener.actionPerformed(new ActionEvent(send, ActionEvent.ACTION_PERFORMED, "send"));
+            }
+
+            String summary = awaitOutput(fake, "Right-click analyze complete");
+            assertTrue(summary.contains("Selected: 40"), summary);
+            assertTrue(fake.errors().isEmpty(), String.valueOf(fake.errors()));
+        } finally {
+            fake.unload();
+        }
+    }
+
+    private static String awaitOutput(FakeMontoya fake, String prefix) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            for (String line : fake.output()) {
+                if (line.contains(prefix)) {
+                    return line;
+                }
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No output containing: " + prefix + " in " + fake.output());
+    }
+}
@@ -0,0 +1,44 @@
+package com.clientsideeye.burp.core;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalyzeEventTest {
+    @Test
+    void recordsOneEventPerAnalyzerPass() throws Exception {
+        String url = "https://example.com/jfr.js";
+        String body = "window.addEventListener('message', function(event) { console.log(event.origin); });";
+        Path file = Files.createTempFile("clientsideeye", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("ClientSideEye.Analyze");
+            recording.start();
+            ResponseAnalyzer.analyze(url, body);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> url.equals(event.getString("url")))
+                .toList();
+            assertFalse(events.isEmpty());
+            RecordedEvent javascript = events.stream()
+                .filter(event -> "javascript".equals(event.getString("contentClass")))
+                .findFirst()
+                .orElseThrow();
+            assertEquals(body.length(), javascript.getLong("inputChars"));
+            assertTrue(javascript.getInt("findings") > 0);
+            assertFalse(javascript.getDuration().isNegative());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
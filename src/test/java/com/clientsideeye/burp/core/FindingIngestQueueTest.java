@@ -0,0 +1,82 @@
+package com.clientsideeye.burp.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FindingIngestQueueTest {
+    @Test
+    void rejectsOfferWhenFull() {
+        FindingIngestQueue queue = new FindingIngestQueue(2);
+        assertTrue(queue.offer(List.of(finding("a"))));
+        assertTrue(queue.offer(List.of(finding("b"))));
+        assertFalse(queue.offer(List.of(finding("c"))));
+
+        List<List<Finding>> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained::add, 10));
+        assertEquals("a", drained.get(0).get(0).title());
+        assertTrue(queue.offer(List.of(finding("c"))));
+    }
+
+    @Test
+    void deliversEveryBatchFromConcurrentProducersInPerProducerOrder() throws Exception {
+        FindingIngestQueue queue = new FindingIngestQueue(64);
+        int producers = 4;
+        int perProducer = 5000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    List<Finding> batch = List.of(finding(producer + ":" + i));
+                    while (!queue.offer(batch)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, -1);
+        AtomicBoolean ordered = new AtomicBoolean(true);
+        int received = 0;
+        start.countDown();
+        while (received < producers * perProducer) {
+            received += queue.drainTo(batch -> {
+                String[] parts = batch.get(0).title().split(":");
+                int producer = Integer.parseInt(parts[0]);
+                int sequence = Integer.parseInt(parts[1]);
+                if (sequence != lastSeen[producer] + 1) {
+                    ordered.set(false);
+                }
+                lastSeen[producer] = sequence;
+            }, 128);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(ordered.get());
+        assertEquals(0, queue.size());
+    }
+
+    private static Finding finding(String title) {
+        return new Finding("DOM_XSS_SINK", Finding.Severity.LOW, 50, "https://example.com/", "example.com", title, "summary", "evidence", "recommendation", title);
+    }
+}
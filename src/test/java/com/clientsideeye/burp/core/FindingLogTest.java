@@ -0,0 +1,117 @@
+package com.clientsideeye.burp.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FindingLogTest {
+    @Test
+    void replaysFindingsAndFalsePositiveMarks() {
+        MapStorage storage = new MapStorage();
+        FindingLog log = new FindingLog(storage);
+        FindingStore store = new FindingStore(100);
+        Finding tricky = finding("a", "line one\nline\ttwo \\ end");
+        log.appendFindings(List.of(tricky, finding("b", "plain")));
+        log.appendFalsePositive(tricky.stableKey(), true);
+        log.appendFindings(List.of(finding("b", "updated")));
+        log.flush(store);
+
+        FindingLog.Snapshot snapshot = new FindingLog(storage).load();
+
+        assertEquals(2, snapshot.findings().size());
+        assertEquals("line one\nline\ttwo \\ end", snapshot.findings().get(0).evidence());
+        assertEquals("updated", snapshot.findings().get(1).evidence());
+        assertEquals(tricky.firstSeen(), snapshot.findings().get(0).firstSeen());
+        assertEquals(Set.of(tricky.stableKey()), snapshot.falsePositiveKeys());
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveStateSegments() {
+        MapStorage storage = new MapStorage();
+        FindingLog log = new FindingLog(storage);
+        FindingStore store = new FindingStore(100);
+        for (int round = 0; round < 5; round++) {
+            log.appendFindings(List.of(finding("a", "round " + round)));
+            log.flush(store);
+        }
+        store.upsertAll(List.of(List.of(finding("a", "round 4"))));
+
+        log.compact(store);
+
+        long segments = storage.values.keySet().stream().filter(key -> key.contains(".segment.")).count();
+        assertEquals(1, segments);
+        assertEquals("round 4", new FindingLog(storage).load().findings().get(0).evidence());
+    }
+
+    @Test
+    void compactionInterruptedBetweenPointerWritesLosesNothing() {
+        MapStorage storage = new MapStorage();
+        FindingLog log = new FindingLog(storage);
+        FindingStore store = new FindingStore(100);
+        Finding marked = finding("a", "kept");
+        log.appendFindings(List.of(marked, finding("b", "old")));
+        log.appendFalsePositive(marked.stableKey(), true);
+        log.flush(store);
+        store.upsertAll(List.of(List.of(marked, finding("b", "new"))));
+        store.toggleFalsePositive(marked.stableKey());
+
+        // compact() moves both pointers; die on the second write, whichever order they are written in.
+        storage.pointerWritesBeforeFailure = 1;
+        assertThrows(IllegalStateException.class, () -> log.compact(store));
+
+        FindingLog.Snapshot snapshot = new FindingLog(storage).load();
+        assertEquals(2, snapshot.findings().size());
+        assertEquals("new", snapshot.findings().get(1).evidence());
+        assertEquals(Set.of(marked.stableKey()), snapshot.falsePositiveKeys());
+    }
+
+    @Test
+    void resetDropsPersistedRecords() {
+        MapStorage storage = new MapStorage();
+        FindingLog log = new FindingLog(storage);
+        log.appendFindings(List.of(finding("a", "x")));
+        log.flush(new FindingStore(100));
+
+        log.reset();
+
+        assertTrue(new FindingLog(storage).load().findings().isEmpty());
+    }
+
+    private static Finding finding(String title, String evidence) {
+        return new Finding("DOM_XSS_SINK", Finding.Severity.MEDIUM, 70, "https://example.com/app", "example.com", title, "summary", evidence, "recommendation", title);
+    }
+
+    private static final class MapStorage implements FindingLog.Storage {
+        private final Map<String, String> values = new HashMap<>();
+        // When non-negative, that many first/next pointer writes succeed and the following one fails unstored,
+        // as if Burp died mid-write.
+        private int pointerWritesBeforeFailure = -1;
+
+        @Override
+        public String getString(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public void setString(String key, String value) {
+            if (pointerWritesBeforeFailure >= 0 && (key.endsWith(".first") || key.endsWith(".next"))) {
+                if (pointerWritesBeforeFailure-- == 0) {
+                    throw new IllegalStateException("storage failed writing " + key);
+                }
+            }
+            values.put(key, value);
+        }
+
+        @Override
+        public void deleteString(String key) {
+            values.remove(key);
+        }
+    }
+}
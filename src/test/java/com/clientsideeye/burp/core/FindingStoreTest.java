@@ -0,0 +1,61 @@
+package com.clientsideeye.burp.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FindingStoreTest {
+    @Test
+    void dedupesByStableKeyAndReportsUpdates() {
+        FindingStore store = new FindingStore(10);
+        FindingStore.Delta first = store.upsertAll(List.of(List.of(finding("a", 40), finding("b", 50))));
+        FindingStore.Delta second = store.upsertAll(List.of(List.of(finding("a", 90))));
+
+        assertEquals(2, first.added().size());
+        assertTrue(second.added().isEmpty());
+        assertEquals(90, second.updated().get(0).confidence());
+        assertEquals(2, store.size());
+        assertEquals("a", store.snapshot().get(0).title());
+    }
+
+    @Test
+    void countsInsertedAndDeduplicatedUpserts() {
+        FindingStore store = new FindingStore(10);
+        store.upsertAll(List.of(List.of(finding("a", 40), finding("b", 50))));
+        store.upsertAll(List.of(List.of(finding("a", 90))));
+        store.addAbsent(List.of(finding("b", 60)));
+
+        assertEquals(2, store.insertedTotal());
+        assertEquals(2, store.deduplicatedTotal());
+    }
+
+    @Test
+    void evictsOldestBeyondCap() {
+        FindingStore store = new FindingStore(2);
+        store.upsertAll(List.of(List.of(finding("a", 10), finding("b", 20))));
+        FindingStore.Delta delta = store.upsertAll(List.of(List.of(finding("c", 30))));
+
+        assertEquals(List.of(finding("a", 10).stableKey()), delta.evictedKeys());
+        assertFalse(store.contains(finding("a", 10).stableKey()));
+        assertEquals(List.of("b", "c"), store.snapshot().stream().map(Finding::title).toList());
+    }
+
+    @Test
+    void togglesFalsePositiveMarks() {
+        FindingStore store = new FindingStore(2);
+        String key = finding("a", 10).stableKey();
+
+        assertTrue(store.toggleFalsePositive(key));
+        assertTrue(store.isFalsePositive(key));
+        assertFalse(store.toggleFalsePositive(key));
+        assertTrue(store.falsePositiveKeys().isEmpty());
+    }
+
+    private static Finding finding(String title, int confidence) {
+        return new Finding("DOM_XSS_SINK", Finding.Severity.LOW, confidence, "https://example.com/", "example.com", title, "summary", "evidence", "recommendation", title);
+    }
+}
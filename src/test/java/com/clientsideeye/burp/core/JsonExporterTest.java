@@ -0,0 +1,57 @@
+package com.clientsideeye.burp.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonExporterTest {
+    @Test
+    void escapesQuotesBackslashesAndControlCharacters() {
+        Finding f = finding("a\"b\\c\nd\u0001e");
+        String json = JsonExporter.toJson(List.of(f));
+
+        assertTrue(json.contains("\"title\":\"a\\\"b\\\\c\\nd\\u0001e\""), json);
+    }
+
+    @Test
+    void streamedOutputMatchesStringOutputAndMarksFalsePositives() throws Exception {
+        List<Finding> findings = List.of(finding("one"), finding("two"));
+        Set<String> falsePositives = Set.of(findings.get(1).stableKey());
+        StringWriter out = new StringWriter();
+        int[] lastProgress = new int[2];
+
+        JsonExporter.writeJson(findings, falsePositives, out, (written, total) -> {
+            lastProgress[0] = written;
+            lastProgress[1] = total;
+            return true;
+        });
+
+        assertEquals(JsonExporter.toJson(findings, falsePositives), out.toString());
+        assertTrue(out.toString().contains("\"falsePositive\":true,\"url\""));
+        assertEquals(2, lastProgress[0]);
+        assertEquals(2, lastProgress[1]);
+    }
+
+    @Test
+    void stopsWhenListenerCancels() {
+        List<Finding> findings = List.of(finding("one"), finding("two"), finding("three"));
+        StringWriter out = new StringWriter();
+
+        assertThrows(CancellationException.class,
+            () -> JsonExporter.writeJson(findings, Set.of(), out, (written, total) -> written < 2));
+        assertTrue(out.toString().contains("\"two\""));
+        assertFalse(out.toString().contains("\"three\""));
+    }
+
+    private static Finding finding(String title) {
+        return new Finding("DOM_XSS_SINK", Finding.Severity.LOW, 50, "https://example.com/", "example.com", title, "summary", "evidence", "recommendation", title);
+    }
+}
@@ -0,0 +1,37 @@
+package com.clientsideeye.burp.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    @Test
+    void fineBucketsCoverEachValueWithinOneEighth() {
+        for (long nanos : new long[] {0, 7, 8, 15, 1_000, 1_151, 1_152, 999_999, 123_456_789L, 10_000_000_000L}) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.fineIndex(nanos));
+            assertTrue(upper >= nanos, nanos + " -> " + upper);
+            assertTrue(upper <= nanos + Math.max(0, nanos / 8), nanos + " -> " + upper);
+        }
+        assertEquals(LatencyHistogram.fineIndex(Long.MAX_VALUE), LatencyHistogram.fineIndex(1L << 45));
+    }
+
+    @Test
+    void readsPercentilesFromFineBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileNanos(99));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        assertNear(50_000_000L, histogram.percentileNanos(50));
+        assertNear(99_000_000L, histogram.percentileNanos(99));
+        assertNear(100_000_000L, histogram.percentileNanos(100));
+        assertNear(1_000_000L, histogram.percentileNanos(0));
+        assertEquals(100, histogram.snapshot().count());
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 8, expected + " vs " + actual);
+    }
+}
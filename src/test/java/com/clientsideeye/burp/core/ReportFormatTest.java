@@ -0,0 +1,81 @@
+package com.clientsideeye.burp.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportFormatTest {
+    @Test
+    void ndjsonWritesOneCompleteObjectPerLine() throws Exception {
+        List<Finding> findings = List.of(finding("DOM_XSS_SINK", "one\nline"), finding("STORAGE_TOKEN", "two"));
+        StringWriter out = new StringWriter();
+
+        ReportFormat.NDJSON.write(findings, Set.of(findings.get(1).stableKey()), out, JsonExporter.ProgressListener.NONE);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"type\":\"DOM_XSS_SINK\"") && lines[0].endsWith("}"), lines[0]);
+        assertTrue(lines[0].contains("\"title\":\"one\\nline\""));
+        assertTrue(lines[1].contains("\"falsePositive\":true"));
+    }
+
+    @Test
+    void ndjsonCancellationLeavesOnlyCompleteLines() {
+        List<Finding> findings = List.of(finding("DOM_XSS_SINK", "one"), finding("DOM_XSS_SINK", "two"));
+        StringWriter out = new StringWriter();
+
+        assertThrows(CancellationException.class,
+            () -> ReportFormat.NDJSON.write(findings, Set.of(), out, (written, total) -> false));
+        assertTrue(out.toString().endsWith("}\n"));
+        assertEquals(1, out.toString().split("\n").length);
+    }
+
+    @Test
+    void sarifListsRulesOnceAndSuppressesFalsePositives() throws Exception {
+        List<Finding> findings = List.of(
+            finding("DOM_XSS_SINK", "one"),
+            finding("STORAGE_TOKEN", "two"),
+            finding("DOM_XSS_SINK", "three")
+        );
+        StringWriter out = new StringWriter();
+
+        ReportFormat.SARIF.write(findings, Set.of(findings.get(2).stableKey()), out, JsonExporter.ProgressListener.NONE);
+
+        String sarif = out.toString();
+        assertTrue(sarif.startsWith("{\"$schema\":\"" + SarifExporter.SCHEMA_URI + "\",\"version\":\"2.1.0\""));
+        assertTrue(sarif.endsWith("]}]}"));
+        assertEquals(2, count(sarif, "\"shortDescription\""));
+        assertEquals(3, count(sarif, "\"ruleId\""));
+        assertTrue(sarif.contains("\"ruleId\":\"DOM_XSS_SINK\",\"ruleIndex\":0,\"level\":\"warning\""));
+        assertTrue(sarif.contains("\"ruleId\":\"STORAGE_TOKEN\",\"ruleIndex\":1"));
+        assertEquals(1, count(sarif, "\"suppressions\""));
+        assertTrue(sarif.contains("\"" + SarifExporter.FINGERPRINT_KEY + "\":\"" + findings.get(0).stableKey() + "\""));
+    }
+
+    @Test
+    void mapsSeverityToSarifLevels() {
+        assertEquals("error", SarifExporter.level(Finding.Severity.HIGH));
+        assertEquals("warning", SarifExporter.level(Finding.Severity.MEDIUM));
+        assertEquals("note", SarifExporter.level(Finding.Severity.LOW));
+        assertEquals("note", SarifExporter.level(Finding.Severity.INFO));
+    }
+
+    private static int count(String text, String needle) {
+        int count = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + needle.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static Finding finding(String type, String title) {
+        return new Finding(type, Finding.Severity.MEDIUM, 60, "https://example.com/app.js", "example.com", title, "summary", "evidence", "recommendation", title);
+    }
+}
@@ -2,6 +2,7 @@ package com.clientsideeye.burp.core;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -18,4 +19,61 @@ class ResponseAnalyzerTest {
             "window.addEventListener('message', function(event) { console.log(event.origin); });"
         ).isEmpty());
     }
+
+    @Test
+    void analyzesRenderedDomSnapshots() {
+        String dom = "<button data-testid=\"localization-tab-save\" aria-disabled=\"true\" disabled=\"\" type=\"submit\">Save</button>";
+        assertFalse(ResponseAnalyzer.analyzeRenderedHtml("https://example.com/#/settings/localization", dom).isEmpty());
+    }
+
+    @Test
+    void recordsAnalyzerMetrics() {
+        AnalyzerMetrics.Stats stats = AnalyzerMetrics.stats(AnalyzerMetrics.Analyzer.JAVASCRIPT);
+        long runs = stats.runs();
+        long chars = stats.inputChars();
+        long durations = stats.duration().snapshot().count();
+        String body = "window.addEventListener('message', function(event) { console.log(event.origin); });";
+
+        int found = ResponseAnalyzer.analyze("https://example.com/metrics.js", body).size();
+
+        assertEquals(runs + 1, stats.runs());
+        assertEquals(chars + body.length(), stats.inputChars());
+        assertEquals(durations + 1, stats.duration().snapshot().count());
+        assertTrue(found > 0);
+    }
+
+    @Test
+    void countsEvidenceTruncationsPerAnalyzer() {
+        AnalyzerMetrics.Stats html = AnalyzerMetrics.stats(AnalyzerMetrics.Analyzer.HTML);
+        AnalyzerMetrics.Stats javascript = AnalyzerMetrics.stats(AnalyzerMetrics.Analyzer.JAVASCRIPT);
+        long htmlBefore = html.truncations();
+        long javascriptBefore = javascript.truncations();
+        String longLabel = "x".repeat(600);
+        String dom = "<button data-testid=\"save\" aria-label=\"" + longLabel + "\" disabled type=\"submit\">Save</button>";
+
+        assertFalse(ResponseAnalyzer.analyzeRenderedHtml("https://example.com/#/settings", dom).isEmpty());
+
+        assertTrue(html.truncations() > htmlBefore);
+        assertEquals(javascriptBefore, javascript.truncations());
+        AnalyzerMetrics.Totals totals = html.totals();
+        assertEquals(html.truncations(), totals.truncations());
+        assertEquals(0, totals.minus(totals).runs());
+    }
+
+    @Test
+    void recordingCountsOnlyItsOwnThreadsPasses() throws Exception {
+        String dom = "<button data-testid=\"save\" disabled type=\"submit\">Save</button>";
+        try (AnalyzerMetrics.Recording recording = AnalyzerMetrics.record()) {
+            Thread other = new Thread(() -> ResponseAnalyzer.analyzeRenderedHtml("https://example.com/other", dom));
+            other.start();
+            other.join();
+            assertEquals(0, recording.totals().get(AnalyzerMetrics.Analyzer.HTML).runs());
+
+            ResponseAnalyzer.analyzeRenderedHtml("https://example.com/own", dom);
+            AnalyzerMetrics.Totals html = recording.totals().get(AnalyzerMetrics.Analyzer.HTML);
+            assertEquals(1, html.runs());
+            assertEquals(dom.length(), html.inputChars());
+            assertTrue(html.findings() > 0);
+        }
+    }
 }
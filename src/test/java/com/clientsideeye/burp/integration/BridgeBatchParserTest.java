@@ -0,0 +1,48 @@
+package com.clientsideeye.burp.integration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BridgeBatchParserTest {
+    @Test
+    void parsesJsonArrayOfFlatObjects() {
+        BridgeBatchParser.Batch batch = BridgeBatchParser.parse(
+            "[{\"url\":\"https://example.com/a\",\"confidence\":70,\"title\":\"Say \\\"hi\\\"\\u0021\"},"
+                + " {\"url\":\"https://example.com/b\",\"meta\":{\"nested\":[1,\"}\"]},\"flag\":true,\"identity\":null}]"
+        );
+
+        assertEquals(2, batch.records().size());
+        assertEquals(0, batch.malformed());
+        assertEquals("70", batch.records().get(0).get("confidence"));
+        assertEquals("Say \"hi\"!", batch.records().get(0).get("title"));
+        assertEquals("true", batch.records().get(1).get("flag"));
+        assertFalse(batch.records().get(1).containsKey("meta"));
+        assertFalse(batch.records().get(1).containsKey("identity"));
+    }
+
+    @Test
+    void countsMalformedNdjsonLinesWithoutFailingTheBatch() {
+        BridgeBatchParser.Batch batch = BridgeBatchParser.parse(
+            "{\"url\":\"https://example.com/a\"}\n{not json}\n\n{\"url\":\"https://example.com/b\"}\n"
+        );
+
+        assertEquals(2, batch.records().size());
+        assertEquals(1, batch.malformed());
+        assertEquals("https://example.com/b", batch.records().get(1).get("url"));
+    }
+
+    @Test
+    void rejectsMalformedArray() {
+        assertThrows(IllegalArgumentException.class, () -> BridgeBatchParser.parse("[{\"url\":\"x\"},"));
+        assertThrows(IllegalArgumentException.class, () -> BridgeBatchParser.parse("[{\"url\":\"x\"}] trailing"));
+    }
+
+    @Test
+    void emptyBodyYieldsEmptyBatch() {
+        assertEquals(0, BridgeBatchParser.parse("  ").records().size());
+        assertEquals(0, BridgeBatchParser.parse("[]").records().size());
+    }
+}
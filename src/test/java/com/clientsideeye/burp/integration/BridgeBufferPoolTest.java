@@ -0,0 +1,35 @@
+package com.clientsideeye.burp.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BridgeBufferPoolTest {
+    @Test
+    void reusesBuffersWithinASizeClass() {
+        BridgeBufferPool pool = new BridgeBufferPool();
+        ByteBuffer first = pool.acquire(3000);
+        assertEquals(4096, first.capacity());
+        assertEquals(3000, first.limit());
+
+        first.put((byte) 1);
+        pool.release(first);
+        ByteBuffer second = pool.acquire(2500);
+
+        assertSame(first, second);
+        assertEquals(0, second.position());
+        assertEquals(2500, second.limit());
+    }
+
+    @Test
+    void doesNotRetainOversizedBuffers() {
+        BridgeBufferPool pool = new BridgeBufferPool();
+        ByteBuffer large = pool.acquire(BridgeBufferPool.MAX_CLASS_BYTES + 1);
+        pool.release(large);
+
+        assertEquals(0, pool.retained());
+    }
+}
@@ -0,0 +1,73 @@
+package com.clientsideeye.burp.integration;
+
+import com.clientsideeye.burp.core.Finding;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BridgeEventHubTest {
+    private final BridgeHttpServer server = new BridgeHttpServer(request -> null, path -> 0, message -> { });
+
+    @Test
+    void encodesOneSingleLineEventPerFinding() {
+        String text = new String(BridgeEventHub.encode(List.of(finding("a\nb"), finding("c")), 7, key -> false), StandardCharsets.UTF_8);
+
+        String[] events = text.split("\n\n");
+        assertEquals(2, events.length);
+        assertTrue(events[0].startsWith("id: 7\nevent: finding\ndata: {\"type\":\"DOM_XSS_SINK\""), events[0]);
+        assertTrue(events[0].contains("\"title\":\"a\\nb\""), events[0]);
+        assertEquals(3, events[0].split("\n").length);
+        assertTrue(events[1].startsWith("id: 8\n"), events[1]);
+    }
+
+    @Test
+    void carriesTheStoredFalsePositiveMark() {
+        Finding marked = finding("marked");
+        String text = new String(BridgeEventHub.encode(List.of(marked, finding("open")), 1,
+            key -> key.equals(marked.stableKey())), StandardCharsets.UTF_8);
+
+        String[] events = text.split("\n\n");
+        assertTrue(events[0].contains("\"falsePositive\":true"), events[0]);
+        assertTrue(events[1].contains("\"falsePositive\":false"), events[1]);
+    }
+
+    @Test
+    void dropsSubscribersThatFallBehindWithoutAffectingOthers() {
+        BridgeEventHub hub = new BridgeEventHub(key -> false);
+        BridgeHttpServer.EventStream slow = server.newEventStream(600);
+        BridgeHttpServer.EventStream fast = server.newEventStream(1 << 20);
+        assertTrue(hub.subscribe(slow));
+        assertTrue(hub.subscribe(fast));
+
+        hub.publish(List.of(finding("one")));
+        hub.publish(List.of(finding("two")));
+
+        assertTrue(slow.isClosed());
+        assertFalse(fast.isClosed());
+        assertEquals(1, hub.subscriberCount());
+        assertEquals(1, hub.droppedTotal());
+    }
+
+    @Test
+    void limitsSubscribers() {
+        BridgeEventHub hub = new BridgeEventHub(key -> false);
+        for (int i = 0; i < BridgeEventHub.MAX_SUBSCRIBERS; i++) {
+            assertTrue(hub.subscribe(server.newEventStream(1024)));
+        }
+        BridgeHttpServer.EventStream extra = server.newEventStream(1024);
+        assertFalse(hub.subscribe(extra));
+
+        hub.closeAll();
+        assertTrue(hub.subscribe(extra));
+    }
+
+    private static Finding finding(String title) {
+        return new Finding("DOM_XSS_SINK", Finding.Severity.LOW, 50, "https://example.com/", "example.com",
+            title, "summary", "evidence", "recommendation", title);
+    }
+}
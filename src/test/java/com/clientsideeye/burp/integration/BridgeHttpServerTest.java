@@ -0,0 +1,316 @@
+package com.clientsideeye.burp.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BridgeHttpServerTest {
+    @Test
+    void servesSeveralRequestsOnOneKeepAliveConnection() throws Exception {
+        BridgeHttpServer server = echoServer();
+        try (Socket socket = new Socket("127.0.0.1", server.boundPort())) {
+            for (int i = 0; i < 3; i++) {
+                send(socket, "POST /echo HTTP/1.1\r\nHost: x\r\nContent-Length: 2\r\n\r\nh" + i);
+                String response = readResponse(socket.getInputStream());
+                assertTrue(response.startsWith("HTTP/1.1 200 OK"), response);
+                assertTrue(response.contains("Connection: keep-alive"), response);
+                assertTrue(response.endsWith("\r\n\r\nh" + i), response);
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void answersPipelinedRequestsInOrder() throws Exception {
+        BridgeHttpServer server = echoServer();
+        try (Socket socket = new Socket("127.0.0.1", server.boundPort())) {
+            send(socket, "POST /echo HTTP/1.1\r\nContent-Length: 1\r\n\r\nA"
+                + "POST /echo HTTP/1.1\r\nContent-Length: 1\r\nConnection: close\r\n\r\nB");
+            String first = readResponse(socket.getInputStream());
+            String second = readResponse(socket.getInputStream());
+            assertTrue(first.endsWith("A"), first);
+            assertTrue(second.endsWith("B") && second.contains("Connection: close"), second);
+            assertEquals(-1, socket.getInputStream().read());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void readsMultiByteBodiesByByteLength() throws Exception {
+        BridgeHttpServer server = echoServer();
+        try (Socket socket = new Socket("127.0.0.1", server.boundPort())) {
+            byte[] body = "evidence=é漢字".getBytes(StandardCharsets.UTF_8);
+            send(socket, "POST /echo HTTP/1.1\r\nContent-Length: " + body.length + "\r\n\r\n");
+            socket.getOutputStream().write(body);
+            String response = readResponse(socket.getInputStream());
+            assertTrue(response.endsWith("evidence=é漢字"), response);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void rejectsBodiesOverThePathLimitAndCloses() throws Exception {
+        BridgeHttpServer server = echoServer();
+        try (Socket socket = new Socket("127.0.0.1", server.boundPort())) {
+            send(socket, "POST /echo HTTP/1.1\r\nContent-Length: 5000\r\n\r\n");
+            String response = readResponse(socket.getInputStream());
+            assertTrue(response.startsWith("HTTP/1.1 413 "), response);
+            assertTrue(response.contains("Connection: close"), response);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void inflatesGzipBodies() throws Exception {
+        BridgeHttpServer server = echoServer();
+        try (Socket socket = new Socket("127.0.0.1", server.boundPort())) {
+            byte[] body = gzip("[{\"url\":\"https://example.com/é\"}]".repeat(20));
+            send(socket, "POST /echo HTTP/1.1\r\nContent-Encoding: gzip\r\nContent-Length: " + body.length + "\r\n\r\n");
+            socket.getOutputStream().write(body);
+            String response = readResponse(socket.getInputStream());
+            assertTrue(response.startsWith("HTTP/1.1 200 OK"), response);
+            assertTrue(response.endsWith("[{\"url\":\"https://example.com/é\"}]".repeat(20)), response);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void rejectsGzipBodiesThatInflatePastTheLimit() throws Exception {
+        BridgeHttpServer server = echoServer();
+        try (Socket socket = new Socket("127.0.0.1", server.boundPort())) {
+            byte[] body = gzip("a".repeat(100_000));
+            send(socket, "POST /echo HTTP/1.1\r\nContent-Encoding: gzip\r\nContent-Length: " + body.length + "\r\n\r\n");
+            socket.getOutputStream().write(body);
+            String response = readResponse(socket.getInputStream());
+            assertTrue(response.startsWith("HTTP/1.1 413 "), response);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void rejectsUnknownContentEncodingButKeepsConnection() throws Exception {
+        BridgeHttpServer server = echoServer();
+        try (Socket socket = new Socket("127.0.0.1", server.boundPort())) {
+            send(socket, "POST /echo HTTP/1.1\r\nContent-Encoding: br\r\nContent-Length: 1\r\n\r\nx");
+            assertTrue(readResponse(socket.getInputStream()).startsWith("HTTP/1.1 415 "));
+            send(socket, "POST /echo HTTP/1.1\r\nContent-Length: 1\r\n\r\ny");
+            assertTrue(readResponse(socket.getInputStream()).endsWith("y"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void parsesRequestHeadFromBytes() {
+        byte[] head = "post /api/findings?x=1 HTTP/1.0\r\nX-ClientSideEye-Token:  abc \r\nConnection: Keep-Alive\r\n\r\n"
+            .getBytes(StandardCharsets.ISO_8859_1);
+        BridgeHttpServer.Head parsed = BridgeHttpServer.parseHead(head, head.length - 4);
+
+        assertEquals("POST", parsed.method());
+        assertEquals("/api/findings", parsed.path());
+        assertEquals("abc", parsed.headers().get("x-clientsideeye-token"));
+        assertTrue(parsed.keepAlive());
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void admitsOnTheSelectorAndHandlesBodiesOnAWorker() throws Exception {
+        AtomicReference<String> admitThread = new AtomicReference<>();
+        AtomicReference<String> handleThread = new AtomicReference<>();
+        BridgeHttpServer server = new BridgeHttpServer(new BridgeHttpServer.Handler() {
+            @Override
+            public BridgeHttpServer.Response admit(BridgeHttpServer.Request request) {
+                admitThread.set(Thread.currentThread().getName());
+                return "/early".equals(request.path()) ? BridgeHttpServer.Response.json(401, "{}") : null;
+            }
+
+            @Override
+            public BridgeHttpServer.Response handle(BridgeHttpServer.Request request) {
+                handleThread.set(Thread.currentThread().getName());
+                return new BridgeHttpServer.Response(200, "text/plain; charset=utf-8", request.bodyBytes(), new LinkedHashMap<>());
+            }
+        }, path -> 1024, message -> { });
+        server.start("127.0.0.1", 0, 1, "bridge-http-test");
+        try (Socket socket = new Socket("127.0.0.1", server.boundPort())) {
+            send(socket, "GET /early HTTP/1.1\r\n\r\n");
+            assertTrue(readResponse(socket.getInputStream()).startsWith("HTTP/1.1 401"));
+            assertEquals("bridge-http-test", admitThread.get());
+            assertNull(handleThread.get());
+
+            send(socket, "POST /echo HTTP/1.1\r\nContent-Length: 1\r\n\r\nB");
+            assertTrue(readResponse(socket.getInputStream()).endsWith("B"));
+            assertTrue(handleThread.get().startsWith("bridge-http-test-worker-"), handleThread.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void rejectsUnauthenticatedOversizedPostBeforeReadingTheBody() throws Exception {
+        AtomicReference<String> handled = new AtomicReference<>();
+        BridgeHttpServer server = new BridgeHttpServer(new BridgeHttpServer.Handler() {
+            @Override
+            public BridgeHttpServer.Response admit(BridgeHttpServer.Request request) {
+                return request.header("x-token") == null ? BridgeHttpServer.Response.json(401, "{}") : null;
+            }
+
+            @Override
+            public BridgeHttpServer.Response handle(BridgeHttpServer.Request request) {
+                handled.set(request.path());
+                return BridgeHttpServer.Response.json(200, "{}");
+            }
+        }, path -> 16 * 1024 * 1024, message -> { });
+        server.start("127.0.0.1", 0, 1, "bridge-http-test");
+        try (Socket socket = new Socket("127.0.0.1", server.boundPort())) {
+            socket.setSoTimeout(2000);
+            // Only the head is sent: a server that waited for the 16 MiB body would never answer.
+            send(socket, "POST /api/snapshot HTTP/1.1\r\nContent-Length: " + (16 * 1024 * 1024) + "\r\n\r\n");
+
+            String response = readResponse(socket.getInputStream());
+            assertTrue(response.startsWith("HTTP/1.1 401") && response.contains("Connection: close"), response);
+            assertEquals(-1, socket.getInputStream().read());
+            assertNull(handled.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void slowHandlerDoesNotStallOtherConnections() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BridgeHttpServer server = new BridgeHttpServer(request -> {
+            if ("/slow".equals(request.path())) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new BridgeHttpServer.Response(200, "text/plain; charset=utf-8", request.bodyBytes(), new LinkedHashMap<>());
+        }, path -> 1024, message -> { });
+        server.start("127.0.0.1", 0, 1, "bridge-http-test");
+        try (Socket slow = new Socket("127.0.0.1", server.boundPort());
+             Socket fast = new Socket("127.0.0.1", server.boundPort())) {
+            send(slow, "POST /slow HTTP/1.1\r\nContent-Length: 1\r\n\r\nS");
+            fast.setSoTimeout(2000);
+            send(fast, "POST /echo HTTP/1.1\r\nContent-Length: 1\r\n\r\nF");
+            assertTrue(readResponse(fast.getInputStream()).endsWith("F"));
+
+            release.countDown();
+            assertTrue(readResponse(slow.getInputStream()).endsWith("S"));
+        } finally {
+            release.countDown();
+            server.stop();
+        }
+    }
+
+    @Test
+    void streamsEventsUntilTheClientDisconnects() throws Exception {
+        AtomicReference<BridgeHttpServer.EventStream> stream = new AtomicReference<>();
+        BridgeHttpServer[] holder = new BridgeHttpServer[1];
+        BridgeHttpServer server = new BridgeHttpServer(request -> {
+            stream.set(holder[0].newEventStream(1024));
+            return BridgeHttpServer.Response.eventStream(stream.get());
+        }, path -> 1024, message -> { });
+        holder[0] = server;
+        server.start("127.0.0.1", 0, 1, "bridge-http-test");
+        try {
+            Socket socket = new Socket("127.0.0.1", server.boundPort());
+            send(socket, "GET /stream HTTP/1.1\r\n\r\n");
+            String head = readResponse(socket.getInputStream());
+            assertTrue(head.startsWith("HTTP/1.1 200 OK") && head.contains("text/event-stream"), head);
+            assertFalse(head.toLowerCase(Locale.ROOT).contains("content-length"), head);
+
+            byte[] event = "event: finding\ndata: {}\n\n".getBytes(StandardCharsets.UTF_8);
+            assertTrue(stream.get().offer(event));
+            assertEquals("event: finding\ndata: {}\n\n",
+                new String(socket.getInputStream().readNBytes(event.length), StandardCharsets.UTF_8));
+
+            socket.close();
+            long deadline = System.nanoTime() + 2_000_000_000L;
+            while (!stream.get().isClosed() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(stream.get().isClosed());
+            assertFalse(stream.get().offer(event));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void eventStreamClosesWhenItsBufferOverflows() {
+        BridgeHttpServer server = new BridgeHttpServer(request -> null, path -> 0, message -> { });
+        BridgeHttpServer.EventStream stream = server.newEventStream(16);
+
+        assertTrue(stream.offer(new byte[10]));
+        assertFalse(stream.offer(new byte[10]));
+        assertTrue(stream.isClosed());
+        assertTrue(stream.overflowed());
+    }
+
+    private static BridgeHttpServer echoServer() throws IOException {
+        BridgeHttpServer server = new BridgeHttpServer(
+            request -> new BridgeHttpServer.Response(200, "text/plain; charset=utf-8", request.bodyBytes(), new LinkedHashMap<>()),
+            path -> 1024,
+            message -> { }
+        );
+        server.start("127.0.0.1", 0, 1, "bridge-http-test");
+        return server;
+    }
+
+    private static void send(Socket socket, String text) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    static String readResponse(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int last = 0;
+        while (last != 0x0d0a0d0a) {
+            int b = in.read();
+            if (b < 0) throw new IOException("connection closed in headers");
+            head.write(b);
+            last = (last << 8) | b;
+        }
+        String headers = head.toString(StandardCharsets.ISO_8859_1);
+        int contentLength = 0;
+        for (String line : headers.split("\r\n")) {
+            if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                contentLength = Integer.parseInt(line.substring("content-length:".length()).trim());
+            }
+        }
+        byte[] body = in.readNBytes(contentLength);
+        return headers + new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,222 @@
+package com.clientsideeye.burp.integration;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local load test for the browser bridge: replays form-encoded finding posts against a replica of the
+ * previous thread-per-connection server (one connection per request) and against {@link BridgeHttpServer}
+ * (one keep-alive connection per client), then prints requests/second and latency percentiles.
+ *
+ * <p>Run with {@code ./gradlew bridgeLoadTest} or {@code -Pclients=N -PrequestsPerClient=M}.
+ */
+public final class BridgeLoadBenchmark {
+    private static final String BODY = "source=load-test&url=https%3A%2F%2Fexample.test%2Fapp%23%2Fsettings"
+        + "&type=HIDDEN_OR_DISABLED_CONTROL&severity=MEDIUM&confidence=70&title=Disabled+save+control"
+        + "&evidence=%3Cbutton+disabled%3ESave%3C%2Fbutton%3E";
+
+    private BridgeLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        System.out.printf(Locale.ROOT, "clients=%d requestsPerClient=%d%n", clients, requestsPerClient);
+
+        LegacyBlockingServer legacy = new LegacyBlockingServer();
+        try {
+            report("thread-per-connection", run(legacy.start(), clients, requestsPerClient, false));
+        } finally {
+            legacy.stop();
+        }
+
+        BridgeHttpServer nio = new BridgeHttpServer(BridgeLoadBenchmark::handle, path -> 64 * 1024, System.err::println);
+        try {
+            report("nio keep-alive", run(nio.start("127.0.0.1", 0, 1, "bridge-load-test"), clients, requestsPerClient, true));
+        } finally {
+            nio.stop();
+        }
+    }
+
+    private static BridgeHttpServer.Response handle(BridgeHttpServer.Request request) {
+        BridgeFormDecoder.decode(request.body());
+        return BridgeHttpServer.Response.json(200, "{\"accepted\":1}");
+    }
+
+    private record Result(long[] latenciesNanos, long elapsedNanos, int failures) {
+    }
+
+    private static Result run(int port, int clients, int requestsPerClient, boolean keepAlive) throws InterruptedException {
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch ready = new CountDownLatch(clients);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(clients);
+        byte[] request = ("POST /api/finding HTTP/1.1\r\nHost: 127.0.0.1\r\n"
+            + "Content-Type: application/x-www-form-urlencoded\r\nContent-Length: " + BODY.length() + "\r\n"
+            + (keepAlive ? "" : "Connection: close\r\n") + "\r\n" + BODY).getBytes(StandardCharsets.US_ASCII);
+
+        for (int c = 0; c < clients; c++) {
+            int offset = c * requestsPerClient;
+            pool.execute(() -> {
+                Socket socket = null;
+                try {
+                    ready.countDown();
+                    go.await();
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long start = System.nanoTime();
+                        try {
+                            if (socket == null || !keepAlive) {
+                                socket = new Socket("127.0.0.1", port);
+                                socket.setTcpNoDelay(true);
+                            }
+                            OutputStream out = socket.getOutputStream();
+                            out.write(request);
+                            out.flush();
+                            String response = BridgeHttpServerTest.readResponse(socket.getInputStream());
+                            if (!response.startsWith("HTTP/1.1 200")) failures.incrementAndGet();
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                            closeQuietly(socket);
+                            socket = null;
+                        }
+                        if (!keepAlive) {
+                            closeQuietly(socket);
+                            socket = null;
+                        }
+                        latencies[offset + i] = System.nanoTime() - start;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    closeQuietly(socket);
+                    done.countDown();
+                }
+            });
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+        return new Result(latencies, elapsed, failures.get());
+    }
+
+    private static void report(String name, Result result) {
+        long[] sorted = result.latenciesNanos().clone();
+        Arrays.sort(sorted);
+        double seconds = result.elapsedNanos() / 1e9;
+        System.out.printf(Locale.ROOT, "%-22s %9.0f req/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms  failures %d%n",
+            name,
+            sorted.length / seconds,
+            percentile(sorted, 0.50) / 1e6,
+            percentile(sorted, 0.99) / 1e6,
+            sorted[sorted.length - 1] / 1e6,
+            result.failures());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket == null) return;
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // best-effort close
+        }
+    }
+
+    /** Replica of the bridge before the selector rewrite: 1 s accept polling, cached thread per socket, Connection: close. */
+    private static final class LegacyBlockingServer {
+        private final ExecutorService acceptExec = Executors.newSingleThreadExecutor();
+        private final ExecutorService clientExec = Executors.newCachedThreadPool();
+        private volatile boolean running;
+        private ServerSocket serverSocket;
+
+        int start() throws IOException {
+            serverSocket = new ServerSocket();
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(new InetSocketAddress("127.0.0.1", 0), 50);
+            serverSocket.setSoTimeout(1000);
+            running = true;
+            acceptExec.submit(this::acceptLoop);
+            return serverSocket.getLocalPort();
+        }
+
+        void stop() throws IOException {
+            running = false;
+            serverSocket.close();
+            acceptExec.shutdownNow();
+            clientExec.shutdownNow();
+        }
+
+        private void acceptLoop() {
+            while (running) {
+                try {
+                    Socket s = serverSocket.accept();
+                    s.setSoTimeout(5000);
+                    clientExec.submit(() -> handleClient(s));
+                } catch (SocketTimeoutException ignored) {
+                    // periodic loop check
+                } catch (IOException e) {
+                    if (running) System.err.println("legacy accept error: " + e);
+                }
+            }
+        }
+
+        private void handleClient(Socket socket) {
+            try (socket;
+                 InputStream raw = socket.getInputStream();
+                 BufferedReader in = new BufferedReader(new InputStreamReader(raw, StandardCharsets.UTF_8));
+                 BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                in.readLine();
+                int contentLength = 0;
+                String line;
+                while ((line = in.readLine()) != null && !line.isEmpty()) {
+                    if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(line.substring("content-length:".length()).trim());
+                    }
+                }
+                char[] buf = new char[contentLength];
+                int read = 0;
+                while (read < contentLength) {
+                    int n = in.read(buf, read, contentLength - read);
+                    if (n < 0) break;
+                    read += n;
+                }
+                BridgeHttpServer.Response response = handle(new BridgeHttpServer.Request(
+                    "POST", "/api/finding", new LinkedHashMap<>(), ByteBuffer.wrap(new String(buf, 0, read).getBytes(StandardCharsets.UTF_8))));
+                out.write("HTTP/1.1 200 OK\r\nContent-Type: " + response.contentType() + "\r\nContent-Length: "
+                    + response.body().length + "\r\nConnection: close\r\n\r\n");
+                out.write(new String(response.body(), StandardCharsets.UTF_8));
+                out.flush();
+            } catch (IOException e) {
+                // client went away
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.clientsideeye.burp.integration;
+
+import com.clientsideeye.burp.core.LatencyHistogram;
+import com.clientsideeye.burp.ui.ClientSideEyeTab;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BridgeMetricsTest {
+    @Test
+    void histogramBucketsAreCumulative() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(200_000L);
+        histogram.record(3_000_000L);
+        histogram.record(20_000_000_000L);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.cumulativeCounts()[0]);
+        assertEquals(2, snapshot.cumulativeCounts()[3]);
+        assertEquals(2, snapshot.cumulativeCounts()[snapshot.cumulativeCounts().length - 1]);
+        assertEquals(3, snapshot.count());
+    }
+
+    @Test
+    void writesExpositionFormatWithEscapedLabels() {
+        String text = new PrometheusWriter()
+            .family("demo_total", "counter", "Demo counter.")
+            .sample("demo_total", 3, "origin", "a\"b\\c\nd")
+            .toString();
+
+        assertEquals("# HELP demo_total Demo counter.\n# TYPE demo_total counter\ndemo_total{origin=\"a\\\"b\\\\c\\nd\"} 3\n", text);
+        assertEquals("0.0005", PrometheusWriter.number(0.0005));
+        assertEquals("10", PrometheusWriter.number(10));
+    }
+
+    @Test
+    void rendersBridgeIngestAndAnalyzerFamilies() {
+        BridgeMetrics metrics = new BridgeMetrics();
+        metrics.recordRequest("/api/findings", 200, 1_000_000L);
+        metrics.recordRequest("/wp-admin/setup.php", 404, 1_000L);
+        metrics.recordBatch(5, 3, 1);
+
+        String text = metrics.render(2, 1, 0, new ClientSideEyeTab.IngestStats(40, 7, 4096, 1, 30, 10));
+
+        assertTrue(text.contains("clientsideeye_bridge_request_duration_seconds_bucket{path=\"/api/findings\",status=\"200\",le=\"0.001\"} 1\n"));
+        assertTrue(text.contains("clientsideeye_bridge_request_duration_seconds_count{path=\"other\",status=\"404\"} 1\n"));
+        assertFalse(text.contains("wp-admin"));
+        assertTrue(text.contains("clientsideeye_bridge_open_connections 2\n"));
+        assertTrue(text.contains("clientsideeye_bridge_batch_records_total{result=\"duplicate\"} 3\n"));
+        assertTrue(text.contains("clientsideeye_ingest_queue_depth 7\n"));
+        assertTrue(text.contains("clientsideeye_store_dedupe_hit_ratio 0.25\n"));
+        assertTrue(text.contains("clientsideeye_analyzer_runs_total{analyzer=\"source_map\"} "));
+    }
+}
@@ -0,0 +1,54 @@
+package com.clientsideeye.burp.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BridgeRateLimiterTest {
+    @Test
+    void allowsBurstThenRejectsWithRetryAfter() {
+        long[] now = {0};
+        BridgeRateLimiter limiter = new BridgeRateLimiter(3, 1, () -> now[0]);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("chrome-extension://a").allowed());
+        }
+        BridgeRateLimiter.Decision first = limiter.tryAcquire("chrome-extension://a");
+        BridgeRateLimiter.Decision second = limiter.tryAcquire("chrome-extension://a");
+
+        assertFalse(first.allowed());
+        assertTrue(first.firstRejection());
+        assertFalse(second.firstRejection());
+        assertEquals(1, first.retryAfterSeconds());
+    }
+
+    @Test
+    void refillsOverTimeAndKeepsOriginsSeparate() {
+        long[] now = {0};
+        BridgeRateLimiter limiter = new BridgeRateLimiter(1, 2, () -> now[0]);
+
+        assertTrue(limiter.tryAcquire("chrome-extension://a").allowed());
+        assertFalse(limiter.tryAcquire("chrome-extension://a").allowed());
+        assertTrue(limiter.tryAcquire("moz-extension://b").allowed());
+
+        now[0] += 500_000_000L;
+        BridgeRateLimiter.Decision refilled = limiter.tryAcquire("chrome-extension://a");
+        assertTrue(refilled.allowed());
+        assertFalse(refilled.firstRejection());
+    }
+
+    @Test
+    void pushBackResponsesCarryRetryAfter() {
+        String limited = new String(BridgeHttpServer.encode(BrowserBridgeServer.rateLimited(3), false), StandardCharsets.ISO_8859_1);
+        String busy = new String(BridgeHttpServer.encode(BrowserBridgeServer.ingestBusy(), false), StandardCharsets.ISO_8859_1);
+
+        assertTrue(limited.startsWith("HTTP/1.1 429 Too Many Requests\r\n"), limited);
+        assertTrue(limited.contains("Retry-After: 3\r\n"), limited);
+        assertTrue(busy.startsWith("HTTP/1.1 503 Service Unavailable\r\n"), busy);
+        assertTrue(busy.contains("Retry-After: 1\r\n"), busy);
+    }
+}
@@ -0,0 +1,46 @@
+package com.clientsideeye.burp.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BridgeSeenIndexTest {
+    private static final Map<String, String> RECORD = Map.of(
+        "url", "https://example.test/app#/billing",
+        "type", "HIDDEN_OR_DISABLED_CONTROL",
+        "title", "Disabled save",
+        "evidence", "<button disabled>Säve</button>",
+        "confidence", "70");
+
+    @Test
+    void digestMatchesBrowserDefinition() {
+        // SHA-256 over url, type, identity, title, evidence joined by NUL; first 8 bytes as hex.
+        assertEquals("db36c544e68f22a9", BridgeSeenIndex.digest(RECORD));
+    }
+
+    @Test
+    void digestIsOnlyKnownWhileTabHoldsTheFinding() {
+        BridgeSeenIndex index = new BridgeSeenIndex();
+        index.remember(RECORD, "key-1");
+        String known = BridgeSeenIndex.digest(RECORD);
+        String other = "0123456789abcdef";
+
+        assertEquals(List.of(other), index.unseen(List.of(known, other), Set.of("key-1")::contains));
+        assertEquals(List.of(known, other), index.unseen(List.of(known, other), Set.<String>of()::contains));
+    }
+
+    @Test
+    void parsesDigestArraysStrictly() {
+        assertEquals(List.of("db36c544e68f22a9", "0123456789abcdef"),
+            BridgeSeenIndex.parseDigests(" [\"db36c544e68f22a9\", \"0123456789abcdef\"]\n"));
+        assertEquals(List.of(), BridgeSeenIndex.parseDigests("[]"));
+        assertThrows(IllegalArgumentException.class, () -> BridgeSeenIndex.parseDigests("[\"DB36C544E68F22A9\"]"));
+        assertThrows(IllegalArgumentException.class, () -> BridgeSeenIndex.parseDigests("[\"abc\"]"));
+        assertThrows(IllegalArgumentException.class, () -> BridgeSeenIndex.parseDigests("{\"digests\":[]}"));
+    }
+}
@@ -0,0 +1,196 @@
+package com.clientsideeye.burp.integration;
+
+import com.clientsideeye.burp.core.Finding;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BridgeSnapshotAnalyzerTest {
+    private static final String URL = "https://example.test/app#/settings";
+    private static final byte[] HTML = "<html><body><button disabled>Delete user</button></body></html>".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void analyzesIdenticalSnapshotsOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        List<List<Finding>> sunk = new CopyOnWriteArrayList<>();
+        BridgeSnapshotAnalyzer analyzer = new BridgeSnapshotAnalyzer((url, html) -> {
+            runs.incrementAndGet();
+            return List.of(finding(url));
+        }, sunk::add, message -> { });
+        try {
+            String hash = BridgeSnapshotAnalyzer.sha256Hex(HTML);
+            assertEquals(BridgeSnapshotAnalyzer.Outcome.QUEUED, analyzer.submit(URL, hash, HTML.clone()));
+            assertEquals(BridgeSnapshotAnalyzer.Outcome.UNCHANGED, analyzer.submit(URL, hash, HTML.clone()));
+            // Without a client hash the worker still recognizes the content.
+            assertEquals(BridgeSnapshotAnalyzer.Outcome.QUEUED, analyzer.submit(URL, null, HTML.clone()));
+            assertEquals(BridgeSnapshotAnalyzer.Outcome.QUEUED, analyzer.submit(URL + "/other", null, HTML.clone()));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (sunk.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(50);
+            assertEquals(2, runs.get());
+            assertEquals(2, sunk.size());
+        } finally {
+            analyzer.shutdown();
+        }
+    }
+
+    @Test
+    void analyzesOnlyChangedSubtreesFromDeltaBatches() throws Exception {
+        List<String> analyzed = new CopyOnWriteArrayList<>();
+        List<List<Finding>> sunk = new CopyOnWriteArrayList<>();
+        BridgeSnapshotAnalyzer analyzer = new BridgeSnapshotAnalyzer((url, html) -> {
+            analyzed.add(html);
+            return List.of(finding(url + "|" + html));
+        }, sunk::add, message -> { });
+        try {
+            analyzer.submitFragments(List.of(
+                new BridgeSnapshotAnalyzer.Fragment(URL, "n1", "<div><button disabled>A</button></div>"),
+                new BridgeSnapshotAnalyzer.Fragment(URL, "n2", "<div><button disabled>B</button></div>")));
+            analyzer.submitFragments(List.of(
+                new BridgeSnapshotAnalyzer.Fragment(URL, "n1", "<div><button disabled>A</button></div>"),
+                new BridgeSnapshotAnalyzer.Fragment(URL, "n2", "<div><button>B</button></div>")));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (sunk.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(3, analyzed.size());
+            assertEquals(2, sunk.get(0).size());
+            assertEquals(1, sunk.get(1).size());
+        } finally {
+            analyzer.shutdown();
+        }
+    }
+
+    @Test
+    void analyzesTheSameSnapshotAgainAfterFindingsAreCleared() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        List<List<Finding>> sunk = new CopyOnWriteArrayList<>();
+        BridgeSnapshotAnalyzer analyzer = new BridgeSnapshotAnalyzer((url, html) -> {
+            runs.incrementAndGet();
+            return List.of(finding(url));
+        }, sunk::add, message -> { });
+        try {
+            String hash = BridgeSnapshotAnalyzer.sha256Hex(HTML);
+            assertEquals(BridgeSnapshotAnalyzer.Outcome.QUEUED, analyzer.submit(URL, hash, HTML.clone()));
+            awaitSize(sunk, 1);
+            assertEquals(BridgeSnapshotAnalyzer.Outcome.UNCHANGED, analyzer.submit(URL, hash, HTML.clone()));
+
+            analyzer.forgetAll();
+            assertEquals(BridgeSnapshotAnalyzer.Outcome.QUEUED, analyzer.submit(URL, hash, HTML.clone()));
+            awaitSize(sunk, 2);
+            assertEquals(2, runs.get());
+        } finally {
+            analyzer.shutdown();
+        }
+    }
+
+    @Test
+    void analyzesAgainWhenTheSinkRefusedTheFindings() throws Exception {
+        AtomicInteger offers = new AtomicInteger();
+        List<List<Finding>> sunk = new CopyOnWriteArrayList<>();
+        BridgeSnapshotAnalyzer analyzer = new BridgeSnapshotAnalyzer((url, html) -> List.of(finding(url + "|" + html)),
+            findings -> offers.incrementAndGet() % 2 == 0 && sunk.add(findings), message -> { });
+        try {
+            String hash = BridgeSnapshotAnalyzer.sha256Hex(HTML);
+            assertEquals(BridgeSnapshotAnalyzer.Outcome.QUEUED, analyzer.submit(URL, hash, HTML.clone()));
+            awaitCount(offers, 1);
+            // The refused key is forgotten right after the sink returns, so resubmit until it is taken again.
+            resubmitUntil(() -> analyzer.submit(URL, hash, HTML.clone()), sunk, 1);
+
+            List<BridgeSnapshotAnalyzer.Fragment> delta = List.of(
+                new BridgeSnapshotAnalyzer.Fragment(URL, "n1", "<div><button disabled>A</button></div>"));
+            analyzer.submitFragments(delta);
+            awaitCount(offers, 3);
+            resubmitUntil(() -> analyzer.submitFragments(delta), sunk, 2);
+            assertEquals(4, offers.get());
+        } finally {
+            analyzer.shutdown();
+        }
+    }
+
+    @Test
+    void analyzesTheSameSubtreeAgainAfterFindingsAreCleared() throws Exception {
+        List<List<Finding>> sunk = new CopyOnWriteArrayList<>();
+        BridgeSnapshotAnalyzer analyzer = new BridgeSnapshotAnalyzer((url, html) -> List.of(finding(url + "|" + html)),
+            sunk::add, message -> { });
+        try {
+            List<BridgeSnapshotAnalyzer.Fragment> delta = List.of(
+                new BridgeSnapshotAnalyzer.Fragment(URL, "n1", "<div><button disabled>A</button></div>"));
+            analyzer.submitFragments(delta);
+            awaitSize(sunk, 1);
+            analyzer.forgetAll();
+            analyzer.submitFragments(delta);
+            awaitSize(sunk, 2);
+        } finally {
+            analyzer.shutdown();
+        }
+    }
+
+    @Test
+    void reportsBusyWhenWorkersAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BridgeSnapshotAnalyzer analyzer = new BridgeSnapshotAnalyzer((url, html) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of();
+        }, findings -> true, message -> { });
+        try {
+            BridgeSnapshotAnalyzer.Outcome outcome = BridgeSnapshotAnalyzer.Outcome.QUEUED;
+            int submitted = 0;
+            while (outcome == BridgeSnapshotAnalyzer.Outcome.QUEUED && submitted < 100) {
+                outcome = analyzer.submit(URL + "/" + submitted, null, HTML.clone());
+                submitted++;
+            }
+            assertEquals(BridgeSnapshotAnalyzer.Outcome.BUSY, outcome);
+            assertTrue(submitted <= 4 + 8 + 1, "submitted " + submitted);
+        } finally {
+            release.countDown();
+            analyzer.shutdown();
+        }
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, list.size());
+    }
+
+    private static void resubmitUntil(Runnable submit, List<?> sunk, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (sunk.size() < size && System.nanoTime() < deadline) {
+            submit.run();
+            Thread.sleep(20);
+        }
+        assertEquals(size, sunk.size());
+    }
+
+    private static void awaitCount(AtomicInteger counter, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (counter.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, counter.get());
+    }
+
+    private static Finding finding(String url) {
+        return new Finding("HIDDEN_OR_DISABLED_CONTROL", Finding.Severity.MEDIUM, 60, url, "example.test",
+            "Disabled control", "summary", "evidence", "recommendation", url);
+    }
+}
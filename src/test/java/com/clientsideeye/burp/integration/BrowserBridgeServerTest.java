@@ -2,9 +2,13 @@ package com.clientsideeye.burp.integration;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class BrowserBridgeServerTest {
     @Test
@@ -30,4 +34,79 @@ class BrowserBridgeServerTest {
         assertEquals("https://example.com/api", form.get("url"));
         assertEquals("runtime_network_reference", form.get("type"));
     }
+
+    @Test
+    void decodesFormBytesLeniently() {
+        Map<String, String> form = BrowserBridgeServer.parseFormEncodedForTest(
+            "evidence=%3Cb%3E+%C3%A9+%E6%BC%A2&bad=100%+sure%zz&flag&a=b=c"
+        );
+        assertEquals("<b> é 漢", form.get("evidence"));
+        assertEquals("100% sure%zz", form.get("bad"));
+        assertEquals("", form.get("flag"));
+        assertEquals("b=c", form.get("a"));
+    }
+
+    @Test
+    void batchLimitIsLargerThanFormLimit() {
+        assertEquals(200, BrowserBridgeServer.validateRequest("expected", "expected", 70 * 1024, BrowserBridgeServer.MAX_BATCH_BODY_BYTES));
+        assertEquals(413, BrowserBridgeServer.validateRequest("expected", "expected", BrowserBridgeServer.MAX_BATCH_BODY_BYTES + 1, BrowserBridgeServer.MAX_BATCH_BODY_BYTES));
+    }
+
+    @Test
+    void countsAcceptedDuplicateAndRejectedBatchRecords() {
+        BridgeBatchParser.Batch batch = BridgeBatchParser.parse(
+            "{\"url\":\"https://example.com/a\",\"identity\":\"one\"}\n"
+                + "{\"url\":\"https://example.com/a\",\"identity\":\"one\"}\n"
+                + "{\"url\":\"https://example.com/b\",\"identity\":\"known\"}\n"
+                + "{\"title\":\"missing url\"}\n"
+                + "garbage\n"
+        );
+        String knownKey = BrowserBridgeFindingFactory.fromForm(Map.of("url", "https://example.com/b", "identity", "known")).stableKey();
+
+        BrowserBridgeServer.BatchResult result = BrowserBridgeServer.collectBatch(batch, Set.of(knownKey)::contains, new BridgeSeenIndex());
+
+        assertEquals(1, result.accepted().size());
+        assertEquals(2, result.duplicates());
+        assertEquals(2, result.rejected());
+        assertEquals("{\"accepted\":1,\"duplicate\":2,\"rejected\":2}", result.toJson());
+    }
+
+    @Test
+    void batchRecordsBecomeKnownToTheHandshake() {
+        Map<String, String> record = Map.of("url", "https://example.com/a", "identity", "one");
+        BridgeSeenIndex seen = new BridgeSeenIndex();
+        BrowserBridgeServer.BatchResult result = BrowserBridgeServer.collectBatch(
+            new BridgeBatchParser.Batch(List.of(record), 0), key -> false, seen);
+        String stableKey = result.accepted().get(0).stableKey();
+        String digest = BridgeSeenIndex.digest(record);
+
+        List<String> unseen = seen.unseen(List.of(digest, "0000000000000000"), Set.of(stableKey)::contains);
+
+        assertEquals("{\"unseen\":[\"0000000000000000\"],\"known\":1}", BrowserBridgeServer.unseenJson(unseen, 1));
+    }
+
+    @Test
+    void collectsDeltaFragmentsAndRejectsIncompleteRecords() {
+        BridgeBatchParser.Batch batch = BridgeBatchParser.parse("["
+            + "{\"pageUrl\":\"https://example.com/#/a\",\"nodeId\":\"n4\",\"html\":\"<button disabled>Go</button>\"},"
+            + "{\"pageUrl\":\"https://example.com/#/a\",\"html\":\"  \"},"
+            + "{\"html\":\"<div></div>\"}]");
+
+        BrowserBridgeServer.DeltaBatch delta = BrowserBridgeServer.collectDelta(batch);
+
+        assertEquals(1, delta.fragments().size());
+        assertEquals("n4", delta.fragments().get(0).nodeId());
+        assertEquals(2, delta.rejected());
+    }
+
+    @Test
+    void metricsAcceptTokenHeaderOrBearer() {
+        assertEquals("t1", BrowserBridgeServer.readEndpointToken(metricsRequest(Map.of("x-clientsideeye-token", "t1"))));
+        assertEquals("t2", BrowserBridgeServer.readEndpointToken(metricsRequest(Map.of("authorization", "bearer t2"))));
+        assertNull(BrowserBridgeServer.readEndpointToken(metricsRequest(Map.of("authorization", "Basic dTpw"))));
+    }
+
+    private static BridgeHttpServer.Request metricsRequest(Map<String, String> headers) {
+        return new BridgeHttpServer.Request("GET", "/api/metrics", headers, ByteBuffer.allocate(0));
+    }
 }
@@ -0,0 +1,97 @@
+package com.clientsideeye.burp.testing;
+
+import burp.api.montoya.MontoyaApi;
+import burp.api.montoya.core.Registration;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.persistence.PersistedObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FakeMontoyaTest {
+
+    @Test
+    void servesTheCorpusAsSiteMapAndHttpResponses() {
+        SyntheticCorpus corpus = new SyntheticCorpus(9);
+        FakeMontoya fake = FakeMontoya.withSiteMap(corpus, 1_000);
+        List<HttpRequestResponse> siteMap = fake.api().siteMap().requestResponses();
+
+        assertEquals(1_000, siteMap.size());
+        HttpRequestResponse entry = siteMap.get(123);
+        assertEquals(corpus.resource(123).url(), entry.request().url());
+        assertEquals(corpus.resource(123).body(), entry.response().bodyToString());
+        assertTrue(entry.request().isInScope());
+
+        assertEquals(corpus.resource(5).body(), fake.api().http().sendRequest(siteMap.get(5).request()).response().bodyToString());
+        HttpRequestResponse missing = fake.api().http().sendRequest(
+            fake.requestResponse(new SyntheticCorpus.Resource("https://elsewhere.test/", "text/html", "")).request());
+        assertEquals(404, missing.response().statusCode());
+        assertEquals(2, fake.httpRequestCount());
+    }
+
+    @Test
+    void appliesTheScopePredicate() {
+        List<SyntheticCorpus.Resource> resources = List.of(
+            new SyntheticCorpus.Resource("https://in.test/a", "text/html", "<button disabled>Save</button>"),
+            new SyntheticCorpus.Resource("https://out.test/b", "text/html", "<button disabled>Save</button>"));
+        FakeMontoya fake = new FakeMontoya(resources, url -> url.startsWith("https://in.test/"));
+        List<HttpRequestResponse> siteMap = fake.api().siteMap().requestResponses();
+
+        assertTrue(siteMap.get(0).request().isInScope());
+        assertFalse(siteMap.get(1).request().isInScope());
+    }
+
+    @Test
+    void persistsValuesByTypeAndKey() {
+        FakeMontoya fake = new FakeMontoya(List.of());
+        PersistedObject data = fake.api().persistence().extensionData();
+
+        data.setString("findings", "log");
+        data.setLong("findings", 7L);
+        assertEquals("log", data.getString("findings"));
+        assertEquals(Long.valueOf(7), data.getLong("findings"));
+        assertEquals(Set.of("findings"), data.stringKeys());
+        assertEquals("log", fake.persistedString("findings"));
+
+        data.deleteString("findings");
+        assertNull(data.getString("findings"));
+        assertEquals(Long.valueOf(7), data.getLong("findings"));
+    }
+
+    @Test
+    void recordsLoggingRegistrationsAndUnloading() {
+        FakeMontoya fake = new FakeMontoya(List.of());
+        MontoyaApi api = fake.api();
+        int[] unloaded = {0};
+
+        api.logging().logToOutput("hello");
+        api.logging().logToError("boom");
+        api.extension().registerUnloadingHandler(() -> unloaded[0]++);
+        Registration registration = api.userInterface().registerSuiteTab("Tab", new javax.swing.JPanel());
+        fake.unload();
+
+        assertEquals(List.of("hello"), fake.output());
+        assertEquals(List.of("boom"), fake.errors());
+        assertEquals(1, unloaded[0]);
+        assertTrue(fake.suiteTabs().containsKey("Tab"));
+        registration.deregister();
+        assertFalse(registration.isRegistered());
+        assertTrue(fake.suiteTabs().isEmpty());
+    }
+
+    @Test
+    void namesMethodsThatAreNotFaked() {
+        MontoyaApi api = new FakeMontoya(List.of()).api();
+
+        UnsupportedOperationException error = assertThrows(UnsupportedOperationException.class, () -> api.extension().filename());
+        assertEquals("Extension.filename is not faked", error.getMessage());
+        assertEquals("FakeLogging", api.logging().toString());
+    }
+}
@@ -0,0 +1,95 @@
+package com.clientsideeye.burp.testing;
+
+import com.clientsideeye.burp.core.Finding;
+import com.clientsideeye.burp.core.FindingType;
+import com.clientsideeye.burp.core.HtmlAnalyzer;
+import com.clientsideeye.burp.core.JavaScriptAnalyzer;
+import com.clientsideeye.burp.core.SourceMapAnalyzer;
+import com.clientsideeye.burp.testing.SyntheticCorpus.HtmlSpec;
+import com.clientsideeye.burp.testing.SyntheticCorpus.ScriptSpec;
+import com.clientsideeye.burp.testing.SyntheticCorpus.SourceMapSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticCorpusTest {
+
+    @Test
+    void sameSeedProducesSameDocumentsRegardlessOfCallOrder() {
+        SyntheticCorpus first = new SyntheticCorpus(42);
+        SyntheticCorpus second = new SyntheticCorpus(42);
+        String script = first.javaScriptBundle(ScriptSpec.typical(8192));
+        String page = first.htmlPage(HtmlSpec.typical(40));
+
+        assertEquals(page, second.htmlPage(HtmlSpec.typical(40)));
+        assertEquals(script, second.javaScriptBundle(ScriptSpec.typical(8192)));
+        assertEquals(first.resource(17), second.resource(17));
+        assertNotEquals(page, new SyntheticCorpus(43).htmlPage(HtmlSpec.typical(40)));
+    }
+
+    @Test
+    void sizedOutputsReachTheRequestedSize() {
+        SyntheticCorpus corpus = new SyntheticCorpus(7);
+        int bytes = 64 * 1024;
+
+        assertTrue(corpus.htmlPageOfSize(bytes, HtmlSpec.typical(0)).length() >= bytes);
+        assertTrue(corpus.sourceMapOfSize(bytes, 2048).length() >= bytes - 128);
+        int script = corpus.javaScriptBundle(ScriptSpec.typical(bytes)).length();
+        assertTrue(script >= bytes - 512 && script <= bytes + 512, "script length " + script);
+    }
+
+    @Test
+    void hiddenRatioControlsGatedControlFindings() {
+        SyntheticCorpus corpus = new SyntheticCorpus(1);
+        String open = corpus.htmlPage(new HtmlSpec(60, 2, 0, 0));
+        String gated = corpus.htmlPage(new HtmlSpec(60, 2, 1, 0));
+
+        assertEquals(0, count(HtmlAnalyzer.analyzeHtml("https://corpus.test/open", open), FindingType.HIDDEN_OR_DISABLED_CONTROL));
+        assertTrue(count(HtmlAnalyzer.analyzeHtml("https://corpus.test/gated", gated), FindingType.HIDDEN_OR_DISABLED_CONTROL) >= 30);
+    }
+
+    @Test
+    void scriptDensitiesDriveEndpointAndSinkFindings() {
+        SyntheticCorpus corpus = new SyntheticCorpus(3);
+        String url = "https://corpus.test/static/app.js";
+        List<Finding> sparse = JavaScriptAnalyzer.analyzeJavaScript(url, corpus.javaScriptBundle(new ScriptSpec(32 * 1024, 0, 0)));
+        List<Finding> dense = JavaScriptAnalyzer.analyzeJavaScript(url, corpus.javaScriptBundle(new ScriptSpec(32 * 1024, 0.3, 0.1)));
+
+        assertEquals(0, count(sparse, FindingType.DOM_XSS_SINK));
+        assertTrue(count(dense, FindingType.JAVASCRIPT_ENDPOINT_REFERENCE) > count(sparse, FindingType.JAVASCRIPT_ENDPOINT_REFERENCE));
+        assertTrue(count(dense, FindingType.DOM_XSS_SINK) > 0);
+    }
+
+    @Test
+    void sourceMapsParseAsDisclosures() {
+        String map = new SyntheticCorpus(5).sourceMap(SourceMapSpec.typical(6));
+
+        assertTrue(SourceMapAnalyzer.looksLikeSourceMap("https://corpus.test/app.js.map", map));
+        assertTrue(count(SourceMapAnalyzer.analyzeSourceMap("https://corpus.test/app.js.map", map), FindingType.SOURCE_MAP_DISCLOSURE) > 0);
+    }
+
+    @Test
+    void resourcesAreGeneratedLazilyAndCoverEveryContentKind() {
+        List<SyntheticCorpus.Resource> resources = new SyntheticCorpus(11).resources(50_000);
+
+        assertEquals(50_000, resources.size());
+        assertEquals(resources.get(49_999), new SyntheticCorpus(11).resource(49_999));
+        assertTrue(resources.subList(0, 200).stream().map(SyntheticCorpus.Resource::mimeType).distinct().count() >= 5);
+        assertThrows(IndexOutOfBoundsException.class, () -> resources.get(50_000));
+    }
+
+    @Test
+    void rejectsOutOfRangeShapes() {
+        assertThrows(IllegalArgumentException.class, () -> new HtmlSpec(10, 2, 1.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScriptSpec(1024, 0.8, 0.5));
+    }
+
+    private static long count(List<Finding> findings, FindingType type) {
+        return findings.stream().filter(f -> f.type().equals(type.name())).count();
+    }
+}
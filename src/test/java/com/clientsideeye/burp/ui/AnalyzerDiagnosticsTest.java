@@ -0,0 +1,41 @@
+package com.clientsideeye.burp.ui;
+
+import com.clientsideeye.burp.core.AnalyzerMetrics.Analyzer;
+import com.clientsideeye.burp.core.AnalyzerMetrics.Totals;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalyzerDiagnosticsTest {
+    @Test
+    void summarizesOnlyAnalyzersThatRan() {
+        Map<Analyzer, Totals> activity = new EnumMap<>(Analyzer.class);
+        activity.put(Analyzer.HTML, new Totals(12, 2_500_000, 40, 3, 1_250_000_000L));
+        activity.put(Analyzer.JAVASCRIPT, new Totals(0, 0, 0, 0, 0));
+        activity.put(Analyzer.SOURCE_MAP, new Totals(1, 100_000, 2, 0, 5_000_000L));
+
+        assertEquals(
+            "html 12 runs, 2.50 M chars in, 40 findings, 3 truncated, 1.25 s; source_map 1 runs, 0.10 M chars in, 2 findings, 0 truncated, 0.01 s",
+            AnalyzerDiagnostics.summarize(activity));
+        assertEquals("none ran", AnalyzerDiagnostics.summarize(Map.of()));
+    }
+
+    @Test
+    void derivesRatesAndPercentilesInMilliseconds() {
+        AnalyzerDiagnostics.Row row = AnalyzerDiagnostics.row(Analyzer.JAVASCRIPT,
+            new Totals(4, 8_000_000, 9, 1, 2_000_000_000L), 300_000_000L, 900_000_000L);
+
+        assertEquals("javascript", row.analyzer());
+        assertEquals(500.0, row.meanMs(), 1e-9);
+        assertEquals(300.0, row.p50Ms(), 1e-9);
+        assertEquals(900.0, row.p99Ms(), 1e-9);
+        assertEquals(4.0, row.mcharsPerSecond(), 1e-9);
+
+        AnalyzerDiagnostics.Row idle = AnalyzerDiagnostics.row(Analyzer.HTML, new Totals(0, 0, 0, 0, 0), 0, 0);
+        assertEquals(0.0, idle.meanMs());
+        assertEquals(0.0, idle.mcharsPerSecond());
+    }
+}
@@ -0,0 +1,156 @@
+package com.clientsideeye.burp.ui;
+
+import burp.api.montoya.http.message.HttpRequestResponse;
+import com.clientsideeye.burp.integration.BrowserBridgeServer;
+import com.clientsideeye.burp.testing.FakeMontoya;
+import com.clientsideeye.burp.testing.SyntheticCorpus;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Headless end-to-end throughput against {@link FakeMontoya}: findings per second from a synthetic site map
+ * through {@link SiteMapScanRunner} into the tab's store, and browser-bridge batch ingest into the same
+ * store over real HTTP. Each bridge client posts from its own extension origin so the per-origin rate
+ * limiter does not cap the measurement.
+ *
+ * <p>Run with {@code ./gradlew endToEndBenchmark} or {@code -PsiteMapItems=N -PbridgeFindings=M}.
+ */
+public final class EndToEndBenchmark {
+    private static final long SEED = 0x5EED;
+    private static final int BRIDGE_CLIENTS = 4;
+    private static final int BRIDGE_BATCH = 200;
+    private static final Pattern ACCEPTED = Pattern.compile("\"accepted\"\\s*:\\s*(\\d+)");
+
+    private EndToEndBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int siteMapItems = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int bridgeFindings = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        FakeMontoya fake = FakeMontoya.withSiteMap(new SyntheticCorpus(SEED), siteMapItems);
+        ExecutorService bg = Executors.newSingleThreadExecutor();
+        ClientSideEyeTab tab = new ClientSideEyeTab(fake.api(), bg);
+        try {
+            siteMap(fake, tab, siteMapItems);
+            bridge(fake, tab, bridgeFindings);
+        } finally {
+            tab.shutdown();
+            bg.shutdownNow();
+        }
+        for (String error : fake.errors()) {
+            System.err.println(error);
+        }
+    }
+
+    private static void siteMap(FakeMontoya fake, ClientSideEyeTab tab, int items) throws InterruptedException {
+        List<HttpRequestResponse> siteMap = fake.api().siteMap().requestResponses();
+        long insertedBefore = tab.ingestStats().inserted();
+        long start = System.nanoTime();
+        SiteMapScanSummary summary = SiteMapScanRunner.scan(siteMap, url -> true, Integer.MAX_VALUE, tab::addFindings);
+        awaitIngestIdle(tab);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT,
+            "site map: items=%d analyzed=%d findings=%d stored=%d seconds=%.2f items/s=%.0f findings/s=%.0f%n",
+            items, summary.analyzed(), summary.added(), tab.ingestStats().inserted() - insertedBefore, seconds,
+            items / seconds, summary.added() / seconds);
+    }
+
+    private static void bridge(FakeMontoya fake, ClientSideEyeTab tab, int findings) throws Exception {
+        BrowserBridgeServer server = new BrowserBridgeServer(fake.api(), tab);
+        server.start();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        URI uri = URI.create("http://127.0.0.1:" + server.boundPort() + "/api/findings");
+        ExecutorService clients = Executors.newFixedThreadPool(BRIDGE_CLIENTS);
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong pushedBack = new AtomicLong();
+        long insertedBefore = tab.ingestStats().inserted();
+        try {
+            long start = System.nanoTime();
+            Future<?>[] running = new Future<?>[BRIDGE_CLIENTS];
+            for (int c = 0; c < BRIDGE_CLIENTS; c++) {
+                int clientId = c;
+                running[c] = clients.submit(() -> {
+                    for (int first = clientId * BRIDGE_BATCH; first < findings; first += BRIDGE_CLIENTS * BRIDGE_BATCH) {
+                        String body = batch(first, Math.min(BRIDGE_BATCH, findings - first));
+                        accepted.addAndGet(post(client, uri, server.authToken(), clientId, body, pushedBack));
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+            awaitIngestIdle(tab);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf(Locale.ROOT,
+                "bridge: findings=%d accepted=%d stored=%d pushedBack=%d seconds=%.2f findings/s=%.0f%n",
+                findings, accepted.get(), tab.ingestStats().inserted() - insertedBefore, pushedBack.get(), seconds,
+                accepted.get() / seconds);
+        } finally {
+            clients.shutdownNow();
+            server.stop();
+        }
+    }
+
+    // Retries 429/503 until the batch lands; returns the accepted count.
+    private static long post(HttpClient client, URI uri, String token, int clientId, String body, AtomicLong pushedBack) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .header("Content-Type", "application/json")
+            .header("Origin", "chrome-extension://end-to-end-benchmark-" + clientId)
+            .header("X-ClientSideEye-Token", token)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        while (true) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 429 || response.statusCode() == 503) {
+                pushedBack.incrementAndGet();
+                Thread.sleep(5);
+                continue;
+            }
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Bridge answered " + response.statusCode() + ": " + response.body());
+            }
+            Matcher matcher = ACCEPTED.matcher(response.body());
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+        }
+    }
+
+    private static String batch(int first, int count) {
+        StringBuilder out = new StringBuilder(count * 320).append('[');
+        for (int i = first; i < first + count; i++) {
+            if (i > first) {
+                out.append(',');
+            }
+            out.append("{\"source\":\"end-to-end-benchmark\",\"url\":\"https://bridge.corpus.test/app/").append(i % 500)
+                .append("\",\"type\":\"HIDDEN_OR_DISABLED_CONTROL\",\"severity\":\"MEDIUM\",\"confidence\":\"70\"")
+                .append(",\"title\":\"Disabled control\",\"summary\":\"Rendered DOM control is disabled client-side.\"")
+                .append(",\"evidence\":\"<button disabled data-testid=\\\"save-").append(i).append("\\\">Save</button>\"")
+                .append(",\"identity\":\"button|save-").append(i).append("\"}");
+        }
+        return out.append(']').toString();
+    }
+
+    private static void awaitIngestIdle(ClientSideEyeTab tab) throws InterruptedException {
+        while (true) {
+            ClientSideEyeTab.IngestStats stats = tab.ingestStats();
+            if (stats.queueDepth() == 0 && stats.pendingUiDeltas() == 0) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
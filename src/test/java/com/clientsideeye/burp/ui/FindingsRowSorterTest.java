@@ -0,0 +1,128 @@
+package com.clientsideeye.burp.ui;
+
+import com.clientsideeye.burp.core.Finding;
+import com.clientsideeye.burp.core.Finding.Severity;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.RowSorter.SortKey;
+import javax.swing.SortOrder;
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FindingsRowSorterTest {
+    @Test
+    void sortsConfidenceNumerically() {
+        FindingsTableModel model = model();
+        FindingsRowSorter sorter = sorter(model, FindingsTableModel.CONFIDENCE_COLUMN, SortOrder.ASCENDING);
+        model.setRows(List.of(finding("a", Severity.LOW, 85), finding("b", Severity.LOW, 9), finding("c", Severity.LOW, 100)));
+
+        assertEquals(9, model.getValueAt(sorter.convertRowIndexToModel(0), FindingsTableModel.CONFIDENCE_COLUMN));
+        assertEquals(85, model.getValueAt(sorter.convertRowIndexToModel(1), FindingsTableModel.CONFIDENCE_COLUMN));
+        assertEquals(100, model.getValueAt(sorter.convertRowIndexToModel(2), FindingsTableModel.CONFIDENCE_COLUMN));
+        assertEquals(Integer.class, model.getColumnClass(FindingsTableModel.CONFIDENCE_COLUMN));
+    }
+
+    @Test
+    void defaultKeysOrderBySeverityThenConfidence() {
+        FindingsTableModel model = model();
+        FindingsRowSorter sorter = sorter(model, FindingsTableModel.SEVERITY_COLUMN, SortOrder.DESCENDING);
+        model.setRows(List.of(
+            finding("a", Severity.INFO, 99),
+            finding("b", Severity.HIGH, 60),
+            finding("c", Severity.HIGH, 90),
+            finding("d", Severity.MEDIUM, 70)
+        ));
+
+        assertEquals(List.of("c", "b", "d", "a"), viewTitles(model, sorter));
+    }
+
+    @Test
+    void incrementalInsertsMatchFullRebuild() {
+        FindingsTableModel incremental = model();
+        FindingsRowSorter incrementalSorter = sorter(incremental, FindingsTableModel.CONFIDENCE_COLUMN, SortOrder.DESCENDING);
+        List<Finding> all = new ArrayList<>();
+        Random random = new Random(7);
+        for (int batch = 0; batch < 20; batch++) {
+            List<Finding> findings = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                Severity severity = Severity.values()[random.nextInt(Severity.values().length)];
+                findings.add(finding("f" + batch + "-" + i, severity, random.nextInt(101)));
+            }
+            incremental.appendRows(findings);
+            all.addAll(findings);
+        }
+
+        FindingsTableModel rebuilt = model();
+        FindingsRowSorter rebuiltSorter = sorter(rebuilt, FindingsTableModel.CONFIDENCE_COLUMN, SortOrder.DESCENDING);
+        rebuilt.setRows(all);
+
+        assertEquals(viewTitles(rebuilt, rebuiltSorter), viewTitles(incremental, incrementalSorter));
+    }
+
+    @Test
+    void keepsOrderAfterPrefixRemovalAndReplacement() {
+        FindingsTableModel model = model();
+        FindingsRowSorter sorter = sorter(model, FindingsTableModel.CONFIDENCE_COLUMN, SortOrder.ASCENDING);
+        model.appendRows(List.of(finding("a", Severity.LOW, 50), finding("b", Severity.LOW, 10), finding("c", Severity.LOW, 30)));
+
+        model.removeFirstRows(1);
+        model.replaceRows(Map.of(model.rowOf(finding("b", Severity.LOW, 0).stableKey()), finding("b", Severity.LOW, 95)));
+
+        assertEquals(List.of("c", "b"), viewTitles(model, sorter));
+        assertEquals(-1, model.rowOf(finding("a", Severity.LOW, 0).stableKey()));
+        assertEquals(1, sorter.convertRowIndexToView(0));
+    }
+
+    @Test
+    void keepsOnlyTheSortKeyItApplies() {
+        FindingsRowSorter sorter = sorter(model(), FindingsTableModel.CONFIDENCE_COLUMN, SortOrder.ASCENDING);
+
+        sorter.toggleSortOrder(FindingsTableModel.SEVERITY_COLUMN);
+        assertEquals(List.of(new SortKey(FindingsTableModel.SEVERITY_COLUMN, SortOrder.ASCENDING)), sorter.getSortKeys());
+
+        sorter.setSortKeys(List.of(
+            new SortKey(FindingsTableModel.CONFIDENCE_COLUMN, SortOrder.DESCENDING),
+            new SortKey(FindingsTableModel.SEVERITY_COLUMN, SortOrder.ASCENDING)));
+        assertEquals(List.of(new SortKey(FindingsTableModel.CONFIDENCE_COLUMN, SortOrder.DESCENDING)), sorter.getSortKeys());
+    }
+
+    private static FindingsTableModel model() {
+        return new FindingsTableModel(finding -> false, finding -> "general");
+    }
+
+    private static FindingsRowSorter sorter(FindingsTableModel model, int column, SortOrder order) {
+        FindingsRowSorter sorter = new FindingsRowSorter(model);
+        model.addTableModelListener(event -> {
+            if (event.getFirstRow() == TableModelEvent.HEADER_ROW) {
+                sorter.modelStructureChanged();
+            } else if (event.getLastRow() == Integer.MAX_VALUE) {
+                sorter.allRowsChanged();
+            } else if (event.getType() == TableModelEvent.INSERT) {
+                sorter.rowsInserted(event.getFirstRow(), event.getLastRow());
+            } else if (event.getType() == TableModelEvent.DELETE) {
+                sorter.rowsDeleted(event.getFirstRow(), event.getLastRow());
+            } else {
+                sorter.rowsUpdated(event.getFirstRow(), event.getLastRow());
+            }
+        });
+        sorter.setSortKeys(List.of(new SortKey(column, order)));
+        return sorter;
+    }
+
+    private static List<String> viewTitles(FindingsTableModel model, FindingsRowSorter sorter) {
+        List<String> titles = new ArrayList<>();
+        for (int view = 0; view < sorter.getViewRowCount(); view++) {
+            titles.add(model.getAt(sorter.convertRowIndexToModel(view)).title());
+        }
+        return titles;
+    }
+
+    private static Finding finding(String title, Severity severity, int confidence) {
+        return new Finding("DOM_XSS_SINK", severity, confidence, "https://example.com/app", "example.com", title, "summary", "evidence", "recommendation", title);
+    }
+}
@@ -0,0 +1,229 @@
+package com.clientsideeye.burp.ui;
+
+import burp.api.montoya.http.message.HttpRequestResponse;
+import com.clientsideeye.burp.core.HtmlAnalyzer;
+import com.clientsideeye.burp.core.JavaScriptAnalyzer;
+import com.clientsideeye.burp.core.ResponseAnalyzer;
+import com.clientsideeye.burp.core.SourceMapAnalyzer;
+import com.clientsideeye.burp.testing.FakeMontoya;
+import com.clientsideeye.burp.testing.SyntheticCorpus;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Performance regression gate: short, warmed throughput runs of each analyzer and of {@link SiteMapScanRunner}
+ * over the fixed-seed {@link SyntheticCorpus}, compared against a stored baseline. A case fails when its MB/s
+ * drops, or its bytes allocated per MB of input rise, by more than the allowed tolerance. Every run writes a
+ * JSON result file for trending across releases.
+ *
+ * <p>Run with {@code ./gradlew perfCheck}; {@code -PperfUpdateBaseline} records the current numbers as the new
+ * baseline instead of checking them.
+ */
+public final class PerfCheck {
+    private static final long SEED = 0x5EED;
+    private static final int INPUT_BYTES = 256 * 1024;
+    private static final int SITE_MAP_ITEMS = 400;
+    private static final long WARMUP_NANOS = 1_500_000_000L;
+    private static final int ROUNDS = 7;
+    private static final long ROUND_NANOS = 300_000_000L;
+
+    // Keeps the JIT from discarding workload results.
+    static volatile Object sink;
+
+    private PerfCheck() {
+    }
+
+    /** One measured workload; {@code bytes} is the input size a single call processes. */
+    record Case(String name, long bytes, Supplier<Object> workload) {
+    }
+
+    record Measurement(String name, double mbPerSecond, double allocBytesPerMb) {
+    }
+
+    record Baseline(double mbPerSecond, double allocBytesPerMb) {
+    }
+
+    /** {@code status} is {@code pass}, {@code new} (no baseline yet), {@code slower} or {@code allocates-more}. */
+    record Verdict(Measurement measured, Baseline baseline, String status) {
+        boolean failed() {
+            return !"pass".equals(status) && !"new".equals(status);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path baselineFile = Path.of(args[0]);
+        Path resultFile = Path.of(args[1]);
+        double throughputTolerance = Double.parseDouble(args[2]);
+        double allocTolerance = Double.parseDouble(args[3]);
+        boolean updateBaseline = args.length > 4 && Boolean.parseBoolean(args[4]);
+
+        List<Measurement> measured = new ArrayList<>();
+        for (Case perfCase : cases()) {
+            Measurement measurement = measure(perfCase);
+            measured.add(measurement);
+            System.out.printf(Locale.ROOT, "%-12s %10.2f MB/s %14.0f alloc B/MB%n",
+                measurement.name(), measurement.mbPerSecond(), measurement.allocBytesPerMb());
+        }
+
+        if (updateBaseline) {
+            writeBaseline(baselineFile, measured);
+            System.out.println("Baseline updated: " + baselineFile);
+            return;
+        }
+
+        Properties baseline = readBaseline(baselineFile);
+        List<Verdict> verdicts = new ArrayList<>();
+        for (Measurement measurement : measured) {
+            verdicts.add(verdict(measurement, baselineFor(baseline, measurement.name()), throughputTolerance, allocTolerance));
+        }
+        writeResult(resultFile, baselineFile, throughputTolerance, allocTolerance, verdicts);
+        System.out.println("Results: " + resultFile);
+
+        List<String> failures = verdicts.stream()
+            .filter(Verdict::failed)
+            .map(verdict -> String.format(Locale.ROOT, "%s %s (%.2f MB/s vs %.2f, %.0f alloc B/MB vs %.0f)",
+                verdict.measured().name(), verdict.status(),
+                verdict.measured().mbPerSecond(), verdict.baseline().mbPerSecond(),
+                verdict.measured().allocBytesPerMb(), verdict.baseline().allocBytesPerMb()))
+            .toList();
+        if (!failures.isEmpty()) {
+            failures.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    static Verdict verdict(Measurement measured, Baseline baseline, double throughputTolerance, double allocTolerance) {
+        if (baseline == null) {
+            return new Verdict(measured, null, "new");
+        }
+        if (measured.mbPerSecond() < baseline.mbPerSecond() * (1 - throughputTolerance)) {
+            return new Verdict(measured, baseline, "slower");
+        }
+        if (measured.allocBytesPerMb() > baseline.allocBytesPerMb() * (1 + allocTolerance)) {
+            return new Verdict(measured, baseline, "allocates-more");
+        }
+        return new Verdict(measured, baseline, "pass");
+    }
+
+    static Baseline baselineFor(Properties baseline, String name) {
+        String mbPerSecond = baseline.getProperty(name + ".mbPerSecond");
+        String allocBytesPerMb = baseline.getProperty(name + ".allocBytesPerMb");
+        if (mbPerSecond == null || allocBytesPerMb == null) {
+            return null;
+        }
+        return new Baseline(Double.parseDouble(mbPerSecond), Double.parseDouble(allocBytesPerMb));
+    }
+
+    private static List<Case> cases() {
+        SyntheticCorpus corpus = new SyntheticCorpus(SEED);
+        String pageUrl = "https://perf.corpus.test/app/settings";
+        String scriptUrl = "https://perf.corpus.test/static/js/main.js";
+        String html = corpus.htmlPageOfSize(INPUT_BYTES, SyntheticCorpus.HtmlSpec.typical(0));
+        String script = corpus.javaScriptBundle(SyntheticCorpus.ScriptSpec.typical(INPUT_BYTES));
+        String sourceMap = corpus.sourceMapOfSize(INPUT_BYTES, 2048);
+
+        // Materialized up front so the site-map case measures scanning, not corpus generation.
+        List<SyntheticCorpus.Resource> resources = List.copyOf(corpus.resources(SITE_MAP_ITEMS));
+        List<HttpRequestResponse> siteMap = List.copyOf(new FakeMontoya(resources).api().siteMap().requestResponses());
+        long siteMapBytes = resources.stream().mapToLong(resource -> resource.body().length()).sum();
+
+        return List.of(
+            new Case("html", html.length(), () -> HtmlAnalyzer.analyzeHtml(pageUrl, html)),
+            new Case("javascript", script.length(), () -> JavaScriptAnalyzer.analyzeJavaScript(scriptUrl, script)),
+            new Case("sourcemap", sourceMap.length(), () -> SourceMapAnalyzer.analyzeSourceMap(scriptUrl + ".map", sourceMap)),
+            new Case("response", html.length(), () -> ResponseAnalyzer.analyze(pageUrl, html)),
+            new Case("siteMap", siteMapBytes, () -> SiteMapScanRunner.scan(siteMap, url -> true, Integer.MAX_VALUE, findings -> true))
+        );
+    }
+
+    // Best MB/s over the rounds: GC pauses and CPU contention only ever slow a round down, so the fastest round is the
+    // most repeatable figure on a shared machine. Allocation is summed across all rounds.
+    private static Measurement measure(Case perfCase) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            sink = perfCase.workload().get();
+        }
+
+        double best = 0;
+        long allocated = 0;
+        long processed = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            long deadline = start + ROUND_NANOS;
+            long ops = 0;
+            long now;
+            do {
+                sink = perfCase.workload().get();
+                ops++;
+                now = System.nanoTime();
+            } while (now < deadline);
+            allocated += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            processed += ops * perfCase.bytes();
+            best = Math.max(best, ops * perfCase.bytes() / 1e6 / ((now - start) / 1e9));
+        }
+        return new Measurement(perfCase.name(), best, allocated / (processed / 1e6));
+    }
+
+    private static Properties readBaseline(Path file) throws IOException {
+        Properties baseline = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                baseline.load(reader);
+            }
+        }
+        return baseline;
+    }
+
+    private static void writeBaseline(Path file, List<Measurement> measured) throws IOException {
+        StringBuilder out = new StringBuilder()
+            .append("# perfCheck baseline; refresh with ./gradlew perfCheck -PperfUpdateBaseline on the machine that runs the gate.\n")
+            .append("# MB/s is the best of several warmed rounds; allocBytesPerMb is bytes allocated per MB of input.\n");
+        for (Measurement measurement : measured) {
+            out.append(String.format(Locale.ROOT, "%s.mbPerSecond=%.2f%n", measurement.name(), measurement.mbPerSecond()));
+            out.append(String.format(Locale.ROOT, "%s.allocBytesPerMb=%.0f%n", measurement.name(), measurement.allocBytesPerMb()));
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, out, StandardCharsets.UTF_8);
+    }
+
+    private static void writeResult(Path file, Path baselineFile, double throughputTolerance, double allocTolerance,
+                                    List<Verdict> verdicts) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(String.format(Locale.ROOT,
+                "{\"timestamp\":%d,\"baseline\":\"%s\",\"throughputTolerance\":%.3f,\"allocTolerance\":%.3f,\"passed\":%s,\"results\":[",
+                System.currentTimeMillis(), baselineFile.toString().replace("\\", "\\\\").replace("\"", "\\\""),
+                throughputTolerance, allocTolerance, verdicts.stream().noneMatch(Verdict::failed)));
+            for (int i = 0; i < verdicts.size(); i++) {
+                Verdict verdict = verdicts.get(i);
+                Measurement measured = verdict.measured();
+                out.write(i == 0 ? "" : ",");
+                out.write(String.format(Locale.ROOT, "{\"name\":\"%s\",\"status\":\"%s\",\"mbPerSecond\":%.2f,\"allocBytesPerMb\":%.0f",
+                    measured.name(), verdict.status(), measured.mbPerSecond(), measured.allocBytesPerMb()));
+                if (verdict.baseline() != null) {
+                    out.write(String.format(Locale.ROOT, ",\"baselineMbPerSecond\":%.2f,\"baselineAllocBytesPerMb\":%.0f",
+                        verdict.baseline().mbPerSecond(), verdict.baseline().allocBytesPerMb()));
+                }
+                out.write("}");
+            }
+            out.write("]}\n");
+        }
+    }
+}
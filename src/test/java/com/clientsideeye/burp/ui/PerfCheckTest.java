@@ -0,0 +1,41 @@
+package com.clientsideeye.burp.ui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerfCheckTest {
+
+    @Test
+    void failsOnlyBeyondTheTolerance() {
+        PerfCheck.Baseline baseline = new PerfCheck.Baseline(100, 1_000_000);
+
+        assertEquals("pass", verdict(80, 1_100_000, baseline).status());
+        assertEquals("slower", verdict(74, 1_000_000, baseline).status());
+        assertEquals("allocates-more", verdict(120, 1_200_000, baseline).status());
+        assertTrue(verdict(74, 1_000_000, baseline).failed());
+        assertFalse(verdict(100, 900_000, baseline).failed());
+    }
+
+    @Test
+    void newCasesWithoutBaselinePass() {
+        Properties stored = new Properties();
+        stored.setProperty("html.mbPerSecond", "42.5");
+        stored.setProperty("html.allocBytesPerMb", "900");
+
+        assertEquals(new PerfCheck.Baseline(42.5, 900), PerfCheck.baselineFor(stored, "html"));
+        assertNull(PerfCheck.baselineFor(stored, "siteMap"));
+        PerfCheck.Verdict verdict = verdict(1, 1, null);
+        assertEquals("new", verdict.status());
+        assertFalse(verdict.failed());
+    }
+
+    private static PerfCheck.Verdict verdict(double mbPerSecond, double allocBytesPerMb, PerfCheck.Baseline baseline) {
+        return PerfCheck.verdict(new PerfCheck.Measurement("case", mbPerSecond, allocBytesPerMb), baseline, 0.25, 0.15);
+    }
+}
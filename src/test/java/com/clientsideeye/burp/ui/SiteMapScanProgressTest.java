@@ -0,0 +1,53 @@
+package com.clientsideeye.burp.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SiteMapScanProgressTest {
+    @Test
+    void reportsRateAndEta() {
+        long[] now = {0};
+        SiteMapScanProgress progress = new SiteMapScanProgress(2_000, () -> now[0]);
+        assertEquals("0 / 2,000 items | 0.0 items/s | ETA --:--", progress.describe());
+
+        progress.progress(500, 0);
+        now[0] = 5_000_000_000L;
+
+        assertEquals(25, progress.percent());
+        assertEquals(100.0, progress.itemsPerSecond(), 1e-9);
+        assertEquals("500 / 2,000 items | 100.0 items/s | ETA 0:15", progress.describe());
+        assertEquals("1:01:01", SiteMapScanProgress.duration(3_661));
+    }
+
+    @Test
+    void itemsPastTheScanCapDoNotInflateRateOrEta() {
+        long[] now = {0};
+        SiteMapScanProgress progress = new SiteMapScanProgress(1_000, () -> now[0]);
+        progress.progress(500, 0);
+        now[0] = 5_000_000_000L;
+        assertEquals("500 / 1,000 items | 100.0 items/s | ETA 0:05", progress.describe());
+
+        // Items past the cap are skipped instantly and must not count toward the rate.
+        progress.progress(5_500, 4_500);
+        now[0] = 10_000_000_000L;
+
+        assertEquals(100, progress.percent());
+        assertEquals(100.0, progress.itemsPerSecond(), 1e-9);
+        assertEquals(4_500, progress.skippedByCap());
+        assertEquals("1,000 / 1,000 items | 100.0 items/s | ETA 0:00 | 4,500 over scan cap", progress.describe());
+    }
+
+    @Test
+    void cancellationIsVisibleToTheRunner() {
+        SiteMapScanProgress progress = new SiteMapScanProgress(10, System::nanoTime);
+        assertFalse(progress.cancelled());
+
+        progress.requestCancel();
+
+        assertTrue(progress.cancelled());
+        assertTrue(progress.describe().endsWith(" | cancelling..."));
+    }
+}
@@ -0,0 +1,109 @@
+package com.clientsideeye.burp.ui;
+
+import burp.api.montoya.http.message.HttpRequestResponse;
+import com.clientsideeye.burp.core.Finding;
+import com.clientsideeye.burp.testing.FakeMontoya;
+import com.clientsideeye.burp.testing.SyntheticCorpus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SiteMapScanRunnerTest {
+
+    @Test
+    void scansInScopeCorpusSiteMapUpToTheCap() {
+        FakeMontoya fake = FakeMontoya.withSiteMap(new SyntheticCorpus(21), 300);
+        List<HttpRequestResponse> items = fake.api().siteMap().requestResponses();
+        List<Finding> received = new ArrayList<>();
+
+        SiteMapScanSummary summary = SiteMapScanRunner.scan(items, url -> url.contains("://app."), 50, received::addAll);
+
+        long eligible = SiteMapScanRunner.countEligible(items, url -> url.contains("://app."));
+        assertEquals(50, summary.analyzed());
+        assertEquals(eligible - 50, summary.skippedByCap());
+        assertEquals(received.size(), summary.added());
+        assertTrue(summary.added() > 0);
+        assertTrue(received.stream().allMatch(f -> f.url().contains("://app.")));
+        long runs = summary.analyzerActivity().values().stream().mapToLong(totals -> totals.runs()).sum();
+        assertTrue(runs > 0, String.valueOf(summary.analyzerActivity()));
+    }
+
+    @Test
+    void stopsAtAnItemBoundaryWhenCancelledAndReportsPartialCounts() {
+        FakeMontoya fake = FakeMontoya.withSiteMap(new SyntheticCorpus(33), 200);
+        List<HttpRequestResponse> items = fake.api().siteMap().requestResponses();
+        List<Finding> received = new ArrayList<>();
+        SiteMapScanProgress progress = new SiteMapScanProgress(items.size(), System::nanoTime);
+        SiteMapScanRunner.Listener cancelAfter25 = new SiteMapScanRunner.Listener() {
+            @Override
+            public void progress(int eligibleSeen, int skippedByCap) {
+                progress.progress(eligibleSeen, skippedByCap);
+                if (eligibleSeen == 25) progress.requestCancel();
+            }
+
+            @Override
+            public boolean cancelled() {
+                return progress.cancelled();
+            }
+        };
+
+        SiteMapScanSummary summary = SiteMapScanRunner.scan(items, url -> true, Integer.MAX_VALUE, received::addAll, cancelAfter25);
+
+        assertTrue(summary.cancelled());
+        assertEquals(25, summary.eligibleSeen());
+        assertEquals(25, progress.seen());
+        assertEquals(25, summary.analyzed() + summary.skippedByCap() + countBlank(items.subList(0, 25)));
+        assertEquals(received.size(), summary.added());
+        assertFalse(SiteMapScanRunner.scan(items, url -> true, 10, findings -> true).cancelled());
+    }
+
+    @Test
+    void reportsItemsPastTheCapSeparatelyFromProgress() {
+        List<HttpRequestResponse> items = FakeMontoya.withSiteMap(new SyntheticCorpus(33), 200).api().siteMap().requestResponses();
+        SiteMapScanProgress progress = new SiteMapScanProgress(10, System::nanoTime);
+
+        SiteMapScanSummary summary = SiteMapScanRunner.scan(items, url -> true, 10, findings -> true, progress);
+
+        assertEquals(10, summary.analyzed());
+        assertTrue(summary.skippedByCap() > 0);
+        assertEquals(summary.skippedByCap(), progress.skippedByCap());
+        assertEquals(summary.eligibleSeen() - summary.skippedByCap(), progress.seen());
+        assertEquals(100, progress.percent());
+    }
+
+    @Test
+    void countsOnlyBatchesTheSinkAccepted() {
+        List<HttpRequestResponse> items = FakeMontoya.withSiteMap(new SyntheticCorpus(21), 100).api().siteMap().requestResponses();
+        List<Finding> received = new ArrayList<>();
+        int[] offered = new int[1];
+
+        SiteMapScanSummary summary = SiteMapScanRunner.scan(items, url -> true, Integer.MAX_VALUE,
+            findings -> ++offered[0] % 2 == 0 && received.addAll(findings));
+
+        assertTrue(offered[0] > 1, String.valueOf(offered[0]));
+        assertEquals(received.size(), summary.added());
+    }
+
+    private static int countBlank(List<HttpRequestResponse> items) {
+        return (int) items.stream().filter(item -> item.response().bodyToString().isBlank()).count();
+    }
+
+    @Test
+    void skipsOutOfScopeItems() {
+        List<SyntheticCorpus.Resource> resources = List.of(
+            new SyntheticCorpus.Resource("https://in.test/a", "text/html", "<button disabled type=\"submit\">Save</button>"),
+            new SyntheticCorpus.Resource("https://out.test/b", "text/html", "<button disabled type=\"submit\">Save</button>"));
+        FakeMontoya fake = new FakeMontoya(resources, url -> url.startsWith("https://in.test/"));
+        List<Finding> received = new ArrayList<>();
+
+        SiteMapScanSummary summary = SiteMapScanRunner.scan(fake.api().siteMap().requestResponses(), url -> true, 10, received::addAll);
+
+        assertEquals(1, summary.analyzed());
+        assertTrue(received.stream().allMatch(f -> f.url().startsWith("https://in.test/")));
+    }
+}
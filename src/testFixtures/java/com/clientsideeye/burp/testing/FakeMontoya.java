@@ -0,0 +1,312 @@
+package com.clientsideeye.burp.testing;
+
+import burp.api.montoya.MontoyaApi;
+import burp.api.montoya.core.Registration;
+import burp.api.montoya.extension.Extension;
+import burp.api.montoya.extension.ExtensionUnloadingHandler;
+import burp.api.montoya.http.Http;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import burp.api.montoya.logging.Logging;
+import burp.api.montoya.persistence.PersistedObject;
+import burp.api.montoya.persistence.Persistence;
+import burp.api.montoya.sitemap.SiteMap;
+import burp.api.montoya.ui.UserInterface;
+import burp.api.montoya.ui.contextmenu.ContextMenuEvent;
+import burp.api.montoya.ui.contextmenu.ContextMenuItemsProvider;
+import burp.api.montoya.ui.swing.SwingUtils;
+
+import java.awt.Component;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-process stand-in for the parts of {@link MontoyaApi} ClientSideEye touches (site map, logging, HTTP,
+ * persistence, extension lifecycle and suite UI registration), so the tab, the site-map runner, the
+ * context-menu path and the bridge can run headless in tests and benchmarks.
+ *
+ * <p>Every Montoya interface is a dynamic proxy that answers only the methods listed here and throws
+ * {@link UnsupportedOperationException} naming anything else, so new Montoya methods never break the fake
+ * and an unexpected dependency on Burp shows up immediately.
+ */
+public final class FakeMontoya {
+
+    @FunctionalInterface
+    private interface Call {
+        Object invoke(Object[] args) throws Throwable;
+    }
+
+    private final List<SyntheticCorpus.Resource> resources;
+    private final Predicate<String> inScope;
+    private final List<String> output = new CopyOnWriteArrayList<>();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private final Map<String, Object> persisted = new ConcurrentHashMap<>();
+    private final Map<String, Component> suiteTabs = new ConcurrentHashMap<>();
+    private final List<ContextMenuItemsProvider> contextMenuProviders = new CopyOnWriteArrayList<>();
+    private final List<ExtensionUnloadingHandler> unloadingHandlers = new CopyOnWriteArrayList<>();
+    private final AtomicLong httpRequests = new AtomicLong();
+    private final MontoyaApi api;
+    private volatile Map<String, SyntheticCorpus.Resource> resourcesByUrl;
+
+    /** A fake whose site map is {@code resources}, all of it in scope. */
+    public FakeMontoya(List<SyntheticCorpus.Resource> resources) {
+        this(resources, url -> true);
+    }
+
+    public FakeMontoya(List<SyntheticCorpus.Resource> resources, Predicate<String> inScope) {
+        // Not copied: a corpus list generates entries as they are read and must stay lazy.
+        this.resources = resources;
+        this.inScope = inScope;
+        this.api = buildApi();
+    }
+
+    /** A fake whose site map holds the first {@code items} entries of {@code corpus}, generated as they are read. */
+    public static FakeMontoya withSiteMap(SyntheticCorpus corpus, int items) {
+        return new FakeMontoya(corpus.resources(items));
+    }
+
+    public MontoyaApi api() {
+        return api;
+    }
+
+    public List<String> output() {
+        return List.copyOf(output);
+    }
+
+    public List<String> errors() {
+        return List.copyOf(errors);
+    }
+
+    public Map<String, Component> suiteTabs() {
+        return Map.copyOf(suiteTabs);
+    }
+
+    public List<ContextMenuItemsProvider> contextMenuProviders() {
+        return List.copyOf(contextMenuProviders);
+    }
+
+    public String persistedString(String key) {
+        return (String) persisted.get(persistedKey("string", key));
+    }
+
+    public long httpRequestCount() {
+        return httpRequests.get();
+    }
+
+    /** Runs the registered unloading handlers, as Burp does when the extension is removed. */
+    public void unload() {
+        for (ExtensionUnloadingHandler handler : unloadingHandlers) {
+            handler.extensionUnloaded();
+        }
+    }
+
+    /** A site-map style entry serving {@code resource} as a 200 response. */
+    public HttpRequestResponse requestResponse(SyntheticCorpus.Resource resource) {
+        HttpRequest request = proxy(HttpRequest.class, Map.of(
+            "url", args -> resource.url(),
+            "method", args -> "GET",
+            "path", args -> pathOf(resource.url()),
+            "isInScope", args -> inScope.test(resource.url()),
+            "bodyToString", args -> ""
+        ));
+        HttpResponse response = proxy(HttpResponse.class, Map.of(
+            "statusCode", args -> (short) 200,
+            "bodyToString", args -> resource.body(),
+            "headerValue", args -> "content-type".equalsIgnoreCase((String) args[0]) ? resource.mimeType() : null,
+            "hasHeader", args -> "content-type".equalsIgnoreCase(String.valueOf(args[0]))
+        ));
+        return proxy(HttpRequestResponse.class, Map.of(
+            "request", args -> request,
+            "response", args -> response,
+            "hasResponse", args -> true,
+            "url", args -> resource.url()
+        ));
+    }
+
+    /** A right-click event over {@code selected}, for driving registered context-menu providers. */
+    public static ContextMenuEvent contextMenuEvent(List<HttpRequestResponse> selected) {
+        return proxy(ContextMenuEvent.class, Map.of("selectedRequestResponses", args -> selected));
+    }
+
+    private MontoyaApi buildApi() {
+        Logging logging = proxy(Logging.class, Map.of(
+            "logToOutput", args -> output.add(String.valueOf(args[0])),
+            "logToError", args -> errors.add(args.length > 1 ? args[0] + " " + args[1] : String.valueOf(args[0]))
+        ));
+        SiteMap siteMap = proxy(SiteMap.class, Map.of(
+            "requestResponses", args -> new AbstractList<HttpRequestResponse>() {
+                @Override
+                public HttpRequestResponse get(int index) {
+                    return requestResponse(resources.get(index));
+                }
+
+                @Override
+                public int size() {
+                    return resources.size();
+                }
+            }
+        ));
+        Http http = proxy(Http.class, Map.of("sendRequest", args -> send((HttpRequest) args[0])));
+        PersistedObject extensionData = persistedObject();
+        Persistence persistence = proxy(Persistence.class, Map.of("extensionData", args -> extensionData));
+        Extension extension = proxy(Extension.class, Map.of(
+            "setName", args -> null,
+            "registerUnloadingHandler", args -> register(unloadingHandlers, (ExtensionUnloadingHandler) args[0])
+        ));
+        SwingUtils swingUtils = proxy(SwingUtils.class, Map.of("suiteFrame", args -> null));
+        UserInterface userInterface = proxy(UserInterface.class, Map.of(
+            "registerSuiteTab", args -> {
+                suiteTabs.put((String) args[0], (Component) args[1]);
+                return registration(() -> suiteTabs.remove((String) args[0]));
+            },
+            "registerContextMenuItemsProvider", args -> register(contextMenuProviders, (ContextMenuItemsProvider) args[0]),
+            "swingUtils", args -> swingUtils
+        ));
+        return proxy(MontoyaApi.class, Map.of(
+            "logging", args -> logging,
+            "siteMap", args -> siteMap,
+            "http", args -> http,
+            "persistence", args -> persistence,
+            "extension", args -> extension,
+            "userInterface", args -> userInterface
+        ));
+    }
+
+    // Answers from the site map by URL; anything else is a 404. The first request indexes the whole site map.
+    private HttpRequestResponse send(HttpRequest request) {
+        httpRequests.incrementAndGet();
+        Map<String, SyntheticCorpus.Resource> index = resourcesByUrl;
+        if (index == null) {
+            index = new HashMap<>();
+            for (SyntheticCorpus.Resource resource : resources) {
+                index.putIfAbsent(resource.url(), resource);
+            }
+            resourcesByUrl = index;
+        }
+        SyntheticCorpus.Resource resource = index.get(request.url());
+        if (resource != null) {
+            return requestResponse(resource);
+        }
+        HttpResponse notFound = proxy(HttpResponse.class, Map.of(
+            "statusCode", args -> (short) 404,
+            "bodyToString", args -> ""
+        ));
+        return proxy(HttpRequestResponse.class, Map.of(
+            "request", args -> request,
+            "response", args -> notFound,
+            "hasResponse", args -> true
+        ));
+    }
+
+    // get/set/delete<Type>(key) and <type>Keys() for every value type Montoya persists, kept in one map.
+    private PersistedObject persistedObject() {
+        return (PersistedObject) Proxy.newProxyInstance(PersistedObject.class.getClassLoader(), new Class<?>[] {PersistedObject.class},
+            (self, method, args) -> {
+                String name = method.getName();
+                if (name.endsWith("Keys") && (args == null || args.length == 0)) {
+                    String prefix = name.substring(0, name.length() - 4).toLowerCase(Locale.ROOT) + "\0";
+                    Set<String> keys = persisted.keySet().stream()
+                        .filter(key -> key.startsWith(prefix))
+                        .map(key -> key.substring(prefix.length()))
+                        .collect(Collectors.toSet());
+                    return keys;
+                }
+                if (name.startsWith("get") && args != null && args.length == 1) {
+                    return persisted.get(persistedKey(name.substring(3), (String) args[0]));
+                }
+                if (name.startsWith("set") && args != null && args.length == 2) {
+                    String key = persistedKey(name.substring(3), (String) args[0]);
+                    if (args[1] == null) {
+                        persisted.remove(key);
+                    } else {
+                        persisted.put(key, args[1]);
+                    }
+                    return null;
+                }
+                if (name.startsWith("delete") && args != null && args.length == 1) {
+                    persisted.remove(persistedKey(name.substring(6), (String) args[0]));
+                    return null;
+                }
+                return objectMethod(PersistedObject.class, self, method, args);
+            });
+    }
+
+    private static String persistedKey(String type, String key) {
+        return type.toLowerCase(Locale.ROOT) + "\0" + key;
+    }
+
+    private static <T> Registration register(List<T> registry, T item) {
+        registry.add(item);
+        return registration(() -> registry.remove(item));
+    }
+
+    private static Registration registration(Runnable deregister) {
+        boolean[] registered = {true};
+        return proxy(Registration.class, Map.of(
+            "isRegistered", args -> registered[0],
+            "deregister", args -> {
+                if (registered[0]) {
+                    registered[0] = false;
+                    deregister.run();
+                }
+                return null;
+            }
+        ));
+    }
+
+    private static String pathOf(String url) {
+        int scheme = url.indexOf("://");
+        int slash = url.indexOf('/', scheme < 0 ? 0 : scheme + 3);
+        return slash < 0 ? "/" : url.substring(slash);
+    }
+
+    private static <T> T proxy(Class<T> type, Map<String, Call> calls) {
+        InvocationHandler handler = (self, method, args) -> {
+            Call call = calls.get(method.getName());
+            if (call != null) {
+                return call.invoke(args == null ? new Object[0] : args);
+            }
+            return objectMethod(type, self, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object objectMethod(Class<?> type, Object self, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "toString":
+                if (method.getParameterCount() == 0) {
+                    return "Fake" + type.getSimpleName();
+                }
+                break;
+            case "hashCode":
+                if (method.getParameterCount() == 0) {
+                    return System.identityHashCode(self);
+                }
+                break;
+            case "equals":
+                if (method.getParameterCount() == 1) {
+                    return self == args[0];
+                }
+                break;
+            default:
+                break;
+        }
+        if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(self, method, args);
+        }
+        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not faked");
+    }
+}
@@ -0,0 +1,381 @@
+package com.clientsideeye.burp.testing;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of realistic analyzer inputs at controllable sizes: server-rendered HTML pages, minified
+ * JavaScript bundles and source maps, plus a lazily generated mix of them shaped like a Burp site map.
+ *
+ * <p>Output depends only on the seed and the requested shape. Each call derives its own random stream,
+ * so call order does not matter and two corpora with the same seed produce identical documents.
+ */
+public final class SyntheticCorpus {
+
+    /**
+     * Shape of a generated page: {@code controls} actionable elements, each wrapped in {@code nestingDepth}
+     * containers; {@code hiddenRatio} of them carry a hidden or disabled signal; {@code inlineScripts}
+     * inline script blocks are spread through the body.
+     */
+    public record HtmlSpec(int controls, int nestingDepth, double hiddenRatio, int inlineScripts) {
+        public HtmlSpec {
+            requireRange(controls, 0, Integer.MAX_VALUE, "controls");
+            requireRange(nestingDepth, 0, 64, "nestingDepth");
+            requireRatio(hiddenRatio, "hiddenRatio");
+            requireRange(inlineScripts, 0, Integer.MAX_VALUE, "inlineScripts");
+        }
+
+        public static HtmlSpec typical(int controls) {
+            return new HtmlSpec(controls, 4, 0.15, Math.max(1, controls / 50));
+        }
+    }
+
+    /**
+     * Shape of a minified bundle of about {@code bytes} characters; each statement is an endpoint reference
+     * with probability {@code endpointDensity} and a DOM/code sink with probability {@code sinkDensity}.
+     */
+    public record ScriptSpec(int bytes, double endpointDensity, double sinkDensity) {
+        public ScriptSpec {
+            requireRange(bytes, 0, Integer.MAX_VALUE, "bytes");
+            requireRatio(endpointDensity, "endpointDensity");
+            requireRatio(sinkDensity, "sinkDensity");
+            if (endpointDensity + sinkDensity > 1) {
+                throw new IllegalArgumentException("endpointDensity + sinkDensity must not exceed 1");
+            }
+        }
+
+        public static ScriptSpec typical(int bytes) {
+            return new ScriptSpec(bytes, 0.08, 0.02);
+        }
+    }
+
+    /** Shape of a source map with {@code modules} sources, each embedding about {@code sourcesContentBytes} of code. */
+    public record SourceMapSpec(int modules, int sourcesContentBytes) {
+        public SourceMapSpec {
+            requireRange(modules, 0, Integer.MAX_VALUE, "modules");
+            requireRange(sourcesContentBytes, 0, Integer.MAX_VALUE, "sourcesContentBytes");
+        }
+
+        public static SourceMapSpec typical(int modules) {
+            return new SourceMapSpec(modules, 2048);
+        }
+    }
+
+    /** One generated site-map entry. */
+    public record Resource(String url, String mimeType, String body) {
+    }
+
+    private static final String[] ACTIONS = {
+        "Save", "Delete", "Approve", "Reject", "Export", "Import", "Grant role", "Revoke access",
+        "Reset password", "Unlock account", "Edit", "View", "Archive", "Publish", "Download"
+    };
+    private static final String[] RESOURCES = {
+        "users", "orders", "invoices", "roles", "permissions", "settings", "reports", "tokens", "projects", "audit"
+    };
+    private static final String[] AREAS = {"api/v1", "api/v2", "admin", "internal", "api"};
+    private static final String[] HOSTS = {"app.corpus.test", "admin.corpus.test", "cdn.corpus.test"};
+
+    private final long seed;
+
+    public SyntheticCorpus(long seed) {
+        this.seed = seed;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public String htmlPage(HtmlSpec spec) {
+        SplittableRandom random = random("html", spec.toString());
+        StringBuilder out = new StringBuilder(256 + spec.controls() * (160 + spec.nestingDepth() * 30));
+        openPage(out, random);
+        int scriptEvery = spec.inlineScripts() == 0 ? 0 : Math.max(1, spec.controls() / spec.inlineScripts());
+        int scripts = 0;
+        for (int i = 0; i < spec.controls(); i++) {
+            appendControl(out, random, spec, i);
+            if (scriptEvery > 0 && scripts < spec.inlineScripts() && i % scriptEvery == 0) {
+                appendInlineScript(out, random);
+                scripts++;
+            }
+        }
+        while (scripts < spec.inlineScripts()) {
+            appendInlineScript(out, random);
+            scripts++;
+        }
+        return closePage(out);
+    }
+
+    /** A page in the given shape, with controls (and an inline script every 50) added until it reaches {@code bytes}. */
+    public String htmlPageOfSize(int bytes, HtmlSpec shape) {
+        SplittableRandom random = random("html-sized", bytes + shape.toString());
+        StringBuilder out = new StringBuilder(bytes + 1024);
+        openPage(out, random);
+        int tail = "</main></body></html>".length();
+        for (int i = 0; out.length() + tail < bytes; i++) {
+            appendControl(out, random, shape, i);
+            if (shape.inlineScripts() > 0 && i % 50 == 0) {
+                appendInlineScript(out, random);
+            }
+        }
+        return closePage(out);
+    }
+
+    public String javaScriptBundle(ScriptSpec spec) {
+        SplittableRandom random = random("js", spec.toString());
+        StringBuilder out = new StringBuilder(spec.bytes() + 256);
+        out.append("!function(){\"use strict\";var e={},t=window.__APP_CONFIG__||{};");
+        String tail = "}();\n//# sourceMappingURL=main." + hex(random, 8) + ".js.map\n";
+        for (int i = 0; out.length() + tail.length() < spec.bytes(); i++) {
+            appendStatement(out, random, spec.endpointDensity(), spec.sinkDensity(), i);
+        }
+        return out.append(tail).toString();
+    }
+
+    public String sourceMap(SourceMapSpec spec) {
+        SplittableRandom random = random("map", spec.toString());
+        StringBuilder sources = new StringBuilder();
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < spec.modules(); i++) {
+            appendModule(sources, contents, random, i, spec.sourcesContentBytes());
+        }
+        return wrapSourceMap(sources, contents);
+    }
+
+    /** A source map with modules of {@code moduleBytes} added until it reaches about {@code bytes}. */
+    public String sourceMapOfSize(int bytes, int moduleBytes) {
+        SplittableRandom random = random("map-sized", bytes + ":" + moduleBytes);
+        StringBuilder sources = new StringBuilder();
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; sources.length() + contents.length() + 128 < bytes; i++) {
+            appendModule(sources, contents, random, i, moduleBytes);
+        }
+        return wrapSourceMap(sources, contents);
+    }
+
+    /**
+     * Site-map entry {@code index}: mostly pages and bundles, some source maps, and some JSON, CSS and image
+     * responses that no analyzer should pick up. Generated on demand, so large site maps cost no memory.
+     */
+    public Resource resource(int index) {
+        SplittableRandom random = random("resource", Integer.toString(index));
+        String host = HOSTS[index % HOSTS.length];
+        int kind = random.nextInt(100);
+        if (kind < 45) {
+            String path = "/" + pick(random, RESOURCES) + "/" + index;
+            return new Resource("https://" + host + path, "text/html",
+                htmlPage(new HtmlSpec(10 + random.nextInt(70), 1 + random.nextInt(6), random.nextDouble() * 0.3, random.nextInt(3))));
+        }
+        if (kind < 75) {
+            return new Resource("https://" + host + "/static/js/chunk-" + index + ".js", "application/javascript",
+                javaScriptBundle(new ScriptSpec(4096 + random.nextInt(60 * 1024), 0.02 + random.nextDouble() * 0.1, random.nextDouble() * 0.03)));
+        }
+        if (kind < 85) {
+            return new Resource("https://" + host + "/static/js/chunk-" + index + ".js.map", "application/json",
+                sourceMap(new SourceMapSpec(2 + random.nextInt(18), 512 + random.nextInt(3072))));
+        }
+        if (kind < 92) {
+            return new Resource("https://" + host + "/api/v1/" + pick(random, RESOURCES) + "?page=" + index, "application/json",
+                "{\"items\":[{\"id\":" + index + ",\"name\":\"item-" + index + "\"}],\"total\":1}");
+        }
+        if (kind < 97) {
+            return new Resource("https://" + host + "/static/css/site-" + index + ".css", "text/css",
+                ".panel{display:flex;gap:8px}.btn-disabled{opacity:.5}#c" + index + "{color:#333}");
+        }
+        return new Resource("https://" + host + "/static/img/logo-" + index + ".png", "image/png", "\u0089PNG\r\n\u001a\n");
+    }
+
+    /** The first {@code count} entries of {@link #resource(int)} as a list that generates each entry when read. */
+    public List<Resource> resources(int count) {
+        requireRange(count, 0, Integer.MAX_VALUE, "count");
+        return new AbstractList<>() {
+            @Override
+            public Resource get(int index) {
+                if (index < 0 || index >= count) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return resource(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private SplittableRandom random(String kind, String shape) {
+        long h = seed;
+        for (String part : new String[] {kind, shape}) {
+            h = h * 0x9E3779B97F4A7C15L + part.hashCode();
+        }
+        return new SplittableRandom(h);
+    }
+
+    private static void openPage(StringBuilder out, SplittableRandom random) {
+        out.append("<!doctype html><html lang=\"en\"><head><meta charset=\"utf-8\"><title>")
+            .append(capitalize(pick(random, RESOURCES))).append(" | Console</title>")
+            .append("<meta name=\"csrf-token\" content=\"").append(hex(random, 32)).append("\">")
+            .append("<script src=\"/static/js/main.").append(hex(random, 8)).append(".js\" defer></script>")
+            .append("</head><body class=\"app\"><main id=\"root\">");
+    }
+
+    private static String closePage(StringBuilder out) {
+        return out.append("</main></body></html>").toString();
+    }
+
+    private static void appendControl(StringBuilder out, SplittableRandom random, HtmlSpec spec, int index) {
+        for (int depth = 0; depth < spec.nestingDepth(); depth++) {
+            out.append("<div class=\"l").append(depth).append(depth == 0 ? " panel" : "").append("\">");
+        }
+        String action = pick(random, ACTIONS);
+        String gate = random.nextDouble() < spec.hiddenRatio() ? gateAttribute(random) : "";
+        String path = "/" + pick(random, AREAS) + "/" + pick(random, RESOURCES) + "/" + index;
+        switch (random.nextInt(6)) {
+            case 0 -> out.append("<button type=\"submit\" id=\"btn-").append(index).append("\" data-testid=\"")
+                .append(slug(action)).append('-').append(index).append('"').append(gate).append('>')
+                .append(action).append("</button>");
+            case 1 -> out.append("<a href=\"").append(path).append("\" class=\"link\"").append(gate).append('>')
+                .append(action).append("</a>");
+            case 2 -> out.append("<input type=\"submit\" name=\"").append(slug(action)).append("\" value=\"")
+                .append(action).append('"').append(gate).append('>');
+            case 3 -> out.append("<select name=\"role-").append(index).append('"').append(gate)
+                .append("><option>viewer</option><option>editor</option><option>admin</option></select>");
+            case 4 -> out.append("<form action=\"").append(path).append("\" method=\"post\">")
+                .append("<input type=\"hidden\" name=\"role\" value=\"").append(random.nextBoolean() ? "viewer" : "admin").append("\">")
+                .append("<button type=\"submit\"").append(gate).append('>').append(action).append("</button></form>");
+            default -> out.append("<div role=\"button\" data-action=\"").append(slug(action)).append("\" data-url=\"")
+                .append(path).append("\" onclick=\"run(").append(index).append(")\"").append(gate).append('>')
+                .append(action).append("</div>");
+        }
+        out.append("<span class=\"hint\">").append(pick(random, RESOURCES)).append(' ').append(index).append("</span>");
+        for (int depth = 0; depth < spec.nestingDepth(); depth++) {
+            out.append("</div>");
+        }
+    }
+
+    private static String gateAttribute(SplittableRandom random) {
+        return switch (random.nextInt(6)) {
+            case 0 -> " disabled";
+            case 1 -> " aria-disabled=\"true\"";
+            case 2 -> " style=\"display:none\"";
+            case 3 -> " hidden";
+            case 4 -> " class=\"btn d-none\"";
+            default -> " class=\"btn btn-disabled\"";
+        };
+    }
+
+    private static void appendInlineScript(StringBuilder out, SplittableRandom random) {
+        out.append("<script>");
+        for (int i = 0; i < 3; i++) {
+            appendStatement(out, random, 0.5, 0.25, random.nextInt(10_000));
+        }
+        out.append("</script>");
+    }
+
+    private static void appendStatement(StringBuilder out, SplittableRandom random, double endpointDensity, double sinkDensity, int n) {
+        double roll = random.nextDouble();
+        if (roll < endpointDensity) {
+            String path = "/" + pick(random, AREAS) + "/" + pick(random, RESOURCES);
+            switch (random.nextInt(4)) {
+                case 0 -> out.append("fetch(\"").append(path).append("/\"+n").append(n).append(",{credentials:\"include\"});");
+                case 1 -> out.append("axios.post(\"").append(path).append("\",{id:").append(n).append("});");
+                case 2 -> out.append("xhr.open(\"GET\",\"").append(path).append("?id=").append(n).append("\");");
+                default -> out.append("axios.post(\"/graphql\",{query:\"mutation Update").append(capitalize(pick(random, RESOURCES)))
+                    .append(" { update(id: ").append(n).append(") { ok } }\"});");
+            }
+        } else if (roll < endpointDensity + sinkDensity) {
+            switch (random.nextInt(5)) {
+                case 0 -> out.append("document.getElementById(\"m").append(n).append("\").innerHTML=t.banner;");
+                case 1 -> out.append("e.el").append(n).append(".insertAdjacentHTML(\"beforeend\",t.html);");
+                case 2 -> out.append("window.addEventListener(\"message\",function(m){e.msg").append(n).append("=m.data});");
+                case 3 -> out.append("setTimeout(\"refresh").append(n).append("()\",500);");
+                default -> out.append("eval(t.expr").append(n).append(");");
+            }
+        } else {
+            switch (random.nextInt(3)) {
+                case 0 -> out.append("function a").append(n).append("(n,r){return n&&n.id?n.id+r:").append(n).append('}');
+                case 1 -> out.append("var q").append(n).append('=').append(random.nextInt(1000)).append(",z").append(n)
+                    .append("=[").append(random.nextInt(9)).append(',').append(random.nextInt(9)).append("];");
+                default -> out.append("e.r").append(n).append("={path:\"/").append(pick(random, RESOURCES)).append('/')
+                    .append(n).append("\",title:\"").append(pick(random, ACTIONS)).append("\"};");
+            }
+        }
+    }
+
+    private static void appendModule(StringBuilder sources, StringBuilder contents, SplittableRandom random, int index, int moduleBytes) {
+        if (index > 0) {
+            sources.append(',');
+            contents.append(',');
+        }
+        String resource = pick(random, RESOURCES);
+        sources.append("\"webpack:///src/features/").append(resource).append('/').append(capitalize(resource))
+            .append("Panel").append(index).append(".tsx\"");
+        StringBuilder code = new StringBuilder(moduleBytes + 128);
+        code.append("import { api } from '../../api';\n");
+        for (int line = 0; code.length() < moduleBytes; line++) {
+            switch (random.nextInt(8)) {
+                case 0 -> code.append("// TODO remove ").append(pick(random, AREAS)).append(" override before release\n");
+                case 1 -> code.append("const res").append(line).append(" = await api.get('/").append(pick(random, AREAS))
+                    .append('/').append(resource).append("/' + id);\n");
+                case 2 -> code.append("export const ").append(resource.toUpperCase(Locale.ROOT)).append("_KEY_").append(line)
+                    .append(" = '").append(hex(random, 24)).append("';\n");
+                default -> code.append("export function render").append(line).append("(props) { return props.items.map((item) => item.")
+                    .append(resource).append("); }\n");
+            }
+        }
+        appendJsonString(contents, code);
+    }
+
+    private static String wrapSourceMap(StringBuilder sources, StringBuilder contents) {
+        return "{\"version\":3,\"file\":\"main.js\",\"sources\":[" + sources + "],\"sourcesContent\":[" + contents
+            + "],\"names\":[],\"mappings\":\"AAAA,SAASA;AACA\"}";
+    }
+
+    private static void appendJsonString(StringBuilder out, CharSequence text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String hex(SplittableRandom random, int length) {
+        StringBuilder out = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            out.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return out.toString();
+    }
+
+    private static String slug(String text) {
+        return text.toLowerCase(Locale.ROOT).replace(' ', '-');
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static void requireRange(int value, int min, int max, String name) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max + ": " + value);
+        }
+    }
+
+    private static void requireRatio(double value, String name) {
+        if (!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + value);
+        }
+    }
+}